@@ -0,0 +1,77 @@
+package com.runner.architecture.util;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Reusable CharSequence view over ASCII bytes of a byte array or a ByteBuffer. Lets the date scanners read bytes
+ * without copying them into a String. The view is mutable and must not be shared between threads.
+ *
+ * @author keshavprasad.akasam
+ *
+ */
+final class RunnerAsciiSequence implements CharSequence {
+
+	private byte[] bytes;
+	private ByteBuffer buffer;
+	private int offset;
+	private int length;
+
+	/**
+	 * Points the view to the given bytes.
+	 *
+	 * @param bytes
+	 * @param offset
+	 * @param length
+	 * @return this view
+	 */
+	RunnerAsciiSequence set(byte[] bytes, int offset, int length) {
+		this.bytes = bytes;
+		this.buffer = null;
+		this.offset = offset;
+		this.length = length;
+		return this;
+	}
+
+	/**
+	 * Points the view to the given buffer. Bytes are read with absolute gets so the buffer position is not changed.
+	 *
+	 * @param buffer
+	 * @param offset
+	 * @param length
+	 * @return this view
+	 */
+	RunnerAsciiSequence set(ByteBuffer buffer, int offset, int length) {
+		this.bytes = null;
+		this.buffer = buffer;
+		this.offset = offset;
+		this.length = length;
+		return this;
+	}
+
+	@Override
+	public int length() {
+		return length;
+	}
+
+	@Override
+	public char charAt(int index) {
+		if (bytes != null) {
+			return (char) (bytes[offset + index] & 0xFF);
+		}
+		return (char) (buffer.get(offset + index) & 0xFF);
+	}
+
+	@Override
+	public CharSequence subSequence(int start, int end) {
+		return toString().substring(start, end);
+	}
+
+	@Override
+	public String toString() {
+		char[] chars = new char[length];
+		for (int i = 0; i < length; i++) {
+			chars[i] = charAt(i);
+		}
+		return new String(chars);
+	}
+}
@@ -0,0 +1,676 @@
+package com.runner.architecture.util;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.time.DayOfWeek;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Calendar of business days: days that are neither weekend days nor holidays. Answers the business day questions of
+ * settlement and due date calculations without looping day by day over RunnerDate.increaseDateByOne:
+ * <ul>
+ * <li>{@link #isBusinessDay(int)} in constant time</li>
+ * <li>{@link #getDiffInBusinessDays(int, int)} in constant time</li>
+ * <li>{@link #plusBusinessDays(int, int)}, {@link #getNextBusinessDay(int)} and {@link #getPreviousBusinessDay(int)}
+ * in logarithmic time</li>
+ * </ul>
+ *
+ * The weekend is a mask of days of the week, see {@link #weekendMask(DayOfWeek...)}. Holidays are given for a range
+ * of years and stored as one bitmap per year. Before and after those years only the weekend applies. For counting,
+ * the business days of the range are also kept as one continuous bitmap with the number of business days before every
+ * 64 days.
+ *
+ * Calendars are created with a {@link Builder} or read from a file with {@link #load(File)}, which caches the calendar
+ * of each file until the file changes. Calendars are immutable and can be shared between threads.
+ *
+ * Methods with Date parameters use the day of the date in the default time zone, like RunnerDate.compareDates. Dates
+ * they return keep the time of day of the given date, like RunnerDate.increaseDateByGivenNumberOfDates.
+ *
+ * @author keshavprasad.akasam
+ *
+ */
+public final class RunnerBusinessCalendar {
+
+	/* Weekend masks, bit 0 is Monday and bit 6 Sunday */
+	public static final int SATURDAY_SUNDAY = 0x60;
+	public static final int FRIDAY_SATURDAY = 0x30;
+	public static final int NO_WEEKEND = 0;
+
+	/* Years supported for holidays, before 1583 java.util dates are Julian */
+	private static final int MIN_YEAR = 1583;
+	private static final int MAX_YEAR = 9999;
+
+	/* Words of a holiday bitmap of one year, 366 days */
+	private static final int WORDS_PER_YEAR = 6;
+
+	/* 5.1.1970 was a Monday */
+	private static final int FIRST_MONDAY = 4;
+
+	private static final ConcurrentMap<String, LoadedCalendar> LOADED_CALENDARS = new ConcurrentHashMap<String, LoadedCalendar>();
+
+	private final int firstYear;
+	private final int lastYear;
+	private final int weekendMask;
+
+	/* Holidays of each year by day of year */
+	private final long[] holidays;
+
+	/* Business days of the years, from startDay (inclusive) to endDay (exclusive) */
+	private final int startDay;
+	private final int endDay;
+	private final long[] businessDays;
+
+	/* Number of business days before each word of businessDays, followed by the total */
+	private final int[] businessDaysBefore;
+
+	/* Business days of a week: number before each day of week and the days of week in order */
+	private final int[] weekBusinessDaysBefore = new int[8];
+	private final int[] weekBusinessDays;
+
+	private RunnerBusinessCalendar(int firstYear, int lastYear, int weekendMask, long[] holidays) {
+		this.firstYear = firstYear;
+		this.lastYear = lastYear;
+		this.weekendMask = weekendMask;
+		this.holidays = holidays;
+		this.startDay = RunnerEpochDate.of(firstYear, 1, 1);
+		this.endDay = RunnerEpochDate.of(lastYear + 1, 1, 1);
+
+		int businessDaysPerWeek = 7 - Integer.bitCount(weekendMask);
+		this.weekBusinessDays = new int[businessDaysPerWeek];
+		for (int dayOfWeek = 0; dayOfWeek < 7; dayOfWeek++) {
+			int count = weekBusinessDaysBefore[dayOfWeek];
+			if ((weekendMask & 1 << dayOfWeek) == 0) {
+				weekBusinessDays[count++] = dayOfWeek;
+			}
+			weekBusinessDaysBefore[dayOfWeek + 1] = count;
+		}
+
+		int dayCount = endDay - startDay;
+		this.businessDays = new long[(dayCount + 63) / 64];
+		this.businessDaysBefore = new int[businessDays.length + 1];
+		for (int year = firstYear; year <= lastYear; year++) {
+			int yearStart = RunnerEpochDate.of(year, 1, 1);
+			int yearLength = RunnerEpochDate.isLeapYear(year) ? 366 : 365;
+			for (int dayOfYear = 0; dayOfYear < yearLength; dayOfYear++) {
+				int index = yearStart + dayOfYear - startDay;
+				if (!isWeekend(yearStart + dayOfYear) && !isHoliday(year, dayOfYear)) {
+					businessDays[index >>> 6] |= 1L << index;
+				}
+			}
+		}
+		for (int word = 0; word < businessDays.length; word++) {
+			businessDaysBefore[word + 1] = businessDaysBefore[word] + Long.bitCount(businessDays[word]);
+		}
+	}
+
+	/**
+	 * Returns builder of a calendar with holidays in the given years and the Saturday-Sunday weekend. Years must be
+	 * between 1583 and 9999.
+	 *
+	 * @param firstYear
+	 * @param lastYear
+	 * @return builder
+	 * @throws IncorrectInputParametersException
+	 */
+	public static Builder builder(int firstYear, int lastYear) throws IncorrectInputParametersException {
+		if (firstYear < MIN_YEAR || lastYear > MAX_YEAR || firstYear > lastYear) {
+			throw new IncorrectInputParametersException("Incorrect input parameters. Years must be between "
+					+ MIN_YEAR + " and " + MAX_YEAR + " and firstYear not after lastYear.");
+		}
+		return new Builder(firstYear, lastYear);
+	}
+
+	/**
+	 * Returns weekend mask of the given days.
+	 *
+	 * @param days
+	 * @return mask
+	 * @throws IncorrectInputParametersException
+	 */
+	public static int weekendMask(DayOfWeek... days) throws IncorrectInputParametersException {
+		if (days == null) {
+			throw new IncorrectInputParametersException("Incorrect input parameters. Parameter days is mandatory.");
+		}
+		int mask = 0;
+		for (DayOfWeek day : days) {
+			if (day == null) {
+				throw new IncorrectInputParametersException("Incorrect input parameters. Days must not contain null.");
+			}
+			mask |= 1 << day.ordinal();
+		}
+		return mask;
+	}
+
+	/**
+	 * Returns calendar read from the given file. The calendar is cached and the same instance is returned until the
+	 * modification time or length of the file changes. See {@link #read(Reader)} for the file format.
+	 *
+	 * If file is null an IncorrectInputParametersException is thrown.
+	 *
+	 * @param file
+	 * @return calendar
+	 * @throws IOException
+	 *             if the file cannot be read or is not valid
+	 * @throws IncorrectInputParametersException
+	 */
+	public static RunnerBusinessCalendar load(File file) throws IOException, IncorrectInputParametersException {
+		if (file == null) {
+			throw new IncorrectInputParametersException("Incorrect input parameters. Parameter file is mandatory.");
+		}
+
+		String path = file.getCanonicalPath();
+		long lastModified = file.lastModified();
+		long length = file.length();
+		LoadedCalendar loaded = LOADED_CALENDARS.get(path);
+		if (loaded != null && loaded.lastModified == lastModified && loaded.length == length) {
+			return loaded.calendar;
+		}
+
+		Reader reader = new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8);
+		try {
+			loaded = new LoadedCalendar(lastModified, length, read(reader));
+		} finally {
+			reader.close();
+		}
+		// Threads loading the same file at once read equal calendars, the last one stays cached
+		LOADED_CALENDARS.put(path, loaded);
+		return loaded.calendar;
+	}
+
+	/**
+	 * Reads calendar from the given text, one entry per line:
+	 * <ul>
+	 * <li>years=2020-2030 for the years of the holidays, by default the years of the first and last holiday</li>
+	 * <li>weekend=SATURDAY,SUNDAY for the weekend days, empty for no weekend, by default Saturday and Sunday</li>
+	 * <li>a holiday as yyyy-MM-dd</li>
+	 * </ul>
+	 * Text after # and empty lines are ignored. The reader is not closed.
+	 *
+	 * If reader is null an IncorrectInputParametersException is thrown.
+	 *
+	 * @param reader
+	 * @return calendar
+	 * @throws IOException
+	 *             if the text cannot be read or is not valid
+	 * @throws IncorrectInputParametersException
+	 */
+	public static RunnerBusinessCalendar read(Reader reader) throws IOException, IncorrectInputParametersException {
+		if (reader == null) {
+			throw new IncorrectInputParametersException("Incorrect input parameters. Parameter reader is mandatory.");
+		}
+
+		BufferedReader lines = new BufferedReader(reader);
+		int firstYear = 0;
+		int lastYear = -1;
+		int mask = SATURDAY_SUNDAY;
+		int[] holidayDays = new int[16];
+		int holidayCount = 0;
+		int lineNumber = 0;
+
+		for (String line = lines.readLine(); line != null; line = lines.readLine()) {
+			lineNumber++;
+			int commentStart = line.indexOf('#');
+			String entry = (commentStart < 0 ? line : line.substring(0, commentStart)).trim();
+			try {
+				if (entry.isEmpty()) {
+					continue;
+				} else if (entry.startsWith("years=")) {
+					String years = entry.substring(6).trim();
+					int separator = years.indexOf('-', 1);
+					if (separator < 0) {
+						throw new IOException("Years must be given as first-last.");
+					}
+					firstYear = Integer.parseInt(years.substring(0, separator).trim());
+					lastYear = Integer.parseInt(years.substring(separator + 1).trim());
+				} else if (entry.startsWith("weekend=")) {
+					mask = NO_WEEKEND;
+					for (String day : entry.substring(8).split(",")) {
+						if (!day.trim().isEmpty()) {
+							mask |= weekendMask(DayOfWeek.valueOf(day.trim().toUpperCase()));
+						}
+					}
+				} else {
+					if (holidayCount == holidayDays.length) {
+						holidayDays = Arrays.copyOf(holidayDays, holidayCount * 2);
+					}
+					holidayDays[holidayCount++] = parseDay(entry);
+				}
+			} catch (IllegalArgumentException iae) {
+				throw new IOException("Line " + lineNumber + " of the business calendar is not valid: " + line, iae);
+			} catch (IOException ioe) {
+				throw new IOException("Line " + lineNumber + " of the business calendar is not valid: " + line, ioe);
+			}
+		}
+
+		Arrays.sort(holidayDays, 0, holidayCount);
+		if (lastYear < firstYear && holidayCount > 0) {
+			firstYear = RunnerEpochDate.getYear(holidayDays[0]);
+			lastYear = RunnerEpochDate.getYear(holidayDays[holidayCount - 1]);
+		}
+		if (lastYear < firstYear) {
+			throw new IOException("Business calendar has neither years nor holidays.");
+		}
+
+		try {
+			Builder builder = builder(firstYear, lastYear).setWeekendMask(mask);
+			for (int i = 0; i < holidayCount; i++) {
+				builder.addHoliday(holidayDays[i]);
+			}
+			return builder.build();
+		} catch (IncorrectInputParametersException iipe) {
+			throw new IOException("Business calendar is not valid: " + iipe.getMessage(), iipe);
+		}
+	}
+
+	/**
+	 * Returns the first year with holidays.
+	 *
+	 * @return year
+	 */
+	public int getFirstYear() {
+		return firstYear;
+	}
+
+	/**
+	 * Returns the last year with holidays.
+	 *
+	 * @return year
+	 */
+	public int getLastYear() {
+		return lastYear;
+	}
+
+	/**
+	 * Returns the weekend mask, bit 0 for Monday to bit 6 for Sunday.
+	 *
+	 * @return mask
+	 */
+	public int getWeekendMask() {
+		return weekendMask;
+	}
+
+	/**
+	 * Checks whether the given epoch day is a weekend day.
+	 *
+	 * @param epochDay
+	 * @return true for weekend days
+	 */
+	public boolean isWeekend(int epochDay) {
+		return (weekendMask & 1 << dayOfWeek(epochDay)) != 0;
+	}
+
+	/**
+	 * Checks whether the given epoch day is a holiday. Days outside the years of the calendar are not holidays.
+	 *
+	 * @param epochDay
+	 * @return true for holidays
+	 */
+	public boolean isHoliday(int epochDay) {
+		if (epochDay < startDay || epochDay >= endDay) {
+			return false;
+		}
+		int year = RunnerEpochDate.getYear(epochDay);
+		return isHoliday(year, epochDay - RunnerEpochDate.of(year, 1, 1));
+	}
+
+	/**
+	 * Checks whether the given epoch day is a business day.
+	 *
+	 * @param epochDay
+	 * @return true if neither weekend day nor holiday
+	 */
+	public boolean isBusinessDay(int epochDay) {
+		if (epochDay < startDay || epochDay >= endDay) {
+			return !isWeekend(epochDay);
+		}
+		int index = epochDay - startDay;
+		return (businessDays[index >>> 6] & 1L << index) != 0;
+	}
+
+	/**
+	 * Same as {@link #isBusinessDay(int)} for the day of the given date.
+	 *
+	 * @param date
+	 * @return true if neither weekend day nor holiday
+	 * @throws IncorrectInputParametersException
+	 */
+	public boolean isBusinessDay(Date date) throws IncorrectInputParametersException {
+		return isBusinessDay(epochDayOf(date, TimeZone.getDefault()));
+	}
+
+	/**
+	 * Moves the given epoch day by the given number of business days. Counts the business days after the given day
+	 * for positive days and before it for negative days, the given day itself is not counted. Zero days returns the
+	 * given day even if it is not a business day.
+	 *
+	 * @param epochDay
+	 * @param days
+	 *            number of business days
+	 * @return epoch day
+	 * @throws IncorrectInputParametersException
+	 *             if the result is not an int epoch day
+	 */
+	public int plusBusinessDays(int epochDay, int days) throws IncorrectInputParametersException {
+		if (days == 0) {
+			return epochDay;
+		}
+		// Business day number n is the one with n business days before it
+		long number = days > 0 ? rank(epochDay + 1L) + days - 1 : rank(epochDay) + days;
+		return select(number);
+	}
+
+	/**
+	 * Same as {@link #plusBusinessDays(int, int)} for the day of the given date.
+	 *
+	 * @param date
+	 * @param days
+	 *            number of business days
+	 * @return new date with the time of day of the given date
+	 * @throws IncorrectInputParametersException
+	 */
+	public Date plusBusinessDays(Date date, int days) throws IncorrectInputParametersException {
+		TimeZone zone = TimeZone.getDefault();
+		int epochDay = epochDayOf(date, zone);
+		return plusDays(date, epochDay, plusBusinessDays(epochDay, days), zone);
+	}
+
+	/**
+	 * Returns the first business day after the given epoch day.
+	 *
+	 * @param epochDay
+	 * @return epoch day
+	 * @throws IncorrectInputParametersException
+	 */
+	public int getNextBusinessDay(int epochDay) throws IncorrectInputParametersException {
+		return plusBusinessDays(epochDay, 1);
+	}
+
+	/**
+	 * Same as {@link #getNextBusinessDay(int)} for the day of the given date.
+	 *
+	 * @param date
+	 * @return new date with the time of day of the given date
+	 * @throws IncorrectInputParametersException
+	 */
+	public Date getNextBusinessDay(Date date) throws IncorrectInputParametersException {
+		return plusBusinessDays(date, 1);
+	}
+
+	/**
+	 * Returns the last business day before the given epoch day.
+	 *
+	 * @param epochDay
+	 * @return epoch day
+	 * @throws IncorrectInputParametersException
+	 */
+	public int getPreviousBusinessDay(int epochDay) throws IncorrectInputParametersException {
+		return plusBusinessDays(epochDay, -1);
+	}
+
+	/**
+	 * Same as {@link #getPreviousBusinessDay(int)} for the day of the given date.
+	 *
+	 * @param date
+	 * @return new date with the time of day of the given date
+	 * @throws IncorrectInputParametersException
+	 */
+	public Date getPreviousBusinessDay(Date date) throws IncorrectInputParametersException {
+		return plusBusinessDays(date, -1);
+	}
+
+	/**
+	 * Counts the business days after epochDay1 up to and including epochDay2, negative if epochDay2 is before
+	 * epochDay1. For a business day d getDiffInBusinessDays(d, plusBusinessDays(d, n)) is n.
+	 *
+	 * @param epochDay1
+	 * @param epochDay2
+	 * @return number of business days
+	 */
+	public int getDiffInBusinessDays(int epochDay1, int epochDay2) {
+		return (int) (rank(epochDay2 + 1L) - rank(epochDay1 + 1L));
+	}
+
+	/**
+	 * Same as {@link #getDiffInBusinessDays(int, int)} for the days of the given dates.
+	 *
+	 * @param date1
+	 * @param date2
+	 * @return number of business days
+	 * @throws IncorrectInputParametersException
+	 */
+	public int getDiffInBusinessDays(Date date1, Date date2) throws IncorrectInputParametersException {
+		TimeZone zone = TimeZone.getDefault();
+		return getDiffInBusinessDays(epochDayOf(date1, zone), epochDayOf(date2, zone));
+	}
+
+	/**
+	 * Returns the number of business days before the given day, counted from the first day of the calendar years.
+	 * Negative for days before them.
+	 */
+	private long rank(long epochDay) {
+		if (epochDay < startDay) {
+			return weekRank(epochDay) - weekRank(startDay);
+		} else if (epochDay >= endDay) {
+			return businessDaysBefore[businessDays.length] + weekRank(epochDay) - weekRank(endDay);
+		}
+		int index = (int) epochDay - startDay;
+		int word = index >>> 6;
+		return businessDaysBefore[word] + Long.bitCount(businessDays[word] & (1L << index) - 1);
+	}
+
+	/**
+	 * Returns the business day with the given rank.
+	 */
+	private int select(long rank) throws IncorrectInputParametersException {
+		long epochDay;
+		int total = businessDaysBefore[businessDays.length];
+		if (rank < 0) {
+			epochDay = weekSelect(rank + weekRank(startDay));
+		} else if (rank >= total) {
+			epochDay = weekSelect(rank - total + weekRank(endDay));
+		} else {
+			// Last word with fewer business days before it than the rank
+			int low = 0;
+			int high = businessDays.length;
+			while (low < high) {
+				int middle = (low + high + 1) >>> 1;
+				if (businessDaysBefore[middle] <= rank) {
+					low = middle;
+				} else {
+					high = middle - 1;
+				}
+			}
+			long bits = businessDays[low];
+			for (long skipped = businessDaysBefore[low]; skipped < rank; skipped++) {
+				bits &= bits - 1;
+			}
+			epochDay = startDay + low * 64L + Long.numberOfTrailingZeros(bits);
+		}
+
+		if (epochDay < Integer.MIN_VALUE || epochDay > Integer.MAX_VALUE) {
+			throw new IncorrectInputParametersException("Incorrect input parameters. Result is not an epoch day.");
+		}
+		return (int) epochDay;
+	}
+
+	/**
+	 * Returns the number of business days of the weekend pattern from the first Monday of 1970 to the given day.
+	 */
+	private long weekRank(long epochDay) {
+		long days = epochDay - FIRST_MONDAY;
+		return Math.floorDiv(days, 7) * weekBusinessDays.length + weekBusinessDaysBefore[(int) Math.floorMod(days, 7)];
+	}
+
+	/**
+	 * Returns the day of the weekend pattern with the given week rank.
+	 */
+	private long weekSelect(long weekRank) {
+		int businessDaysPerWeek = weekBusinessDays.length;
+		return FIRST_MONDAY + Math.floorDiv(weekRank, businessDaysPerWeek) * 7
+				+ weekBusinessDays[(int) Math.floorMod(weekRank, businessDaysPerWeek)];
+	}
+
+	private boolean isHoliday(int year, int dayOfYear) {
+		int word = (year - firstYear) * WORDS_PER_YEAR + (dayOfYear >>> 6);
+		return (holidays[word] & 1L << dayOfYear) != 0;
+	}
+
+	private static int dayOfWeek(int epochDay) {
+		return Math.floorMod(epochDay - FIRST_MONDAY, 7);
+	}
+
+	private static int epochDayOf(Date date, TimeZone zone) throws IncorrectInputParametersException {
+		if (date == null) {
+			throw new IncorrectInputParametersException("Incorrect input parameters. Parameter date is mandatory.");
+		}
+		return RunnerEpochDate.toEpochDay(date.getTime(), zone);
+	}
+
+	/**
+	 * Moves the date to the given day keeping the time of day like RunnerDate.increaseDateByGivenNumberOfDates.
+	 */
+	private static Date plusDays(Date date, int epochDay, int targetEpochDay, TimeZone zone) {
+		long epochMillis = Long.MIN_VALUE;
+		if (RunnerEpochDate.isCalendarCompatible(epochDay) && RunnerEpochDate.isCalendarCompatible(targetEpochDay)) {
+			epochMillis = RunnerEpochDate.plusDaysKeepingTime(date.getTime(), targetEpochDay - epochDay, zone);
+		}
+		if (epochMillis == Long.MIN_VALUE) {
+			Calendar calendar = Calendar.getInstance(zone);
+			calendar.clear();
+			calendar.setTime(date);
+			calendar.add(Calendar.DATE, targetEpochDay - epochDay);
+			epochMillis = calendar.getTimeInMillis();
+		}
+		return new Date(epochMillis);
+	}
+
+	private static int parseDay(String text) throws IOException {
+		if (text.length() != 10 || text.charAt(4) != '-' || text.charAt(7) != '-') {
+			throw new IOException("Holidays must be given as yyyy-MM-dd.");
+		}
+		int year = Integer.parseInt(text.substring(0, 4));
+		int month = Integer.parseInt(text.substring(5, 7));
+		int day = Integer.parseInt(text.substring(8, 10));
+		if (month < 1 || month > 12 || day < 1 || day > RunnerEpochDate.lengthOfMonth(year, month)) {
+			throw new IOException("Holiday " + text + " does not exist.");
+		}
+		return RunnerEpochDate.of(year, month, day);
+	}
+
+	/**
+	 * Calendar read from a file with the file state it was read from.
+	 */
+	private static final class LoadedCalendar {
+
+		private final long lastModified;
+		private final long length;
+		private final RunnerBusinessCalendar calendar;
+
+		private LoadedCalendar(long lastModified, long length, RunnerBusinessCalendar calendar) {
+			this.lastModified = lastModified;
+			this.length = length;
+			this.calendar = calendar;
+		}
+	}
+
+	/**
+	 * Collects weekend and holidays for a calendar. A builder can build several calendars, each with the holidays
+	 * added so far.
+	 */
+	public static final class Builder {
+
+		private final int firstYear;
+		private final int lastYear;
+		private final long[] holidays;
+		private int weekendMask = SATURDAY_SUNDAY;
+
+		private Builder(int firstYear, int lastYear) {
+			this.firstYear = firstYear;
+			this.lastYear = lastYear;
+			this.holidays = new long[(lastYear - firstYear + 1) * WORDS_PER_YEAR];
+		}
+
+		/**
+		 * Sets the weekend days, see RunnerBusinessCalendar.weekendMask. At least one day of the week must remain a
+		 * business day.
+		 *
+		 * @param weekendMask
+		 * @return this builder
+		 * @throws IncorrectInputParametersException
+		 */
+		public Builder setWeekendMask(int weekendMask) throws IncorrectInputParametersException {
+			if (weekendMask < 0 || weekendMask >= 0x7F) {
+				throw new IncorrectInputParametersException(
+						"Incorrect input parameters. Weekend mask must leave at least one business day in a week.");
+			}
+			this.weekendMask = weekendMask;
+			return this;
+		}
+
+		/**
+		 * Adds holiday on the given date.
+		 *
+		 * @param year
+		 * @param month
+		 *            values from 1-12
+		 * @param day
+		 * @return this builder
+		 * @throws IncorrectInputParametersException
+		 */
+		public Builder addHoliday(int year, int month, int day) throws IncorrectInputParametersException {
+			if (month < 1 || month > 12 || day < 1 || day > RunnerEpochDate.lengthOfMonth(year, month)) {
+				throw new IncorrectInputParametersException("Incorrect input parameters. Holiday " + day + "."
+						+ month + "." + year + " does not exist.");
+			}
+			return addHoliday(RunnerEpochDate.of(year, month, day));
+		}
+
+		/**
+		 * Adds holiday on the day of the given date.
+		 *
+		 * @param date
+		 * @return this builder
+		 * @throws IncorrectInputParametersException
+		 */
+		public Builder addHoliday(Date date) throws IncorrectInputParametersException {
+			return addHoliday(epochDayOf(date, TimeZone.getDefault()));
+		}
+
+		/**
+		 * Adds holiday on the given epoch day, which must be in the years of the builder.
+		 *
+		 * @param epochDay
+		 * @return this builder
+		 * @throws IncorrectInputParametersException
+		 */
+		public Builder addHoliday(int epochDay) throws IncorrectInputParametersException {
+			int year = RunnerEpochDate.getYear(epochDay);
+			if (year < firstYear || year > lastYear) {
+				throw new IncorrectInputParametersException("Incorrect input parameters. Holiday must be in years "
+						+ firstYear + "-" + lastYear + ".");
+			}
+			int dayOfYear = epochDay - RunnerEpochDate.of(year, 1, 1);
+			holidays[(year - firstYear) * WORDS_PER_YEAR + (dayOfYear >>> 6)] |= 1L << dayOfYear;
+			return this;
+		}
+
+		/**
+		 * Builds calendar of the weekend and holidays set so far.
+		 *
+		 * @return calendar
+		 */
+		public RunnerBusinessCalendar build() {
+			return new RunnerBusinessCalendar(firstYear, lastYear, weekendMask, holidays.clone());
+		}
+	}
+}
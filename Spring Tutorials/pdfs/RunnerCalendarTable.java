@@ -0,0 +1,214 @@
+package com.runner.architecture.util;
+
+/**
+ * Precomputed Gregorian calendar for a range of years. Maps every epoch day of the range to its year, month and day
+ * and holds the first day of every month, so month and year boundaries are answered by array indexing.
+ *
+ * The default table covers {@link #DEFAULT_FIRST_YEAR}-{@link #DEFAULT_LAST_YEAR} and is built on first use. Tables
+ * for other ranges can be created with {@link #create(int, int)}. Tables are immutable and can be shared between
+ * threads.
+ *
+ * @author keshavprasad.akasam
+ *
+ */
+public final class RunnerCalendarTable {
+
+	public static final int DEFAULT_FIRST_YEAR = 1900;
+	public static final int DEFAULT_LAST_YEAR = 2200;
+
+	/* Years supported by tables, before 1583 java.util dates are Julian */
+	private static final int MIN_YEAR = 1583;
+	private static final int MAX_YEAR = 9999;
+
+	/* Longest range, month indexes of a table must fit in a char */
+	private static final int MAX_YEAR_COUNT = 5000;
+
+	private final int firstYear;
+	private final int lastYear;
+	private final int firstEpochDay;
+
+	/* Epoch day of the first day of each month from firstYear, followed by the months of lastYear + 1 */
+	private final int[] monthStarts;
+
+	/* Month index of each day of the range, offset from firstEpochDay */
+	private final char[] monthIndexes;
+
+	private RunnerCalendarTable(int firstYear, int lastYear) {
+		this.firstYear = firstYear;
+		this.lastYear = lastYear;
+		this.monthStarts = new int[(lastYear - firstYear + 2) * 12];
+
+		for (int i = 0; i < monthStarts.length; i++) {
+			monthStarts[i] = RunnerEpochDate.of(firstYear + i / 12, i % 12 + 1, 1);
+		}
+
+		int monthCount = (lastYear - firstYear + 1) * 12;
+		this.firstEpochDay = monthStarts[0];
+		this.monthIndexes = new char[monthStarts[monthCount] - firstEpochDay];
+		for (int month = 0; month < monthCount; month++) {
+			for (int day = monthStarts[month]; day < monthStarts[month + 1]; day++) {
+				monthIndexes[day - firstEpochDay] = (char) month;
+			}
+		}
+	}
+
+	/**
+	 * Returns table of years DEFAULT_FIRST_YEAR-DEFAULT_LAST_YEAR.
+	 *
+	 * @return default table
+	 */
+	public static RunnerCalendarTable getDefault() {
+		return DefaultTableHolder.TABLE;
+	}
+
+	/**
+	 * Creates table of the given years. Years must be between 1583 and 9999 and the table can cover at most 5000
+	 * years.
+	 *
+	 * @param firstYear
+	 * @param lastYear
+	 * @return table
+	 * @throws IncorrectInputParametersException
+	 */
+	public static RunnerCalendarTable create(int firstYear, int lastYear) throws IncorrectInputParametersException {
+		if (firstYear < MIN_YEAR || lastYear > MAX_YEAR || firstYear > lastYear
+				|| lastYear - firstYear >= MAX_YEAR_COUNT) {
+			throw new IncorrectInputParametersException("Incorrect input parameters. Years must be between "
+					+ MIN_YEAR + " and " + MAX_YEAR + ", firstYear not after lastYear and at most " + MAX_YEAR_COUNT
+					+ " years.");
+		}
+		return new RunnerCalendarTable(firstYear, lastYear);
+	}
+
+	/**
+	 * Returns the first year of the table.
+	 *
+	 * @return year
+	 */
+	public int getFirstYear() {
+		return firstYear;
+	}
+
+	/**
+	 * Returns the last year of the table.
+	 *
+	 * @return year
+	 */
+	public int getLastYear() {
+		return lastYear;
+	}
+
+	/**
+	 * Checks whether the given epoch day is in the years of the table. The other methods may only be called for days
+	 * in the table.
+	 *
+	 * @param epochDay
+	 * @return true if in the table
+	 */
+	public boolean contains(int epochDay) {
+		return epochDay >= firstEpochDay && epochDay - firstEpochDay < monthIndexes.length;
+	}
+
+	/**
+	 * Returns the year of the given epoch day.
+	 *
+	 * @param epochDay
+	 * @return year
+	 */
+	public int getYear(int epochDay) {
+		return firstYear + monthIndex(epochDay) / 12;
+	}
+
+	/**
+	 * Returns the month of the given epoch day.
+	 *
+	 * @param epochDay
+	 * @return month. Values from 1-12
+	 */
+	public int getMonth(int epochDay) {
+		return monthIndex(epochDay) % 12 + 1;
+	}
+
+	/**
+	 * Returns the day of month of the given epoch day.
+	 *
+	 * @param epochDay
+	 * @return day of month
+	 */
+	public int getDayOfMonth(int epochDay) {
+		return epochDay - monthStarts[monthIndex(epochDay)] + 1;
+	}
+
+	/**
+	 * Returns the first day of the month of the given epoch day.
+	 *
+	 * @param epochDay
+	 * @return epoch day
+	 */
+	public int getFirstDayOfMonth(int epochDay) {
+		return monthStarts[monthIndex(epochDay)];
+	}
+
+	/**
+	 * Returns the last day of the month of the given epoch day.
+	 *
+	 * @param epochDay
+	 * @return epoch day
+	 */
+	public int getLastDayOfMonth(int epochDay) {
+		return monthStarts[monthIndex(epochDay) + 1] - 1;
+	}
+
+	/**
+	 * Returns the first day of the month following the month of the given epoch day.
+	 *
+	 * @param epochDay
+	 * @return epoch day
+	 */
+	public int getFirstDayOfNextMonth(int epochDay) {
+		return monthStarts[monthIndex(epochDay) + 1];
+	}
+
+	/**
+	 * Returns the first day of the year of the given epoch day.
+	 *
+	 * @param epochDay
+	 * @return epoch day
+	 */
+	public int getFirstDayOfYear(int epochDay) {
+		return monthStarts[monthIndex(epochDay) / 12 * 12];
+	}
+
+	/**
+	 * Returns the last day of the year of the given epoch day.
+	 *
+	 * @param epochDay
+	 * @return epoch day
+	 */
+	public int getLastDayOfYear(int epochDay) {
+		return getFirstDayOfNextYear(epochDay) - 1;
+	}
+
+	/**
+	 * Returns the first day of the year following the year of the given epoch day.
+	 *
+	 * @param epochDay
+	 * @return epoch day
+	 */
+	public int getFirstDayOfNextYear(int epochDay) {
+		return monthStarts[(monthIndex(epochDay) / 12 + 1) * 12];
+	}
+
+	private int monthIndex(int epochDay) {
+		return monthIndexes[epochDay - firstEpochDay];
+	}
+
+	/**
+	 * Builds the default table on first use.
+	 */
+	private static final class DefaultTableHolder {
+
+		private static final RunnerCalendarTable TABLE = new RunnerCalendarTable(DEFAULT_FIRST_YEAR,
+				DEFAULT_LAST_YEAR);
+	}
+}
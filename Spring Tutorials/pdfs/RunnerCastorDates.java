@@ -0,0 +1,156 @@
+package com.runner.architecture.util;
+
+import java.time.LocalDate;
+import java.util.Date;
+
+/**
+ * Conversions between Castor dates (org.exolab.castor.types.Date) and java.util.Date or LocalDate.
+ *
+ * This is the only class of the package that links to Castor. The other date utilities, RunnerDate included, load
+ * and run without Castor on the classpath; RunnerDate.convertCastorDateToUtilDate and convertUtilDateToCastorDate
+ * delegate here, so this class and Castor are loaded on the first Castor conversion only. Services that do not
+ * convert Castor dates do not need to ship Castor.
+ *
+ * Null input gives null output, bulk conversions write the value for input i to index i of the result array.
+ *
+ * @author keshavprasad.akasam
+ *
+ */
+public final class RunnerCastorDates {
+
+	/* Years that Castor dates without era handling can hold */
+	private static final int MIN_CASTOR_YEAR = 1;
+	private static final int MAX_CASTOR_YEAR = 9999;
+
+	private RunnerCastorDates() {
+	}
+
+	/**
+	 * Returns the given Castor date as local date. The date fields are taken as they are, also when the Castor date
+	 * has a time zone.
+	 *
+	 * @param castorDate
+	 * @return local date
+	 */
+	public static LocalDate toLocalDate(org.exolab.castor.types.Date castorDate) {
+		if (castorDate == null) {
+			return null;
+		}
+		if (castorDate.isNegative()) {
+			// Years before the common era, let Castor resolve the instant
+			return RunnerDateBridge.toLocalDate(castorDate.toDate());
+		}
+		return LocalDate.of(castorDate.getCentury() * 100 + castorDate.getYear(), castorDate.getMonth(),
+				castorDate.getDay());
+	}
+
+	/**
+	 * Returns the given local date as Castor date without time zone.
+	 *
+	 * If the year of the date is not between 1 and 9999 an IncorrectInputParametersException is thrown.
+	 *
+	 * @param localDate
+	 * @return Castor date
+	 * @throws IncorrectInputParametersException
+	 */
+	public static org.exolab.castor.types.Date toCastorDate(LocalDate localDate)
+			throws IncorrectInputParametersException {
+		if (localDate == null) {
+			return null;
+		}
+		return toCastorDate(localDate.getYear(), localDate.getMonthValue(), localDate.getDayOfMonth());
+	}
+
+	/**
+	 * Converts Castor date to java.util.Date. Dates without time zone are converted from their fields to midnight of
+	 * the default time zone; others are converted by Castor.
+	 *
+	 * @param castorDate
+	 * @return date
+	 */
+	public static Date toDate(org.exolab.castor.types.Date castorDate) {
+		if (castorDate == null) {
+			return null;
+		}
+		if (!castorDate.isUTC() && !castorDate.isNegative()) {
+			int epochDay = RunnerEpochDate.of(castorDate.getCentury() * 100 + castorDate.getYear(),
+					castorDate.getMonth(), castorDate.getDay());
+			if (RunnerEpochDate.isCalendarCompatible(epochDay)) {
+				return new Date(RunnerEpochDate.toEpochMillis(epochDay));
+			}
+		}
+		return castorDate.toDate();
+	}
+
+	/**
+	 * Converts java.util.Date to Castor date without time zone, holding the year, month and date of the default time
+	 * zone.
+	 *
+	 * @param date
+	 * @return Castor date
+	 */
+	public static org.exolab.castor.types.Date toCastorDate(Date date) {
+		if (date == null) {
+			return null;
+		}
+		int epochDay = RunnerEpochDate.toEpochDay(date.getTime());
+		if (!RunnerEpochDate.isCalendarCompatible(epochDay) || epochDay > RunnerEpochDate.of(MAX_CASTOR_YEAR, 12, 31)) {
+			return new org.exolab.castor.types.Date(date);
+		}
+		int fields = RunnerEpochDate.toFields(epochDay);
+		return toCastorDate(RunnerEpochDate.yearOf(fields), RunnerEpochDate.monthOf(fields),
+				RunnerEpochDate.dayOf(fields));
+	}
+
+	/**
+	 * Converts Castor dates to local dates. Null Castor dates give null local dates.
+	 *
+	 * @param castorDates
+	 * @param result
+	 * @throws IncorrectInputParametersException
+	 */
+	public static void toLocalDates(org.exolab.castor.types.Date[] castorDates, LocalDate[] result)
+			throws IncorrectInputParametersException {
+		if (castorDates == null || result == null) {
+			throw new IncorrectInputParametersException(
+					"Incorrect input parameters. Input and output parameters are mandatory.");
+		}
+		RunnerDateBridge.checkLength(castorDates.length, result.length);
+		for (int i = 0; i < castorDates.length; i++) {
+			result[i] = toLocalDate(castorDates[i]);
+		}
+	}
+
+	/**
+	 * Converts local dates to Castor dates. Null local dates give null Castor dates.
+	 *
+	 * @param localDates
+	 * @param result
+	 * @throws IncorrectInputParametersException
+	 */
+	public static void toCastorDates(LocalDate[] localDates, org.exolab.castor.types.Date[] result)
+			throws IncorrectInputParametersException {
+		if (localDates == null || result == null) {
+			throw new IncorrectInputParametersException(
+					"Incorrect input parameters. Input and output parameters are mandatory.");
+		}
+		RunnerDateBridge.checkLength(localDates.length, result.length);
+		for (int i = 0; i < localDates.length; i++) {
+			result[i] = toCastorDate(localDates[i]);
+		}
+	}
+
+	private static org.exolab.castor.types.Date toCastorDate(int year, int month, int day)
+			throws IncorrectInputParametersException {
+		if (year < MIN_CASTOR_YEAR || year > MAX_CASTOR_YEAR) {
+			throw new IncorrectInputParametersException("Incorrect input parameters. Year must be between "
+					+ MIN_CASTOR_YEAR + " and " + MAX_CASTOR_YEAR + ".");
+		}
+		org.exolab.castor.types.Date castorDate = new org.exolab.castor.types.Date();
+		castorDate.setCentury((short) (year / 100));
+		castorDate.setYear((short) (year % 100));
+		castorDate.setMonth((short) month);
+		castorDate.setDay((short) day);
+		return castorDate;
+	}
+}
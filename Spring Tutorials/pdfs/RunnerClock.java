@@ -0,0 +1,114 @@
+package com.runner.architecture.util;
+
+import java.util.Date;
+
+/**
+ * Source of the current time for RunnerDate. The system clock is used by default; fixed and offset clocks are meant
+ * for testing and for simulating another date.
+ *
+ * Implementations must be thread-safe.
+ *
+ * @author keshavprasad.akasam
+ *
+ */
+public abstract class RunnerClock {
+
+	private static final RunnerClock SYSTEM = new SystemClock();
+
+	/**
+	 * Returns the current time.
+	 *
+	 * @return epoch milliseconds
+	 */
+	public abstract long currentTimeMillis();
+
+	/**
+	 * Returns clock that reads System.currentTimeMillis().
+	 *
+	 * @return system clock
+	 */
+	public static RunnerClock system() {
+		return SYSTEM;
+	}
+
+	/**
+	 * Returns clock that always returns the given time.
+	 *
+	 * @param epochMillis
+	 * @return fixed clock
+	 */
+	public static RunnerClock fixed(long epochMillis) {
+		return new FixedClock(epochMillis);
+	}
+
+	/**
+	 * Returns clock that always returns the given date.
+	 *
+	 * If date is null an IncorrectInputParametersException is thrown.
+	 *
+	 * @param date
+	 * @return fixed clock
+	 * @throws IncorrectInputParametersException
+	 */
+	public static RunnerClock fixed(Date date) throws IncorrectInputParametersException {
+		if (date == null) {
+			throw new IncorrectInputParametersException("Input parameter date was null.");
+		}
+		return new FixedClock(date.getTime());
+	}
+
+	/**
+	 * Returns clock that is the given amount of milliseconds ahead of (or behind if negative) the given clock.
+	 *
+	 * If clock is null an IncorrectInputParametersException is thrown.
+	 *
+	 * @param clock
+	 * @param offsetMillis
+	 * @return offset clock
+	 * @throws IncorrectInputParametersException
+	 */
+	public static RunnerClock offset(RunnerClock clock, long offsetMillis) throws IncorrectInputParametersException {
+		if (clock == null) {
+			throw new IncorrectInputParametersException("Input parameter clock was null.");
+		}
+		return new OffsetClock(clock, offsetMillis);
+	}
+
+	private static final class SystemClock extends RunnerClock {
+
+		@Override
+		public long currentTimeMillis() {
+			return System.currentTimeMillis();
+		}
+	}
+
+	private static final class FixedClock extends RunnerClock {
+
+		private final long epochMillis;
+
+		private FixedClock(long epochMillis) {
+			this.epochMillis = epochMillis;
+		}
+
+		@Override
+		public long currentTimeMillis() {
+			return epochMillis;
+		}
+	}
+
+	private static final class OffsetClock extends RunnerClock {
+
+		private final RunnerClock clock;
+		private final long offsetMillis;
+
+		private OffsetClock(RunnerClock clock, long offsetMillis) {
+			this.clock = clock;
+			this.offsetMillis = offsetMillis;
+		}
+
+		@Override
+		public long currentTimeMillis() {
+			return clock.currentTimeMillis() + offsetMillis;
+		}
+	}
+}
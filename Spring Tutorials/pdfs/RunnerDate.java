@@ -1,13 +1,19 @@
 package com.runner.architecture.util;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.text.ParseException;
-import java.text.SimpleDateFormat;
+import java.time.LocalDate;
+import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.TimeZone;
+
+import com.runner.architecture.util.RunnerDateMetrics.Failure;
+import com.runner.architecture.util.RunnerDateMetrics.Operation;
 
 
 /**
@@ -36,35 +42,21 @@ public class RunnerDate {
 	public static final String TIME_STAMP_FORMAT_DDMMYYYY_DOT_SEPARATED = "dd.MM.yyyy HH:mm";
 	public static final String TIME_STAMP_FORMAT_DMYYYY_DOT_SEPARATED = "d.M.yyyy HH:mm";
 	public static final String TIME_STAMP_FORMAT_DDMMYYYY = "ddMMyyyy HH:mm";
-
-	/* Supported string formats of date */
-	private static final String DATE_STRING_FORMAT_SEPARATED_DD_DD_DDDD = "\\d\\d[-.]\\d\\d[-.]\\d\\d\\d\\d";
-	private static final String DATE_STRING_FORMAT_SEPARETED_D_DD_DDDD = "\\d[-.]\\d\\d[-.]\\d\\d\\d\\d";
-	private static final String DATE_STRING_FORMAT_SEPARATED_DD_D_DDDD = "\\d\\d[-.]\\d[-.]\\d\\d\\d\\d";
-	private static final String DATE_STRING_FORMAT_SEPARATED_D_D_DDDD = "\\d[-.]\\d[-.]\\d\\d\\d\\d";
-	private static final String DATE_STRING_FORMAT_NOT_SEPARATED = "\\d\\d\\d\\d\\d\\d\\d\\d";
-
-	/* Supported string formats of time */
-	private static final String TIME_STRING_FORMAT_SEPARATED_HH_MM = "\\d\\d[:]\\d\\d";
-	private static final String DEFAULT_TIME_PART_FOR_TIME_STAMP = "00:00";
+	public static final String TIME_STAMP_FORMAT_YYYYMMDD_ISO = "yyyy-MM-dd'T'HH:mm";
 
 	private static final List<String> DATE_FORMAT_LIST = new ArrayList<String>();
 	private static final List<String> TIME_STAMP_FORMAT_LIST = new ArrayList<String>();
-	private static final List<String> DATE_STRING_FORMAT_LIST = new ArrayList<String>();
-	private static final List<String> TIME_STAMP_STRING_FORMAT_LIST = new ArrayList<String>();
-
-	private static final long CONVERT_MILLISECONDS_SECONDS = 1000;
-	private static final long CONVERT_SECONDS_MINUTES = 60;
-	private static final long CONVERT_MINUTES_HOURS = 60;
-	private static final long CONVERT_HOURS_DAYS = 24;
 
-	private static final int EPOCH_YEAR = 1970;
 	public static final String DATE_FORMAT_YYYYMM_LINE_SEPARATED = "yyyy-MM-dd";
 
 	/* Used for unit testing.*/
-	private static RunnerDate testRunnerDate = null;
+	private static volatile RunnerDate testRunnerDate = null;
 	private Date currentDate;
 
+	/* Source of the current time and the current day computed from it */
+	private static volatile RunnerClock clock = RunnerClock.system();
+	private static volatile CurrentDay currentDay = null;
+
 	static {
 		DATE_FORMAT_LIST.add(DATE_FORMAT_DDMMYYYY_LINE_SEPARATED);
 		DATE_FORMAT_LIST.add(DATE_FORMAT_DDMMYYYY_DOT_SEPARATED);
@@ -74,23 +66,26 @@ public class RunnerDate {
 		TIME_STAMP_FORMAT_LIST.add(TIME_STAMP_FORMAT_DDMMYYYY_DOT_SEPARATED);
 		TIME_STAMP_FORMAT_LIST.add(TIME_STAMP_FORMAT_DMYYYY_DOT_SEPARATED);
 		TIME_STAMP_FORMAT_LIST.add(TIME_STAMP_FORMAT_DDMMYYYY);
+		TIME_STAMP_FORMAT_LIST.add(TIME_STAMP_FORMAT_YYYYMMDD_ISO);
+	}
 
-		DATE_STRING_FORMAT_LIST.add(DATE_STRING_FORMAT_SEPARATED_DD_DD_DDDD);
-		DATE_STRING_FORMAT_LIST.add(DATE_STRING_FORMAT_SEPARETED_D_DD_DDDD);
-		DATE_STRING_FORMAT_LIST.add(DATE_STRING_FORMAT_SEPARATED_DD_D_DDDD);
-		DATE_STRING_FORMAT_LIST.add(DATE_STRING_FORMAT_SEPARATED_D_D_DDDD);
-		DATE_STRING_FORMAT_LIST.add(DATE_STRING_FORMAT_NOT_SEPARATED);
+	/**
+	 * Returns the formats of convertStringToDate(String) in the order they are tried.
+	 *
+	 * @return unmodifiable list of patterns
+	 */
+	static List<String> getDateFormats() {
+		return Collections.unmodifiableList(DATE_FORMAT_LIST);
+	}
 
-		TIME_STAMP_STRING_FORMAT_LIST.add(DATE_STRING_FORMAT_SEPARATED_DD_DD_DDDD + " "
-				+ TIME_STRING_FORMAT_SEPARATED_HH_MM);
-		TIME_STAMP_STRING_FORMAT_LIST.add(DATE_STRING_FORMAT_SEPARETED_D_DD_DDDD + " "
-				+ TIME_STRING_FORMAT_SEPARATED_HH_MM);
-		TIME_STAMP_STRING_FORMAT_LIST.add(DATE_STRING_FORMAT_SEPARATED_DD_D_DDDD + " "
-				+ TIME_STRING_FORMAT_SEPARATED_HH_MM);
-		TIME_STAMP_STRING_FORMAT_LIST.add(DATE_STRING_FORMAT_SEPARATED_D_D_DDDD + " "
-				+ TIME_STRING_FORMAT_SEPARATED_HH_MM);
-		TIME_STAMP_STRING_FORMAT_LIST.add(DATE_STRING_FORMAT_NOT_SEPARATED + " "
-				+ TIME_STRING_FORMAT_SEPARATED_HH_MM);
+	/**
+	 * Returns the formats of convertTimeStampStringToDate(String). Their times may also have seconds, a fraction of
+	 * second and an offset.
+	 *
+	 * @return unmodifiable list of patterns
+	 */
+	static List<String> getTimeStampFormats() {
+		return Collections.unmodifiableList(TIME_STAMP_FORMAT_LIST);
 	}
 
 	/**
@@ -105,21 +100,24 @@ public class RunnerDate {
 	 */
 	public static boolean isDateValidInSpecificFormat(String dateString, String format)
 			throws IncorrectInputParametersException {
+		long startTime = RunnerDateMetrics.startTime();
 		if (dateString == null || format == null) {
+			if (RunnerDateMetrics.ENABLED) {
+				RunnerDateMetrics.recordFailure(Operation.VALIDATE, startTime, Failure.MISSING_INPUT);
+			}
 			throw new IncorrectInputParametersException(
 					"Incorrect input parameters. Parameters dateString and format are mandatory.");
 		}
 
-		SimpleDateFormat simpleDateFormat = new SimpleDateFormat(format);
-		simpleDateFormat.setLenient(false);
-
-		try {
-			simpleDateFormat.parse(dateString);
-		} catch (ParseException pe) {
-			return false;
+		boolean valid = RunnerDateFormatRegistry.getFormat(format).isValid(dateString);
+		if (RunnerDateMetrics.ENABLED) {
+			if (valid) {
+				RunnerDateMetrics.recordSuccess(Operation.VALIDATE, startTime, format);
+			} else {
+				RunnerDateMetrics.recordFailure(Operation.VALIDATE, startTime, Failure.PARSE_ERROR);
+			}
 		}
-
-		return true;
+		return valid;
 	}
 
 	/**
@@ -133,50 +131,145 @@ public class RunnerDate {
 	 * @throws IncorrectInputParametersException
 	 */
 	public static boolean isDateValid(String dateString) throws IncorrectInputParametersException {
+		return isDateValid((CharSequence) dateString);
+	}
+
+	/**
+	 * Same as {@link #isDateValid(String)} for any character sequence, for example a CharBuffer.
+	 *
+	 * @param dateString
+	 * @return true if valid, false if not valid
+	 * @throws IncorrectInputParametersException
+	 */
+	public static boolean isDateValid(CharSequence dateString) throws IncorrectInputParametersException {
+		long startTime = RunnerDateMetrics.startTime();
 
 		if (dateString == null) {
+			if (RunnerDateMetrics.ENABLED) {
+				RunnerDateMetrics.recordFailure(Operation.VALIDATE, startTime, Failure.MISSING_INPUT);
+			}
 			throw new IncorrectInputParametersException(
 					"Incorrect input parameters. Parameter dateString is mandatory.");
 		}
 
-		// Check that format is i.e dd-mm-yyyy or ddmmyyyy
-		if (isFormatSupported(dateString, DATE_STRING_FORMAT_LIST)) {
+		// Format must be i.e dd-mm-yyyy or ddmmyyyy and the date must exist
+		int scannedDate = RunnerDateScanner.scanDate(dateString, 0, dateString.length());
+		boolean valid = scannedDate != RunnerDateScanner.INVALID
+				&& RunnerDateScanner.existsIn(scannedDate, TimeZone.getDefault());
+		if (RunnerDateMetrics.ENABLED) {
+			if (valid) {
+				RunnerDateMetrics.recordSuccess(Operation.VALIDATE, startTime, getDateFormat(dateString));
+			} else {
+				RunnerDateMetrics.recordFailure(Operation.VALIDATE, startTime, getDateFailure(dateString));
+			}
+		}
+		return valid;
+	}
+
+	/**
+	 * Same as {@link #isDateValid(String)} for ASCII bytes.
+	 *
+	 * @param bytes
+	 * @param offset
+	 * @param length
+	 * @return true if valid, false if not valid
+	 * @throws IncorrectInputParametersException
+	 */
+	public static boolean isDateValid(byte[] bytes, int offset, int length) throws IncorrectInputParametersException {
+		return isDateValid(asciiSequence(bytes, offset, length));
+	}
 
-			for (String format : DATE_FORMAT_LIST) {
+	/**
+	 * Same as {@link #isDateValid(String)} for ASCII bytes of a buffer. The buffer position is not changed.
+	 *
+	 * @param buffer
+	 * @param offset
+	 *            absolute index in the buffer
+	 * @param length
+	 * @return true if valid, false if not valid
+	 * @throws IncorrectInputParametersException
+	 */
+	public static boolean isDateValid(ByteBuffer buffer, int offset, int length)
+			throws IncorrectInputParametersException {
+		return isDateValid(asciiSequence(buffer, offset, length));
+	}
 
-				SimpleDateFormat simpleDateFormat = new SimpleDateFormat(format);
-				simpleDateFormat.setLenient(false);
+	/**
+	 * Returns the pattern of DATE_FORMAT_LIST that a scanned date string matches.
+	 *
+	 * @param dateString
+	 *            valid date string
+	 * @return pattern
+	 */
+	static String getDateFormat(CharSequence dateString) {
+		return getDateFormat(RunnerDateScanner.shapeOf(dateString, 0, dateString.length()));
+	}
 
-				try {
-					simpleDateFormat.parse(dateString);
-					// Corresponding format found
-					return true;
-				} catch (ParseException pe) {
-					continue;
-				}
-			}
+	/**
+	 * Returns the pattern of DATE_FORMAT_LIST that date strings of a RunnerDateScanner shape match.
+	 *
+	 * @param shape
+	 * @return pattern or null if no pattern accepts the shape
+	 */
+	static String getDateFormat(int shape) {
+		switch (shape) {
+		case RunnerDateScanner.LINE_SEPARATED_SHAPE:
+			return DATE_FORMAT_DDMMYYYY_LINE_SEPARATED;
+		case RunnerDateScanner.DOT_SEPARATED_SHAPE:
+		case RunnerDateScanner.SHORT_DOT_SEPARATED_SHAPE:
+			return DATE_FORMAT_DDMMYYYY_DOT_SEPARATED;
+		case RunnerDateScanner.COMPACT_SHAPE:
+			return DATE_FORMAT_DDMMYYYY;
+		default:
+			return null;
 		}
-		// Corresponding format was not found so dateString is not valid
-		return false;
 	}
 
 	/**
-	 * Checks that string date's format is supported
+	 * Returns the cause why a date string was not valid, for the metrics.
 	 *
-	 * @param date
-	 * @return
+	 * @param dateString
+	 *            invalid date string
+	 * @return INVALID_DATE if the string has a supported shape, UNSUPPORTED_FORMAT otherwise
 	 */
-	private static boolean isFormatSupported(String date, List<String> formats) {
-		for (String format : formats) {
-			Pattern mask = Pattern.compile(format);
-			Matcher matcher = mask.matcher(date);
+	private static Failure getDateFailure(CharSequence dateString) {
+		return RunnerTimeStampParser.hasDateShape(dateString, 0, dateString.length()) ? Failure.INVALID_DATE
+				: Failure.UNSUPPORTED_FORMAT;
+	}
 
-			if (matcher.matches()) {
-				return true;
-			}
-		}
+	/**
+	 * Returns the pattern of TIME_STAMP_FORMAT_LIST that a parsed time stamp string matches. Dot separated dates are
+	 * told apart by the width of the day and month: 01.02.2015 is dd.MM.yyyy, 1.2.2015 and 1.02.2015 are d.M.yyyy.
+	 *
+	 * @param timeStampString
+	 *            valid time stamp string
+	 * @return pattern
+	 */
+	static String getTimeStampFormat(CharSequence timeStampString) {
+		return getTimeStampFormat(RunnerTimeStampParser.shapeOf(timeStampString, 0, timeStampString.length()));
+	}
 
-		return false;
+	/**
+	 * Returns the pattern of TIME_STAMP_FORMAT_LIST that time stamps with a date of a RunnerDateScanner shape match.
+	 *
+	 * @param shape
+	 * @return pattern or null if no pattern accepts the shape
+	 */
+	static String getTimeStampFormat(int shape) {
+		switch (shape) {
+		case RunnerDateScanner.LINE_SEPARATED_SHAPE:
+			return TIME_STAMP_FORMAT_DDMMYYYY_LINE_SEPARATED;
+		case RunnerDateScanner.DOT_SEPARATED_SHAPE:
+			return TIME_STAMP_FORMAT_DDMMYYYY_DOT_SEPARATED;
+		case RunnerDateScanner.SHORT_DOT_SEPARATED_SHAPE:
+			return TIME_STAMP_FORMAT_DMYYYY_DOT_SEPARATED;
+		case RunnerDateScanner.COMPACT_SHAPE:
+			return TIME_STAMP_FORMAT_DDMMYYYY;
+		case RunnerDateScanner.ISO_SHAPE:
+			return TIME_STAMP_FORMAT_YYYYMMDD_ISO;
+		default:
+			return null;
+		}
 	}
 
 	/**
@@ -200,13 +293,127 @@ public class RunnerDate {
 			}
 		}
 
-		SimpleDateFormat simpleDateFormat = new SimpleDateFormat(format);
-		simpleDateFormat.setLenient(false);
-		dateString = simpleDateFormat.format(date);
+		long startTime = RunnerDateMetrics.startTime();
+		dateString = RunnerDateFormatRegistry.getFormat(format).format(date);
+		if (RunnerDateMetrics.ENABLED) {
+			RunnerDateMetrics.recordSuccess(Operation.FORMAT, startTime);
+		}
 
 		return dateString;
 	}
 
+	/**
+	 * Appends date in given format to the builder. If format is null the date is appended in default format d.M.yyyy.
+	 * If date is null nothing is appended.
+	 *
+	 * If builder is null an IncorrectInputParametersException is thrown.
+	 *
+	 * @param date
+	 * @param format
+	 * @param builder
+	 * @return builder
+	 * @throws IncorrectInputParametersException
+	 */
+	public static StringBuilder convertDateToString(Date date, String format, StringBuilder builder)
+			throws IncorrectInputParametersException {
+		if (builder == null) {
+			throw new IncorrectInputParametersException("Incorrect input parameters. Parameter builder is mandatory.");
+		}
+		if (date != null) {
+			long startTime = RunnerDateMetrics.startTime();
+			getFormatOrDefault(format).format(date, builder);
+			if (RunnerDateMetrics.ENABLED) {
+				RunnerDateMetrics.recordSuccess(Operation.FORMAT, startTime);
+			}
+		}
+		return builder;
+	}
+
+	/**
+	 * Appends date in given format to the appendable, for example a Writer. If format is null the date is appended in
+	 * default format d.M.yyyy. If date is null nothing is appended.
+	 *
+	 * If appendable is null an IncorrectInputParametersException is thrown.
+	 *
+	 * @param date
+	 * @param format
+	 * @param appendable
+	 * @throws IncorrectInputParametersException
+	 * @throws IOException
+	 */
+	public static void convertDateToString(Date date, String format, Appendable appendable)
+			throws IncorrectInputParametersException, IOException {
+		if (appendable == null) {
+			throw new IncorrectInputParametersException(
+					"Incorrect input parameters. Parameter appendable is mandatory.");
+		}
+		if (date != null) {
+			long startTime = RunnerDateMetrics.startTime();
+			getFormatOrDefault(format).format(date, appendable);
+			if (RunnerDateMetrics.ENABLED) {
+				RunnerDateMetrics.recordSuccess(Operation.FORMAT, startTime);
+			}
+		}
+	}
+
+	/**
+	 * Writes date in given format into the array from the given offset. If format is null the date is written in
+	 * default format d.M.yyyy. If date is null nothing is written.
+	 *
+	 * If chars is null or the date does not fit an IncorrectInputParametersException is thrown.
+	 *
+	 * @param date
+	 * @param format
+	 * @param chars
+	 * @param offset
+	 * @return offset after the last written char
+	 * @throws IncorrectInputParametersException
+	 */
+	public static int convertDateToString(Date date, String format, char[] chars, int offset)
+			throws IncorrectInputParametersException {
+		if (chars == null) {
+			throw new IncorrectInputParametersException("Incorrect input parameters. Parameter chars is mandatory.");
+		}
+		if (date == null) {
+			return offset;
+		}
+		long startTime = RunnerDateMetrics.startTime();
+		int end = getFormatOrDefault(format).format(date, chars, offset);
+		if (RunnerDateMetrics.ENABLED) {
+			RunnerDateMetrics.recordSuccess(Operation.FORMAT, startTime);
+		}
+		return end;
+	}
+
+	/**
+	 * Writes date in given format into the buffer as US-ASCII bytes and advances its position. If format is null the
+	 * date is written in default format d.M.yyyy. If date is null nothing is written.
+	 *
+	 * If buffer is null or the date does not fit an IncorrectInputParametersException is thrown.
+	 *
+	 * @param date
+	 * @param format
+	 * @param buffer
+	 * @throws IncorrectInputParametersException
+	 */
+	public static void convertDateToString(Date date, String format, ByteBuffer buffer)
+			throws IncorrectInputParametersException {
+		if (buffer == null) {
+			throw new IncorrectInputParametersException("Incorrect input parameters. Parameter buffer is mandatory.");
+		}
+		if (date != null) {
+			long startTime = RunnerDateMetrics.startTime();
+			getFormatOrDefault(format).format(date, buffer);
+			if (RunnerDateMetrics.ENABLED) {
+				RunnerDateMetrics.recordSuccess(Operation.FORMAT, startTime);
+			}
+		}
+	}
+
+	private static RunnerDateFormat getFormatOrDefault(String format) {
+		return RunnerDateFormatRegistry.getFormat(format == null ? GENERAL_DATE_FORMAT : format);
+	}
+
 	/**
 	 * Converts string from given format to date. Throws IncorrectInputParametersException if either dateString or
 	 * format parameter is null. Throws ParseException if conversion to Date fails.
@@ -220,15 +427,27 @@ public class RunnerDate {
 	public static Date convertStringToDate(String dateString, String format) throws IncorrectInputParametersException,
 			ParseException {
 		Date date = null;
+		long startTime = RunnerDateMetrics.startTime();
 
 		if (dateString == null || format == null) {
+			if (RunnerDateMetrics.ENABLED) {
+				RunnerDateMetrics.recordFailure(Operation.PARSE, startTime, Failure.MISSING_INPUT);
+			}
 			throw new IncorrectInputParametersException(
 					"Incorrect input parameters. Parameters dateString and format are mandatory.");
 		}
 
-		SimpleDateFormat simpleDateFormat = new SimpleDateFormat(format);
-		simpleDateFormat.setLenient(false);
-		date = simpleDateFormat.parse(dateString);
+		try {
+			date = RunnerDateFormatRegistry.getFormat(format).parse(dateString);
+		} catch (ParseException pe) {
+			if (RunnerDateMetrics.ENABLED) {
+				RunnerDateMetrics.recordFailure(Operation.PARSE, startTime, Failure.PARSE_ERROR);
+			}
+			throw pe;
+		}
+		if (RunnerDateMetrics.ENABLED) {
+			RunnerDateMetrics.recordSuccess(Operation.PARSE, startTime, format);
+		}
 
 		return date;
 	}
@@ -242,41 +461,154 @@ public class RunnerDate {
 	 * @throws IncorrectInputParametersException
 	 */
 	public static Date convertStringToDate(String dateString) throws IncorrectInputParametersException {
+		return convertStringToDate((CharSequence) dateString);
+	}
+
+	/**
+	 * Same as {@link #convertStringToDate(String)} for any character sequence, for example a CharBuffer.
+	 *
+	 * @param dateString
+	 * @return date
+	 * @throws IncorrectInputParametersException
+	 */
+	public static Date convertStringToDate(CharSequence dateString) throws IncorrectInputParametersException {
+		long startTime = RunnerDateMetrics.startTime();
 
 		if (dateString == null) {
+			if (RunnerDateMetrics.ENABLED) {
+				RunnerDateMetrics.recordFailure(Operation.PARSE, startTime, Failure.MISSING_INPUT);
+			}
 			throw new IncorrectInputParametersException(
 					"Incorrect input parameters. Parameter dateString is mandatory.");
 		}
 
-		boolean datesFormatOk = isFormatSupported(dateString, DATE_STRING_FORMAT_LIST);
+		int scannedDate = RunnerDateScanner.scanDate(dateString, 0, dateString.length());
+		long epochMillis = scannedDate == RunnerDateScanner.INVALID ? RunnerDateParser.INVALID : RunnerDateScanner
+				.toEpochMillis(scannedDate);
 
-		if (datesFormatOk) {
+		if (epochMillis == RunnerDateParser.INVALID) {
+			if (RunnerDateMetrics.ENABLED) {
+				RunnerDateMetrics.recordFailure(Operation.PARSE, startTime, getDateFailure(dateString));
+			}
+			return null;
+		}
 
-			for (String format : DATE_FORMAT_LIST) {
-				SimpleDateFormat simpleDateFormat = new SimpleDateFormat(format);
-				simpleDateFormat.setLenient(false);
+		// Return a date that only contains year, month and date
+		Date date = new Date(epochMillis);
+		if (RunnerDateMetrics.ENABLED) {
+			RunnerDateMetrics.recordSuccess(Operation.PARSE, startTime, getDateFormat(dateString));
+		}
+		return date;
+	}
 
-				try {
-					Date date = simpleDateFormat.parse(dateString);
+	/**
+	 * Same as {@link #convertStringToDate(String)} for ASCII bytes.
+	 *
+	 * @param bytes
+	 * @param offset
+	 * @param length
+	 * @return date
+	 * @throws IncorrectInputParametersException
+	 */
+	public static Date convertStringToDate(byte[] bytes, int offset, int length)
+			throws IncorrectInputParametersException {
+		return convertStringToDate(asciiSequence(bytes, offset, length));
+	}
 
-					// Return a date that only contains year, month and date
-					Calendar calendar = Calendar.getInstance();
-					calendar.setTime(date);
+	/**
+	 * Same as {@link #convertStringToDate(String)} for ASCII bytes of a buffer. The buffer position is not changed.
+	 *
+	 * @param buffer
+	 * @param offset
+	 *            absolute index in the buffer
+	 * @param length
+	 * @return date
+	 * @throws IncorrectInputParametersException
+	 */
+	public static Date convertStringToDate(ByteBuffer buffer, int offset, int length)
+			throws IncorrectInputParametersException {
+		return convertStringToDate(asciiSequence(buffer, offset, length));
+	}
+
+	/**
+	 * Converts string from given format to local date. Throws IncorrectInputParametersException if either dateString
+	 * or format parameter is null. Throws ParseException if conversion fails.
+	 *
+	 * @param dateString
+	 * @param format
+	 * @return local date
+	 * @throws IncorrectInputParametersException
+	 *             , ParseException
+	 */
+	public static LocalDate convertStringToLocalDate(String dateString, String format)
+			throws IncorrectInputParametersException, ParseException {
+		return RunnerDateBridge.toLocalDate(convertStringToDate(dateString, format));
+	}
 
-					Calendar clearedCalendar = Calendar.getInstance();
-					clearedCalendar.clear();
-					clearedCalendar.set(Calendar.YEAR, calendar.get(Calendar.YEAR));
-					clearedCalendar.set(Calendar.MONTH, calendar.get(Calendar.MONTH));
-					clearedCalendar.set(Calendar.DATE, calendar.get(Calendar.DATE));
+	/**
+	 * Same as {@link #convertStringToDate(String)} but returns local date. If no matching patter is found null value
+	 * is returned.
+	 *
+	 * @param dateString
+	 * @return local date
+	 * @throws IncorrectInputParametersException
+	 */
+	public static LocalDate convertStringToLocalDate(String dateString) throws IncorrectInputParametersException {
+		return convertStringToLocalDate((CharSequence) dateString);
+	}
 
-					return clearedCalendar.getTime();
-				} catch (ParseException pe) {
-					continue;
-				}
-			}
+	/**
+	 * Same as {@link #convertStringToLocalDate(String)} for any character sequence, for example a CharBuffer.
+	 *
+	 * @param dateString
+	 * @return local date
+	 * @throws IncorrectInputParametersException
+	 */
+	public static LocalDate convertStringToLocalDate(CharSequence dateString)
+			throws IncorrectInputParametersException {
+
+		if (dateString == null) {
+			throw new IncorrectInputParametersException(
+					"Incorrect input parameters. Parameter dateString is mandatory.");
 		}
 
-		return null;
+		int scannedDate = RunnerDateScanner.scanDate(dateString, 0, dateString.length());
+
+		if (scannedDate == RunnerDateScanner.INVALID
+				|| !RunnerDateScanner.existsIn(scannedDate, TimeZone.getDefault())) {
+			return null;
+		}
+		return RunnerDateBridge.toLocalDate(scannedDate);
+	}
+
+	/**
+	 * Same as {@link #convertStringToLocalDate(String)} for ASCII bytes.
+	 *
+	 * @param bytes
+	 * @param offset
+	 * @param length
+	 * @return local date
+	 * @throws IncorrectInputParametersException
+	 */
+	public static LocalDate convertStringToLocalDate(byte[] bytes, int offset, int length)
+			throws IncorrectInputParametersException {
+		return convertStringToLocalDate(asciiSequence(bytes, offset, length));
+	}
+
+	/**
+	 * Same as {@link #convertStringToLocalDate(String)} for ASCII bytes of a buffer. The buffer position is not
+	 * changed.
+	 *
+	 * @param buffer
+	 * @param offset
+	 *            absolute index in the buffer
+	 * @param length
+	 * @return local date
+	 * @throws IncorrectInputParametersException
+	 */
+	public static LocalDate convertStringToLocalDate(ByteBuffer buffer, int offset, int length)
+			throws IncorrectInputParametersException {
+		return convertStringToLocalDate(asciiSequence(buffer, offset, length));
 	}
 
 	/**
@@ -319,6 +651,14 @@ public class RunnerDate {
 	}
 
 	/**
+	 * Converts time stamp string to date. Supported formats are the dates of {@link #convertStringToDate(String)}
+	 * and ISO-8601 dates yyyy-MM-dd, optionally followed by a space or T and the time HH:mm, HH:mm:ss or HH:mm:ss.SSS
+	 * and after the time optionally by the offset Z, +HH, +HHmm or +HH:mm. Dates without time are midnight, times
+	 * without offset are in the default time zone. For example 24.12.2015 18:30, 24122015 18:30:15 and
+	 * 2015-12-24T18:30:15.250+02:00 are supported.
+	 *
+	 * If inputTimeStampString is null an IncorrectInputParametersException is thrown. If the string is not supported
+	 * or not an existing time null is returned.
 	 *
 	 * @param timeStampString
 	 * @return date
@@ -326,42 +666,100 @@ public class RunnerDate {
 	 */
 	public static Date convertTimeStampStringToDate(String inputTimeStampString)
 			throws IncorrectInputParametersException {
-		String timeStampString = null;
+		return convertTimeStampStringToDate((CharSequence) inputTimeStampString);
+	}
 
-		if (inputTimeStampString == null) {
+	/**
+	 * Same as {@link #convertTimeStampStringToDate(String)} for any character sequence.
+	 *
+	 * @param timeStampString
+	 * @return date
+	 * @throws IncorrectInputParametersException
+	 */
+	public static Date convertTimeStampStringToDate(CharSequence timeStampString)
+			throws IncorrectInputParametersException {
+		long startTime = RunnerDateMetrics.startTime();
+
+		if (timeStampString == null) {
+			if (RunnerDateMetrics.ENABLED) {
+				RunnerDateMetrics.recordFailure(Operation.PARSE, startTime, Failure.MISSING_INPUT);
+			}
 			throw new IncorrectInputParametersException(
 					"Incorrect input parameters. Parameter dateString is mandatory.");
 		}
 
-		// If only date part is given then add 00:00 to date string
-		if (isFormatSupported(inputTimeStampString, DATE_STRING_FORMAT_LIST)) {
-			StringBuffer buffer = new StringBuffer(inputTimeStampString);
-			// Append date and time separator
-			buffer.append(" ");
-			// Append default time
-			buffer.append(DEFAULT_TIME_PART_FOR_TIME_STAMP);
-			timeStampString = buffer.toString();
-		} else {
-			timeStampString = inputTimeStampString;
-		}
+		long epochMillis = RunnerTimeStampParser.parse(timeStampString, 0, timeStampString.length());
 
-		boolean timeStampFormatOk = isFormatSupported(timeStampString, TIME_STAMP_STRING_FORMAT_LIST);
+		if (epochMillis == RunnerTimeStampParser.UNSUPPORTED || epochMillis == RunnerTimeStampParser.INVALID) {
+			if (RunnerDateMetrics.ENABLED) {
+				RunnerDateMetrics.recordFailure(Operation.PARSE, startTime,
+						epochMillis == RunnerTimeStampParser.INVALID ? Failure.INVALID_DATE
+								: Failure.UNSUPPORTED_FORMAT);
+			}
+			return null;
+		}
 
-		if (timeStampFormatOk) {
+		Date date = new Date(epochMillis);
+		if (RunnerDateMetrics.ENABLED) {
+			RunnerDateMetrics.recordSuccess(Operation.PARSE, startTime, getTimeStampFormat(timeStampString));
+		}
+		return date;
+	}
 
-			for (String format : TIME_STAMP_FORMAT_LIST) {
-				SimpleDateFormat simpleDateFormat = new SimpleDateFormat(format);
-				simpleDateFormat.setLenient(false);
+	/**
+	 * Parses time stamp string like {@link #convertTimeStampStringToDate(String)}.
+	 *
+	 * @param timeStampString
+	 * @return epoch milliseconds or RunnerDateParser.INVALID
+	 */
+	static long parseTimeStamp(CharSequence timeStampString) {
+		return parseTimeStamp(timeStampString, TimeZone.getDefault());
+	}
 
-				try {
-					return simpleDateFormat.parse(timeStampString);
-				} catch (ParseException pe) {
-					continue;
-				}
-			}
+	/**
+	 * Parses time stamp string like {@link #convertTimeStampStringToDate(String)}. Time stamps without offset are in
+	 * the given time zone.
+	 *
+	 * @param timeStampString
+	 * @param zone
+	 * @return epoch milliseconds or RunnerDateParser.INVALID
+	 */
+	static long parseTimeStamp(CharSequence timeStampString, TimeZone zone) {
+		long epochMillis = RunnerTimeStampParser.parse(timeStampString, 0, timeStampString.length(), zone);
+		if (epochMillis == RunnerTimeStampParser.UNSUPPORTED || epochMillis == RunnerTimeStampParser.INVALID) {
+			return RunnerDateParser.INVALID;
 		}
+		return epochMillis;
+	}
+
+	/**
+	 * Same as {@link #convertTimeStampStringToDate(String)} for ASCII bytes.
+	 *
+	 * @param bytes
+	 * @param offset
+	 * @param length
+	 * @return date
+	 * @throws IncorrectInputParametersException
+	 */
+	public static Date convertTimeStampStringToDate(byte[] bytes, int offset, int length)
+			throws IncorrectInputParametersException {
+		return convertTimeStampStringToDate(asciiSequence(bytes, offset, length));
+	}
 
-		return null;
+	/**
+	 * Same as {@link #convertTimeStampStringToDate(String)} for ASCII bytes of a buffer. The buffer position is not
+	 * changed.
+	 *
+	 * @param buffer
+	 * @param offset
+	 *            absolute index in the buffer
+	 * @param length
+	 * @return date
+	 * @throws IncorrectInputParametersException
+	 */
+	public static Date convertTimeStampStringToDate(ByteBuffer buffer, int offset, int length)
+			throws IncorrectInputParametersException {
+		return convertTimeStampStringToDate(asciiSequence(buffer, offset, length));
 	}
 
 	/**
@@ -404,11 +802,16 @@ public class RunnerDate {
 	 * @return
 	 */
 	public static Date increaseDateByGivenNumberOfYears(Date date, int noOfyears) {
+		long startTime = RunnerDateMetrics.startTime();
 		Calendar cal = Calendar.getInstance();
 		cal.clear();
 		cal.setTime(date);
 		cal.add(Calendar.YEAR, noOfyears);
-		return cal.getTime();
+		Date result = cal.getTime();
+		if (RunnerDateMetrics.ENABLED) {
+			RunnerDateMetrics.recordSuccess(Operation.ARITHMETIC, startTime);
+		}
+		return result;
 	}
 
 	/**
@@ -419,11 +822,16 @@ public class RunnerDate {
 	 * @return
 	 */
 	public static Date increaseDateByGivenNumberOfMonths(Date date, int noOfMonths) {
+		long startTime = RunnerDateMetrics.startTime();
 		Calendar cal = Calendar.getInstance();
 		cal.clear();
 		cal.setTime(date);
 		cal.add(Calendar.MONTH, noOfMonths);
-		return cal.getTime();
+		Date result = cal.getTime();
+		if (RunnerDateMetrics.ENABLED) {
+			RunnerDateMetrics.recordSuccess(Operation.ARITHMETIC, startTime);
+		}
+		return result;
 	}
 
 	/**
@@ -438,11 +846,16 @@ public class RunnerDate {
 			throw new IncorrectInputParametersException("Input parameter date was null.");
 		}
 
+		long startTime = RunnerDateMetrics.startTime();
 		Calendar calendar = Calendar.getInstance();
 		calendar.clear();
 		calendar.setTime(date);
 		calendar.add(Calendar.DATE, increaseAmount);
-		return calendar.getTime();
+		Date result = calendar.getTime();
+		if (RunnerDateMetrics.ENABLED) {
+			RunnerDateMetrics.recordSuccess(Operation.ARITHMETIC, startTime);
+		}
+		return result;
 	}
 
 	/**
@@ -463,23 +876,35 @@ public class RunnerDate {
 			return 1;
 		}
 
-		Calendar temp = Calendar.getInstance();
-
-		Calendar calendar1 = Calendar.getInstance();
-		calendar1.clear();
-		temp.setTime(date1);
-		calendar1.set(Calendar.YEAR, temp.get(Calendar.YEAR));
-		calendar1.set(Calendar.MONTH, temp.get(Calendar.MONTH));
-		calendar1.set(Calendar.DATE, temp.get(Calendar.DATE));
+		// Days are numbered continuously so comparing day numbers equals comparing midnights
+		TimeZone zone = TimeZone.getDefault();
+		return RunnerEpochDate.compare(RunnerEpochDate.toEpochDay(date1.getTime(), zone),
+				RunnerEpochDate.toEpochDay(date2.getTime(), zone));
+	}
 
-		Calendar calendar2 = Calendar.getInstance();
-		calendar2.clear();
-		temp.setTime(date2);
-		calendar2.set(Calendar.YEAR, temp.get(Calendar.YEAR));
-		calendar2.set(Calendar.MONTH, temp.get(Calendar.MONTH));
-		calendar2.set(Calendar.DATE, temp.get(Calendar.DATE));
+	/**
+	 * Compares two dates in the given time zone. Like {@link #compareDates(Date, Date)} but the years, months and
+	 * dates are those of the given zone instead of the default time zone.
+	 *
+	 * If zone is null an IncorrectInputParametersException is thrown.
+	 *
+	 * @param date1
+	 * @param date2
+	 * @param zone
+	 * @return
+	 * @throws IncorrectInputParametersException
+	 */
+	public static int compareDates(Date date1, Date date2, ZoneId zone) throws IncorrectInputParametersException {
+		RunnerZoneOffsets offsets = RunnerZoneOffsets.of(zone);
+		if (date1 == null && date2 == null) {
+			return 0;
+		} else if (date1 != null && date2 == null) {
+			return -1;
+		} else if (date1 == null && date2 != null) {
+			return 1;
+		}
 
-		return calendar1.compareTo(calendar2);
+		return RunnerEpochDate.compare(offsets.toEpochDay(date1.getTime()), offsets.toEpochDay(date2.getTime()));
 	}
 
 	/**
@@ -519,27 +944,140 @@ public class RunnerDate {
 	}
 
 	/**
-	 * Returns current date. Now (and in productions) returns date created with new-operator. If there is a need to
-	 * simulate some specific date in testing, this method should be modified so that date is retrieved from for example
-	 * database or from configuration file.
+	 * Returns true if both dates are same in the given time zone. See {@link #compareDates(Date, Date, ZoneId)}.
+	 *
+	 * If zone is null an IncorrectInputParametersException is thrown.
+	 *
+	 * @param date1
+	 * @param date2
+	 * @param zone
+	 * @return
+	 * @throws IncorrectInputParametersException
+	 */
+	public static boolean areDatesSame(Date date1, Date date2, ZoneId zone) throws IncorrectInputParametersException {
+		return compareDates(date1, date2, zone) == 0;
+	}
+
+	/**
+	 * Returns current date without time. The current time is read from the clock set with
+	 * {@link #setClock(RunnerClock)}, by default the system clock. The day is computed once and reused until the clock
+	 * passes the next midnight or the default time zone changes.
 	 *
 	 * @return current date
 	 */
 	public static Date getCurrentDateWithOnlyDates() {
 		/*If current date has been set in unit testing.*/
-		if (testRunnerDate != null) {
-			return testRunnerDate.currentDate;
+		RunnerDate runnerDate = testRunnerDate;
+		if (runnerDate != null) {
+			return runnerDate.currentDate;
 		}
-		Calendar calendar = Calendar.getInstance();
-		Calendar calendarWithOnlyDate = Calendar.getInstance();
-		calendar.clear();
-		calendarWithOnlyDate.clear();
-		calendar.setTime(new Date());
-		calendarWithOnlyDate.set(Calendar.YEAR, calendar.get(Calendar.YEAR));
-		calendarWithOnlyDate.set(Calendar.MONTH, calendar.get(Calendar.MONTH));
-		calendarWithOnlyDate.set(Calendar.DATE, calendar.get(Calendar.DATE));
+		return new Date(getCurrentDay().startMillis);
+	}
 
-		return calendarWithOnlyDate.getTime();
+	/**
+	 * Returns current date as epoch day. See {@link #getCurrentDateWithOnlyDates()}.
+	 *
+	 * The default time zone is read on every call and TimeZone.getDefault() returns a copy of it, so every call
+	 * allocates. Callers that need the current day without allocating keep a ZoneId and use
+	 * {@link #getCurrentEpochDay(ZoneId)}.
+	 *
+	 * A test RunnerDate without a current date is ignored and the clock is used.
+	 *
+	 * @return current epoch day
+	 */
+	public static int getCurrentEpochDay() {
+		Date testDate = getTestDate();
+		if (testDate != null) {
+			return RunnerEpochDate.toEpochDay(testDate.getTime());
+		}
+		return getCurrentDay().epochDay;
+	}
+
+	/**
+	 * Returns current date without time in the given time zone, that is the first instant of the current day of the
+	 * zone. The current time is read from the clock like in {@link #getCurrentDateWithOnlyDates()}.
+	 *
+	 * If zone is null an IncorrectInputParametersException is thrown.
+	 *
+	 * @param zone
+	 * @return current date
+	 * @throws IncorrectInputParametersException
+	 */
+	public static Date getCurrentDateWithOnlyDates(ZoneId zone) throws IncorrectInputParametersException {
+		RunnerZoneOffsets offsets = RunnerZoneOffsets.of(zone);
+		return new Date(offsets.toEpochMillis(getCurrentEpochDay(offsets)));
+	}
+
+	/**
+	 * Returns current date of the given time zone as epoch day. See {@link #getCurrentDateWithOnlyDates(ZoneId)}.
+	 * Allocates nothing once the offsets of the zone are cached.
+	 *
+	 * If zone is null an IncorrectInputParametersException is thrown.
+	 *
+	 * @param zone
+	 * @return current epoch day
+	 * @throws IncorrectInputParametersException
+	 */
+	public static int getCurrentEpochDay(ZoneId zone) throws IncorrectInputParametersException {
+		return getCurrentEpochDay(RunnerZoneOffsets.of(zone));
+	}
+
+	private static int getCurrentEpochDay(RunnerZoneOffsets offsets) {
+		/*If current date has been set in unit testing.*/
+		Date testDate = getTestDate();
+		if (testDate != null) {
+			return offsets.toEpochDay(testDate.getTime());
+		}
+		return offsets.toEpochDay(clock.currentTimeMillis());
+	}
+
+	/**
+	 * Returns the current date set in unit testing, or null if there is none.
+	 */
+	private static Date getTestDate() {
+		RunnerDate runnerDate = testRunnerDate;
+		return runnerDate == null ? null : runnerDate.currentDate;
+	}
+
+	/**
+	 * Sets the clock used for the current date. Use RunnerClock.fixed or RunnerClock.offset to simulate another date.
+	 *
+	 * If clock is null an IncorrectInputParametersException is thrown.
+	 *
+	 * @param newClock
+	 * @throws IncorrectInputParametersException
+	 */
+	public static void setClock(RunnerClock newClock) throws IncorrectInputParametersException {
+		if (newClock == null) {
+			throw new IncorrectInputParametersException("Input parameter clock was null.");
+		}
+		clock = newClock;
+		currentDay = null;
+	}
+
+	/**
+	 * Returns the clock used for the current date.
+	 *
+	 * @return clock
+	 */
+	public static RunnerClock getClock() {
+		return clock;
+	}
+
+	private static CurrentDay getCurrentDay() {
+		RunnerClock currentClock = clock;
+		long now = currentClock.currentTimeMillis();
+		TimeZone zone = TimeZone.getDefault();
+		CurrentDay day = currentDay;
+
+		if (day == null || day.clock != currentClock || !day.zoneId.equals(zone.getID()) || now < day.startMillis
+				|| now >= day.endMillis) {
+			int epochDay = RunnerEpochDate.toEpochDay(now, zone);
+			day = new CurrentDay(currentClock, zone.getID(), epochDay, RunnerEpochDate.toEpochMillis(epochDay, zone),
+					RunnerEpochDate.toEpochMillis(epochDay + 1, zone));
+			currentDay = day;
+		}
+		return day;
 	}
 
 	/**
@@ -552,6 +1090,16 @@ public class RunnerDate {
 		if (date == null){
 			return null;
 		}
+		TimeZone zone = TimeZone.getDefault();
+		int epochDay = RunnerEpochDate.toEpochDay(date.getTime(), zone);
+		RunnerCalendarTable table = calendarTableFor(epochDay);
+		if (table != null) {
+			Date lastDay = moveToDay(date, epochDay, table.getLastDayOfMonth(epochDay), zone);
+			if (lastDay != null) {
+				return lastDay;
+			}
+		}
+
 		Calendar calendar = Calendar.getInstance();
 		calendar.clear();
 		calendar.setTime(date);
@@ -572,6 +1120,16 @@ public class RunnerDate {
 			return null;
 		}
 
+		TimeZone zone = TimeZone.getDefault();
+		int epochDay = RunnerEpochDate.toEpochDay(date.getTime(), zone);
+		RunnerCalendarTable table = calendarTableFor(epochDay);
+		if (table != null) {
+			Date firstDay = moveToDay(date, epochDay, table.getFirstDayOfNextMonth(epochDay), zone);
+			if (firstDay != null) {
+				return firstDay;
+			}
+		}
+
 		Calendar cal = Calendar.getInstance();
 		cal.clear();
 		cal.setTime(date);
@@ -595,6 +1153,18 @@ public class RunnerDate {
 			return null;
 		}
 
+		TimeZone zone = TimeZone.getDefault();
+		int epochDay = RunnerEpochDate.toEpochDay(date.getTime(), zone);
+		RunnerCalendarTable table = calendarTableFor(epochDay);
+		// Calendar resolves the time on the first day of the current year before adding the year
+		if (table != null && RunnerEpochDate.plusDaysKeepingTime(date.getTime(),
+				table.getFirstDayOfYear(epochDay) - epochDay, zone) != Long.MIN_VALUE) {
+			Date firstDay = moveToDay(date, epochDay, table.getFirstDayOfNextYear(epochDay), zone);
+			if (firstDay != null) {
+				return firstDay;
+			}
+		}
+
 		Calendar cal = Calendar.getInstance();
 		cal.clear();
 		cal.setTime(date);
@@ -615,6 +1185,11 @@ public class RunnerDate {
 	 * @return date's year
 	 */
 	public static int getYearFromDate(Date date) {
+		int epochDay = RunnerEpochDate.toEpochDay(date.getTime());
+		if (RunnerEpochDate.isCalendarCompatible(epochDay)) {
+			return RunnerEpochDate.getYear(epochDay);
+		}
+
 		Calendar calendar = Calendar.getInstance();
 		calendar.clear();
 		calendar.setTime(date);
@@ -629,6 +1204,11 @@ public class RunnerDate {
 	 * @return date's month. Values from 1-12
 	 */
 	public static int getMonthFromDate(Date date) {
+		int epochDay = RunnerEpochDate.toEpochDay(date.getTime());
+		if (RunnerEpochDate.isCalendarCompatible(epochDay)) {
+			return RunnerEpochDate.getMonth(epochDay);
+		}
+
 		Calendar calendar = Calendar.getInstance();
 		calendar.clear();
 		calendar.setTime(date);
@@ -643,6 +1223,11 @@ public class RunnerDate {
 	 * @return date's date.
 	 */
 	public static int getDateFromDate(Date date) {
+		int epochDay = RunnerEpochDate.toEpochDay(date.getTime());
+		if (RunnerEpochDate.isCalendarCompatible(epochDay)) {
+			return RunnerEpochDate.getDayOfMonth(epochDay);
+		}
+
 		Calendar calendar = Calendar.getInstance();
 		calendar.clear();
 		calendar.setTime(date);
@@ -664,27 +1249,51 @@ public class RunnerDate {
 	 */
 	public static String convertDateToString(Date date1, Date date2, String seperator, String format)
 			throws IncorrectInputParametersException {
-		String dateString = "";
+		StringBuilder builder = new StringBuilder();
+		try {
+			convertDateToString(date1, date2, seperator, format, builder);
+		} catch (IOException e) {
+			// StringBuilder does not throw
+			throw new IllegalStateException(e);
+		}
+		return builder.toString();
+	}
 
+	/**
+	 * Appends 2 input dates to the appendable as following - Date1 SPACE seperator SPACE Date2
+	 *
+	 * @Throws IncorrectInputParametersException if either appendable or format parameter is null.
+	 *
+	 * @param date1
+	 * @param date2
+	 * @param seperator
+	 * @param format
+	 * @param appendable
+	 * @throws IncorrectInputParametersException
+	 * @throws IOException
+	 */
+	public static void convertDateToString(Date date1, Date date2, String seperator, String format,
+			Appendable appendable) throws IncorrectInputParametersException, IOException {
 		if (format == null) {
 			throw new IncorrectInputParametersException("Incorrect input parameters. Parameter format is mandatory.");
 		}
+		if (appendable == null) {
+			throw new IncorrectInputParametersException(
+					"Incorrect input parameters. Parameter appendable is mandatory.");
+		}
 
 		if (seperator == null || seperator.trim().length() == 0) {
 			seperator = "-";
 		}
 
-		SimpleDateFormat simpleDateFormat = new SimpleDateFormat(format);
-		simpleDateFormat.setLenient(false);
+		RunnerDateFormat dateFormat = RunnerDateFormatRegistry.getFormat(format);
 		if (date1 != null) {
-			dateString = simpleDateFormat.format(date1);
+			dateFormat.format(date1, appendable);
 		}
-		dateString = dateString + " " + seperator + " ";
+		appendable.append(' ').append(seperator).append(' ');
 		if (date2 != null) {
-			dateString = dateString + simpleDateFormat.format(date2);
+			dateFormat.format(date2, appendable);
 		}
-
-		return dateString;
 	}
 
 	/**
@@ -694,14 +1303,18 @@ public class RunnerDate {
 	 * @param fromYear
 	 * @param toYear
 	 * @return
+	 * @deprecated use RunnerDateSequence.ofYearNumbers(toYear, fromYear, -1), which generates the years lazily without
+	 *             boxing them
 	 */
+	@Deprecated
 	public static List<Integer> getListOfYears(Integer fromYear, Integer toYear) {
 		if (fromYear == null || toYear == null || fromYear.intValue() > toYear.intValue()) {
 			return null;
 		}
-		List<Integer> listOfYears = new ArrayList<Integer>();
-		for (int i = toYear.intValue(); i >= fromYear.intValue(); i--) {
-			listOfYears.add(i);
+		RunnerDateSequence years = RunnerDateSequence.ofYearNumbers(toYear.intValue(), fromYear.intValue(), -1);
+		List<Integer> listOfYears = new ArrayList<Integer>((int) years.size());
+		for (RunnerDateSequence.Cursor cursor = years.iterator(); cursor.hasNext();) {
+			listOfYears.add(cursor.nextInt());
 		}
 		return listOfYears;
 	}
@@ -718,24 +1331,35 @@ public class RunnerDate {
 			throw new IncorrectInputParametersException("One or more of the input parameters date was null.");
 		}
 
-		Calendar calendar1 = Calendar.getInstance();
-		calendar1.clear();
-		calendar1.setTime(date1);
-
-		Calendar calendar2 = Calendar.getInstance();
-		calendar2.clear();
-		calendar2.setTime(date2);
-
-		// Get the represented date in milliseconds
-        long milis1 = calendar1.getTimeInMillis();
-        long milis2 = calendar2.getTimeInMillis();
-
-        // Calculate difference in milliseconds
-        long diff = milis2 - milis1;
+		// Difference in whole days of the represented dates in milliseconds
+		long startTime = RunnerDateMetrics.startTime();
+		int diffInDays = RunnerEpochDate.getDiffInDays(date1.getTime(), date2.getTime());
+		if (RunnerDateMetrics.ENABLED) {
+			RunnerDateMetrics.recordSuccess(Operation.ARITHMETIC, startTime);
+		}
+		return diffInDays;
+	}
 
-        long difInDays = diff / (CONVERT_MILLISECONDS_SECONDS * CONVERT_SECONDS_MINUTES * CONVERT_MINUTES_HOURS * CONVERT_HOURS_DAYS);
+	/**
+	 * Calculates the difference in days for the given 2 dates in the given time zone. Unlike
+	 * {@link #getDiffinDays(Date, Date)} the days are counted between the calendar days of the dates in the zone, so
+	 * days shortened or lengthened by daylight saving changes count as whole days and the times of day are ignored.
+	 *
+	 * If a date or zone is null an IncorrectInputParametersException is thrown.
+	 *
+	 * @param date1
+	 * @param date2
+	 * @param zone
+	 * @return days from date1 to date2
+	 * @throws IncorrectInputParametersException
+	 */
+	public static int getDiffinDays(Date date1, Date date2, ZoneId zone) throws IncorrectInputParametersException {
+		if (date1 == null || date2 == null) {
+			throw new IncorrectInputParametersException("One or more of the input parameters date was null.");
+		}
 
-		return (int)difInDays;
+		RunnerZoneOffsets offsets = RunnerZoneOffsets.of(zone);
+		return RunnerEpochDate.getDiffInDays(offsets.toEpochDay(date1.getTime()), offsets.toEpochDay(date2.getTime()));
 	}
 
 	/**
@@ -749,6 +1373,13 @@ public class RunnerDate {
 		if (date1 == null || date2 == null) {
 			throw new IncorrectInputParametersException("One or more of the input parameters date was null.");
 		}
+		TimeZone zone = TimeZone.getDefault();
+		int epochDay1 = RunnerEpochDate.toEpochDay(date1.getTime(), zone);
+		int epochDay2 = RunnerEpochDate.toEpochDay(date2.getTime(), zone);
+		if (RunnerEpochDate.isCalendarCompatible(epochDay1) && RunnerEpochDate.isCalendarCompatible(epochDay2)) {
+			return RunnerEpochDate.getDiffInMonths(epochDay1, epochDay2);
+		}
+
 		Calendar now = Calendar.getInstance();
 		now.clear();
 		now.setTime(date1);
@@ -817,7 +1448,9 @@ public class RunnerDate {
 	}
 
 	/**
-	 * Calculates the difference in years for the given 2 dates
+	 * Calculates the difference in whole years for the given 2 dates. Only the days of the dates are used, a year is
+	 * whole when the later date is on or after the anniversary of the earlier date. The anniversary of 29.2 is 28.2 in
+	 * non leap years.
 	 *
 	 * @param date1
 	 * @param date2
@@ -827,44 +1460,71 @@ public class RunnerDate {
 		if (date1 == null || date2 == null) {
 			throw new IncorrectInputParametersException("One or more of the input parameters date was null.");
 		}
+		TimeZone zone = TimeZone.getDefault();
+		int epochDay1 = RunnerEpochDate.toEpochDay(date1.getTime(), zone);
+		int epochDay2 = RunnerEpochDate.toEpochDay(date2.getTime(), zone);
+		if (RunnerEpochDate.isCalendarCompatible(epochDay1) && RunnerEpochDate.isCalendarCompatible(epochDay2)) {
+			return RunnerEpochDate.getDiffInYears(epochDay1, epochDay2);
+		}
 
-		Calendar now = Calendar.getInstance();
-		now.clear();
-		now.setTime(date1);
+		Calendar earlier = Calendar.getInstance();
+		earlier.clear();
+		earlier.setTime(epochDay1 <= epochDay2 ? date1 : date2);
 
-		Calendar dob = Calendar.getInstance();
-		dob.clear();
-		dob.setTime(date2);
+		Calendar later = Calendar.getInstance();
+		later.clear();
+		later.setTime(epochDay1 <= epochDay2 ? date2 : date1);
 
-		long diff = 0;
-
-		if (dob.getTimeInMillis() > now.getTimeInMillis()) {
-			diff = dob.getTimeInMillis() - now.getTimeInMillis();
-		} else {
-			diff = now.getTimeInMillis() - dob.getTimeInMillis();
+		int diffInYears = later.get(Calendar.YEAR) - earlier.get(Calendar.YEAR);
+		earlier.add(Calendar.YEAR, diffInYears);
+		if (compareDates(earlier.getTime(), later.getTime()) > 0) {
+			diffInYears--;
 		}
 
-		Calendar diffCal = Calendar.getInstance();
-		diffCal.clear();
-		diffCal.setTimeInMillis(diff);
-
-		int diffInYears = diffCal.get(Calendar.YEAR);
+		return diffInYears;
+	}
 
-		return diffInYears - EPOCH_YEAR;
+	/**
+	 * Calculates the age in whole years at the given date of a person born on birthDate. The age grows on the
+	 * anniversary of the birth date, on 28.2 in non leap years for those born on 29.2.
+	 *
+	 * @Throws IncorrectInputParametersException if either date is null or date is before birthDate.
+	 *
+	 * @param birthDate
+	 * @param date
+	 * @return age in years
+	 * @throws IncorrectInputParametersException
+	 */
+	public static int getAge(Date birthDate, Date date) throws IncorrectInputParametersException {
+		if (birthDate == null || date == null) {
+			throw new IncorrectInputParametersException("One or more of the input parameters date was null.");
+		}
+		if (compareDates(date, birthDate) < 0) {
+			throw new IncorrectInputParametersException("Incorrect input parameters. Date is before birthDate.");
+		}
+		return getDiffBetweenTwoDatesInYears(birthDate, date);
 	}
 
+	/**
+	 * Converts Castor date to java.util.Date. Castor is needed on the classpath only when this method is called, see
+	 * {@link RunnerCastorDates}.
+	 *
+	 * @param castorDate
+	 * @return date
+	 */
 	public static Date convertCastorDateToUtilDate(org.exolab.castor.types.Date castorDate) {
-		if (castorDate == null) {
-			return null;
-		}
-		return castorDate.toDate();
+		return RunnerCastorDates.toDate(castorDate);
 	}
 
+	/**
+	 * Converts java.util.Date to Castor date. Castor is needed on the classpath only when this method is called, see
+	 * {@link RunnerCastorDates}.
+	 *
+	 * @param utilDate
+	 * @return Castor date
+	 */
 	public static org.exolab.castor.types.Date convertUtilDateToCastorDate(java.util.Date utilDate) {
-		if (utilDate == null) {
-			return null;
-		}
-		return new org.exolab.castor.types.Date(utilDate);
+		return RunnerCastorDates.toCastorDate(utilDate);
 	}
 
 	/**
@@ -907,14 +1567,73 @@ public class RunnerDate {
 	// This is temporary method added for formatting dates coming from VRK, once
 	// we get confirmation on the exact date format we will change this method
 	public static Date getDateFromVRKDateString(String vrkDateString) {
-		SimpleDateFormat simpleDateFormat = new SimpleDateFormat("yyyyMMdd");
-		simpleDateFormat.setLenient(false);
+		return getDateFromVRKDateString((CharSequence) vrkDateString);
+	}
 
-		try {
-			return simpleDateFormat.parse(vrkDateString);
-		} catch (ParseException pe) {
-			return null;
+	/**
+	 * Same as {@link #getDateFromVRKDateString(String)} for any character sequence.
+	 *
+	 * @param vrkDateString
+	 * @return date or null if not valid
+	 */
+	public static Date getDateFromVRKDateString(CharSequence vrkDateString) {
+		long startTime = RunnerDateMetrics.startTime();
+		int scannedDate = RunnerDateScanner.scanCompactDate(vrkDateString, 0, vrkDateString.length());
+		Date date;
+		if (scannedDate == RunnerDateScanner.NOT_SCANNED) {
+			date = RunnerDateFormatRegistry.getFormat(DATE_FORMAT_YYYYMMDD).parseOrNull(vrkDateString.toString());
+		} else if (scannedDate == RunnerDateScanner.INVALID) {
+			date = null;
+		} else {
+			long epochMillis = RunnerDateScanner.toEpochMillis(scannedDate);
+			if (epochMillis == RunnerDateParser.INVALID) {
+				// The default time zone skips the day
+				scannedDate = RunnerDateScanner.INVALID;
+				date = null;
+			} else {
+				date = new Date(epochMillis);
+			}
 		}
+
+		if (RunnerDateMetrics.ENABLED) {
+			if (date != null) {
+				RunnerDateMetrics.recordSuccess(Operation.PARSE, startTime, DATE_FORMAT_YYYYMMDD);
+			} else {
+				RunnerDateMetrics.recordFailure(Operation.PARSE, startTime,
+						scannedDate == RunnerDateScanner.INVALID ? Failure.INVALID_DATE : Failure.PARSE_ERROR);
+			}
+		}
+		return date;
+	}
+
+	/**
+	 * Same as {@link #getDateFromVRKDateString(String)} for ASCII bytes.
+	 *
+	 * @param bytes
+	 * @param offset
+	 * @param length
+	 * @return date or null if not valid
+	 * @throws IncorrectInputParametersException
+	 */
+	public static Date getDateFromVRKDateString(byte[] bytes, int offset, int length)
+			throws IncorrectInputParametersException {
+		return getDateFromVRKDateString(asciiSequence(bytes, offset, length));
+	}
+
+	/**
+	 * Same as {@link #getDateFromVRKDateString(String)} for ASCII bytes of a buffer. The buffer position is not
+	 * changed.
+	 *
+	 * @param buffer
+	 * @param offset
+	 *            absolute index in the buffer
+	 * @param length
+	 * @return date or null if not valid
+	 * @throws IncorrectInputParametersException
+	 */
+	public static Date getDateFromVRKDateString(ByteBuffer buffer, int offset, int length)
+			throws IncorrectInputParametersException {
+		return getDateFromVRKDateString(asciiSequence(buffer, offset, length));
 	}
 
 
@@ -928,6 +1647,13 @@ public class RunnerDate {
 		if (date == null) {
 			throw new IncorrectInputParametersException("Input parameter date was null.");
 		}
+		TimeZone zone = TimeZone.getDefault();
+		int epochDay = RunnerEpochDate.toEpochDay(date.getTime(), zone);
+		RunnerCalendarTable table = calendarTableFor(epochDay);
+		if (table != null) {
+			return table.getDayOfMonth(epochDay) == 1;
+		}
+
 		Calendar cal = Calendar.getInstance();
 		cal.clear();
 		cal.setTime(date);
@@ -949,6 +1675,13 @@ public class RunnerDate {
 		if (date == null) {
 			throw new IncorrectInputParametersException("Input parameter date was null.");
 		}
+		TimeZone zone = TimeZone.getDefault();
+		int epochDay = RunnerEpochDate.toEpochDay(date.getTime(), zone);
+		RunnerCalendarTable table = calendarTableFor(epochDay);
+		if (table != null) {
+			return epochDay == table.getLastDayOfYear(epochDay);
+		}
+
 		Calendar cal = Calendar.getInstance();
 		cal.clear();
 		cal.setTime(date);
@@ -971,6 +1704,13 @@ public class RunnerDate {
 		if (date == null) {
 			throw new IncorrectInputParametersException("Input parameter date was null.");
 		}
+		TimeZone zone = TimeZone.getDefault();
+		int epochDay = RunnerEpochDate.toEpochDay(date.getTime(), zone);
+		RunnerCalendarTable table = calendarTableFor(epochDay);
+		if (table != null) {
+			return epochDay == table.getFirstDayOfYear(epochDay);
+		}
+
 		Calendar cal = Calendar.getInstance();
 		cal.clear();
 		cal.setTime(date);
@@ -1032,6 +1772,13 @@ public class RunnerDate {
 		if (date == null) {
 			return null;
 		}
+		TimeZone zone = TimeZone.getDefault();
+		int epochDay = RunnerEpochDate.toEpochDay(date.getTime(), zone);
+		RunnerCalendarTable table = calendarTableFor(epochDay);
+		if (table != null) {
+			return new Date(RunnerEpochDate.toEpochMillis(table.getFirstDayOfYear(epochDay), zone));
+		}
+
 		Calendar cal = Calendar.getInstance();
 		cal.clear();
 		cal.set(Calendar.DATE, 1);
@@ -1040,6 +1787,13 @@ public class RunnerDate {
 		return cal.getTime();
 	}
 
+	/**
+	 * Sets the current date returned by getCurrentDateWithOnlyDates.
+	 *
+	 * @deprecated use {@link #setClock(RunnerClock)} with RunnerClock.fixed, which also works from several threads
+	 * @param runnerDate
+	 */
+	@Deprecated
 	public static void setTestRunnerDate(RunnerDate runnerDate) {
 		testRunnerDate = runnerDate;
 	}
@@ -1059,6 +1813,16 @@ public class RunnerDate {
 		if (date == null) {
 			return null;
 		}
+		TimeZone zone = TimeZone.getDefault();
+		int epochDay = RunnerEpochDate.toEpochDay(date.getTime(), zone);
+		RunnerCalendarTable table = calendarTableFor(epochDay);
+		if (table != null) {
+			Date firstDay = moveToDay(date, epochDay, table.getFirstDayOfMonth(epochDay), zone);
+			if (firstDay != null) {
+				return firstDay;
+			}
+		}
+
 		Calendar cal = Calendar.getInstance();
 		cal.clear();
 		cal.setTime(date);
@@ -1078,6 +1842,16 @@ public class RunnerDate {
 		if (date == null) {
 			return null;
 		}
+		TimeZone zone = TimeZone.getDefault();
+		int epochDay = RunnerEpochDate.toEpochDay(date.getTime(), zone);
+		RunnerCalendarTable table = calendarTableFor(epochDay);
+		if (table != null) {
+			Date lastDay = moveToDay(date, epochDay, table.getLastDayOfMonth(epochDay), zone);
+			if (lastDay != null) {
+				return lastDay;
+			}
+		}
+
 		Calendar cal = Calendar.getInstance();
 		cal.clear();
 		cal.setTime(getFirstDayOfNextMonthFollowingTheDate(date));
@@ -1111,6 +1885,16 @@ public class RunnerDate {
 		if (date == null) {
 			return null;
 		}
+		TimeZone zone = TimeZone.getDefault();
+		int epochDay = RunnerEpochDate.toEpochDay(date.getTime(), zone);
+		RunnerCalendarTable table = calendarTableFor(epochDay);
+		if (table != null) {
+			Date lastDay = moveToDay(date, epochDay, table.getLastDayOfYear(epochDay), zone);
+			if (lastDay != null) {
+				return lastDay;
+			}
+		}
+
 		Calendar calendar = Calendar.getInstance();
 		calendar.clear();
 		calendar.setTime(date);
@@ -1120,4 +1904,69 @@ public class RunnerDate {
 		return calendar.getTime();
 	}
 
-}
\ No newline at end of file
+	/**
+	 * Returns the default calendar table if it covers the given day and the default calendar is Gregorian, otherwise
+	 * null.
+	 */
+	private static RunnerCalendarTable calendarTableFor(int epochDay) {
+		if (!RunnerEpochDate.DEFAULT_CALENDAR_GREGORIAN) {
+			return null;
+		}
+		RunnerCalendarTable table = RunnerCalendarTable.getDefault();
+		return table.contains(epochDay) ? table : null;
+	}
+
+	/**
+	 * Returns the date moved to the target day with the same time of day, or null if the zone offset changes near the
+	 * target day and Calendar must be used.
+	 */
+	private static Date moveToDay(Date date, int epochDay, int targetEpochDay, TimeZone zone) {
+		long epochMillis = RunnerEpochDate.plusDaysKeepingTime(date.getTime(), targetEpochDay - epochDay, zone);
+		return epochMillis == Long.MIN_VALUE ? null : new Date(epochMillis);
+	}
+
+	/**
+	 * Returns character view of the given ASCII bytes. Throws IncorrectInputParametersException if bytes is null or
+	 * the range is outside of the array.
+	 */
+	private static RunnerAsciiSequence asciiSequence(byte[] bytes, int offset, int length) {
+		if (bytes == null || offset < 0 || length < 0 || offset > bytes.length - length) {
+			throw new IncorrectInputParametersException(
+					"Incorrect input parameters. Parameter bytes is mandatory and the range must be inside it.");
+		}
+		return new RunnerAsciiSequence().set(bytes, offset, length);
+	}
+
+	/**
+	 * Returns character view of the given ASCII bytes. Throws IncorrectInputParametersException if buffer is null or
+	 * the range is outside of the buffer limit.
+	 */
+	private static RunnerAsciiSequence asciiSequence(ByteBuffer buffer, int offset, int length) {
+		if (buffer == null || offset < 0 || length < 0 || offset > buffer.limit() - length) {
+			throw new IncorrectInputParametersException(
+					"Incorrect input parameters. Parameter buffer is mandatory and the range must be inside it.");
+		}
+		return new RunnerAsciiSequence().set(buffer, offset, length);
+	}
+
+	/**
+	 * Current day of a clock in a time zone, valid from startMillis (inclusive) to endMillis (exclusive).
+	 */
+	private static final class CurrentDay {
+
+		private final RunnerClock clock;
+		private final String zoneId;
+		private final int epochDay;
+		private final long startMillis;
+		private final long endMillis;
+
+		private CurrentDay(RunnerClock clock, String zoneId, int epochDay, long startMillis, long endMillis) {
+			this.clock = clock;
+			this.zoneId = zoneId;
+			this.epochDay = epochDay;
+			this.startMillis = startMillis;
+			this.endMillis = endMillis;
+		}
+	}
+
+}
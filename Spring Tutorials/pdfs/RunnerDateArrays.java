@@ -0,0 +1,374 @@
+package com.runner.architecture.util;
+
+import java.util.Calendar;
+import java.util.TimeZone;
+
+/**
+ * Date arithmetic over whole columns of dates held in primitive arrays, either epoch days (int[]) or epoch
+ * milliseconds (long[]). The value for input i is written to index i of the result array, which may be the input
+ * array itself to work in place.
+ *
+ * Epoch day methods use the proleptic Gregorian calendar of RunnerEpochDate. Epoch millisecond methods give the same
+ * results as the corresponding RunnerDate methods for each element: the time of day is kept and months are clamped to
+ * the last day of the month like Calendar.add. Elements that Calendar would treat differently, such as dates before
+ * 1583 or next to a time zone offset change, are computed with Calendar.
+ *
+ * The day and difference loops are plain array loops without calls that the JIT can unroll and vectorise.
+ *
+ * @author keshavprasad.akasam
+ *
+ */
+public final class RunnerDateArrays {
+
+	private RunnerDateArrays() {
+	}
+
+	/**
+	 * Adds given number of days to every epoch day.
+	 *
+	 * @param epochDays
+	 * @param days
+	 * @param result
+	 *            receives the epoch days, may be epochDays
+	 * @throws IncorrectInputParametersException
+	 */
+	public static void plusDays(int[] epochDays, int days, int[] result) throws IncorrectInputParametersException {
+		checkParameters(epochDays, result);
+		for (int i = 0; i < epochDays.length; i++) {
+			result[i] = epochDays[i] + days;
+		}
+	}
+
+	/**
+	 * Adds given number of months to every epoch day, clamping the day of month like RunnerEpochDate.plusMonths.
+	 *
+	 * @param epochDays
+	 * @param months
+	 * @param result
+	 *            receives the epoch days, may be epochDays
+	 * @throws IncorrectInputParametersException
+	 */
+	public static void plusMonths(int[] epochDays, int months, int[] result) throws IncorrectInputParametersException {
+		checkParameters(epochDays, result);
+		for (int i = 0; i < epochDays.length; i++) {
+			result[i] = RunnerEpochDate.plusMonths(epochDays[i], months);
+		}
+	}
+
+	/**
+	 * Adds given number of years to every epoch day, clamping 29.2 like RunnerEpochDate.plusYears.
+	 *
+	 * @param epochDays
+	 * @param years
+	 * @param result
+	 *            receives the epoch days, may be epochDays
+	 * @throws IncorrectInputParametersException
+	 */
+	public static void plusYears(int[] epochDays, int years, int[] result) throws IncorrectInputParametersException {
+		checkParameters(epochDays, result);
+		for (int i = 0; i < epochDays.length; i++) {
+			result[i] = RunnerEpochDate.plusYears(epochDays[i], years);
+		}
+	}
+
+	/**
+	 * Calculates epochDays2[i] - epochDays1[i] for every pair.
+	 *
+	 * @param epochDays1
+	 * @param epochDays2
+	 * @param result
+	 *            receives the differences in days, may be one of the inputs
+	 * @throws IncorrectInputParametersException
+	 */
+	public static void getDiffInDays(int[] epochDays1, int[] epochDays2, int[] result)
+			throws IncorrectInputParametersException {
+		checkParameters(epochDays1, epochDays2, result);
+		for (int i = 0; i < epochDays1.length; i++) {
+			result[i] = epochDays2[i] - epochDays1[i];
+		}
+	}
+
+	/**
+	 * Calculates the difference in months of every pair like RunnerEpochDate.getDiffInMonths.
+	 *
+	 * @param epochDays1
+	 * @param epochDays2
+	 * @param result
+	 *            receives the differences in months, may be one of the inputs
+	 * @throws IncorrectInputParametersException
+	 */
+	public static void getDiffInMonths(int[] epochDays1, int[] epochDays2, int[] result)
+			throws IncorrectInputParametersException {
+		checkParameters(epochDays1, epochDays2, result);
+		for (int i = 0; i < epochDays1.length; i++) {
+			result[i] = RunnerEpochDate.getDiffInMonths(epochDays1[i], epochDays2[i]);
+		}
+	}
+
+	/**
+	 * Calculates the whole years between every pair like RunnerEpochDate.getDiffInYears.
+	 *
+	 * @param epochDays1
+	 * @param epochDays2
+	 * @param result
+	 *            receives the differences in years, may be one of the inputs
+	 * @throws IncorrectInputParametersException
+	 */
+	public static void getDiffInYears(int[] epochDays1, int[] epochDays2, int[] result)
+			throws IncorrectInputParametersException {
+		checkParameters(epochDays1, epochDays2, result);
+		for (int i = 0; i < epochDays1.length; i++) {
+			result[i] = RunnerEpochDate.getDiffInYears(epochDays1[i], epochDays2[i]);
+		}
+	}
+
+	/**
+	 * Adds given number of days to every instant like RunnerDate.increaseDateByGivenNumberOfDates.
+	 *
+	 * @param epochMillis
+	 * @param days
+	 * @param result
+	 *            receives the epoch milliseconds, may be epochMillis
+	 * @throws IncorrectInputParametersException
+	 */
+	public static void plusDays(long[] epochMillis, int days, long[] result) throws IncorrectInputParametersException {
+		checkParameters(epochMillis, result);
+		TimeZone zone = TimeZone.getDefault();
+		Calendar calendar = null;
+
+		for (int i = 0; i < epochMillis.length; i++) {
+			long millis = epochMillis[i];
+			int epochDay = RunnerEpochDate.toEpochDay(millis, zone);
+			long shiftedMillis = Long.MIN_VALUE;
+			if (RunnerEpochDate.isCalendarCompatible(epochDay)
+					&& RunnerEpochDate.isCalendarCompatible(epochDay + days)) {
+				shiftedMillis = RunnerEpochDate.plusDaysKeepingTime(millis, days, zone);
+			}
+
+			if (shiftedMillis == Long.MIN_VALUE) {
+				calendar = calendar == null ? Calendar.getInstance(zone) : calendar;
+				shiftedMillis = add(calendar, millis, Calendar.DATE, days);
+			}
+			result[i] = shiftedMillis;
+		}
+	}
+
+	/**
+	 * Adds given number of months to every instant like RunnerDate.increaseDateByGivenNumberOfMonths.
+	 *
+	 * @param epochMillis
+	 * @param months
+	 * @param result
+	 *            receives the epoch milliseconds, may be epochMillis
+	 * @throws IncorrectInputParametersException
+	 */
+	public static void plusMonths(long[] epochMillis, int months, long[] result)
+			throws IncorrectInputParametersException {
+		checkParameters(epochMillis, result);
+		TimeZone zone = TimeZone.getDefault();
+		Calendar calendar = null;
+
+		for (int i = 0; i < epochMillis.length; i++) {
+			long millis = epochMillis[i];
+			int epochDay = RunnerEpochDate.toEpochDay(millis, zone);
+			long shiftedMillis = Long.MIN_VALUE;
+			if (RunnerEpochDate.isCalendarCompatible(epochDay)) {
+				int shiftedDay = RunnerEpochDate.plusMonths(epochDay, months);
+				if (RunnerEpochDate.isCalendarCompatible(shiftedDay)) {
+					shiftedMillis = RunnerEpochDate.plusDaysKeepingTime(millis, shiftedDay - epochDay, zone);
+				}
+			}
+
+			if (shiftedMillis == Long.MIN_VALUE) {
+				calendar = calendar == null ? Calendar.getInstance(zone) : calendar;
+				shiftedMillis = add(calendar, millis, Calendar.MONTH, months);
+			}
+			result[i] = shiftedMillis;
+		}
+	}
+
+	/**
+	 * Adds given number of years to every instant like RunnerDate.increaseDateByGivenNumberOfYears.
+	 *
+	 * @param epochMillis
+	 * @param years
+	 * @param result
+	 *            receives the epoch milliseconds, may be epochMillis
+	 * @throws IncorrectInputParametersException
+	 */
+	public static void plusYears(long[] epochMillis, int years, long[] result) throws IncorrectInputParametersException {
+		checkParameters(epochMillis, result);
+		TimeZone zone = TimeZone.getDefault();
+		Calendar calendar = null;
+
+		for (int i = 0; i < epochMillis.length; i++) {
+			long millis = epochMillis[i];
+			int epochDay = RunnerEpochDate.toEpochDay(millis, zone);
+			long shiftedMillis = Long.MIN_VALUE;
+			if (RunnerEpochDate.isCalendarCompatible(epochDay)) {
+				int shiftedDay = RunnerEpochDate.plusYears(epochDay, years);
+				if (RunnerEpochDate.isCalendarCompatible(shiftedDay)) {
+					shiftedMillis = RunnerEpochDate.plusDaysKeepingTime(millis, shiftedDay - epochDay, zone);
+				}
+			}
+
+			if (shiftedMillis == Long.MIN_VALUE) {
+				calendar = calendar == null ? Calendar.getInstance(zone) : calendar;
+				shiftedMillis = add(calendar, millis, Calendar.YEAR, years);
+			}
+			result[i] = shiftedMillis;
+		}
+	}
+
+	/**
+	 * Calculates the difference in whole days of every pair like RunnerDate.getDiffinDays.
+	 *
+	 * @param epochMillis1
+	 * @param epochMillis2
+	 * @param result
+	 *            receives the differences in days
+	 * @throws IncorrectInputParametersException
+	 */
+	public static void getDiffInDays(long[] epochMillis1, long[] epochMillis2, int[] result)
+			throws IncorrectInputParametersException {
+		checkParameters(epochMillis1, epochMillis2, result);
+		for (int i = 0; i < epochMillis1.length; i++) {
+			result[i] = (int) ((epochMillis2[i] - epochMillis1[i]) / RunnerEpochDate.MILLISECONDS_PER_DAY);
+		}
+	}
+
+	/**
+	 * Calculates the difference in months of every pair like RunnerDate.getDiffBetweenTwoDatesInMonths.
+	 *
+	 * @param epochMillis1
+	 * @param epochMillis2
+	 * @param result
+	 *            receives the differences in months
+	 * @throws IncorrectInputParametersException
+	 */
+	public static void getDiffInMonths(long[] epochMillis1, long[] epochMillis2, int[] result)
+			throws IncorrectInputParametersException {
+		checkParameters(epochMillis1, epochMillis2, result);
+		TimeZone zone = TimeZone.getDefault();
+		Calendar calendar = null;
+
+		for (int i = 0; i < epochMillis1.length; i++) {
+			int epochDay1 = RunnerEpochDate.toEpochDay(epochMillis1[i], zone);
+			int epochDay2 = RunnerEpochDate.toEpochDay(epochMillis2[i], zone);
+			if (RunnerEpochDate.isCalendarCompatible(epochDay1) && RunnerEpochDate.isCalendarCompatible(epochDay2)) {
+				result[i] = RunnerEpochDate.getDiffInMonths(epochDay1, epochDay2);
+			} else {
+				calendar = calendar == null ? Calendar.getInstance(zone) : calendar;
+				result[i] = getDiffInMonths(calendar, epochMillis1[i], epochMillis2[i]);
+			}
+		}
+	}
+
+	/**
+	 * Calculates the whole years between every pair like RunnerDate.getDiffBetweenTwoDatesInYears.
+	 *
+	 * @param epochMillis1
+	 * @param epochMillis2
+	 * @param result
+	 *            receives the differences in years
+	 * @throws IncorrectInputParametersException
+	 */
+	public static void getDiffInYears(long[] epochMillis1, long[] epochMillis2, int[] result)
+			throws IncorrectInputParametersException {
+		checkParameters(epochMillis1, epochMillis2, result);
+		TimeZone zone = TimeZone.getDefault();
+		Calendar calendar = null;
+
+		for (int i = 0; i < epochMillis1.length; i++) {
+			int epochDay1 = RunnerEpochDate.toEpochDay(epochMillis1[i], zone);
+			int epochDay2 = RunnerEpochDate.toEpochDay(epochMillis2[i], zone);
+			if (RunnerEpochDate.isCalendarCompatible(epochDay1) && RunnerEpochDate.isCalendarCompatible(epochDay2)) {
+				result[i] = RunnerEpochDate.getDiffInYears(epochDay1, epochDay2);
+			} else {
+				calendar = calendar == null ? Calendar.getInstance(zone) : calendar;
+				boolean inOrder = epochDay1 <= epochDay2;
+				result[i] = getDiffInYears(calendar, zone, inOrder ? epochMillis1[i] : epochMillis2[i],
+						inOrder ? epochMillis2[i] : epochMillis1[i]);
+			}
+		}
+	}
+
+	private static long add(Calendar calendar, long epochMillis, int field, int amount) {
+		calendar.clear();
+		calendar.setTimeInMillis(epochMillis);
+		calendar.add(field, amount);
+		return calendar.getTimeInMillis();
+	}
+
+	private static int getDiffInMonths(Calendar calendar, long epochMillis1, long epochMillis2) {
+		long later = Math.max(epochMillis1, epochMillis2);
+		long earlier = Math.min(epochMillis1, epochMillis2);
+
+		calendar.clear();
+		calendar.setTimeInMillis(later);
+		int months = calendar.get(Calendar.YEAR) * 12 + calendar.get(Calendar.MONTH);
+		calendar.clear();
+		calendar.setTimeInMillis(earlier);
+		return months - calendar.get(Calendar.YEAR) * 12 - calendar.get(Calendar.MONTH);
+	}
+
+	private static int getDiffInYears(Calendar calendar, TimeZone zone, long earlier, long later) {
+		calendar.clear();
+		calendar.setTimeInMillis(later);
+		int laterYear = calendar.get(Calendar.YEAR);
+		calendar.clear();
+		calendar.setTimeInMillis(earlier);
+		int years = laterYear - calendar.get(Calendar.YEAR);
+
+		// Not a whole year if the anniversary falls on a later day, days are compared like compareDates
+		calendar.add(Calendar.YEAR, years);
+		if (RunnerEpochDate.toEpochDay(calendar.getTimeInMillis(), zone) > RunnerEpochDate.toEpochDay(later, zone)) {
+			years--;
+		}
+		return years;
+	}
+
+	private static void checkParameters(int[] input, int[] result) throws IncorrectInputParametersException {
+		if (input == null || result == null) {
+			throw new IncorrectInputParametersException(
+					"Incorrect input parameters. Input and output parameters are mandatory.");
+		}
+		checkLengths(input.length, input.length, result.length);
+	}
+
+	private static void checkParameters(long[] input, long[] result) throws IncorrectInputParametersException {
+		if (input == null || result == null) {
+			throw new IncorrectInputParametersException(
+					"Incorrect input parameters. Input and output parameters are mandatory.");
+		}
+		checkLengths(input.length, input.length, result.length);
+	}
+
+	private static void checkParameters(int[] input1, int[] input2, int[] result)
+			throws IncorrectInputParametersException {
+		if (input1 == null || input2 == null || result == null) {
+			throw new IncorrectInputParametersException(
+					"Incorrect input parameters. Input and output parameters are mandatory.");
+		}
+		checkLengths(input1.length, input2.length, result.length);
+	}
+
+	private static void checkParameters(long[] input1, long[] input2, int[] result)
+			throws IncorrectInputParametersException {
+		if (input1 == null || input2 == null || result == null) {
+			throw new IncorrectInputParametersException(
+					"Incorrect input parameters. Input and output parameters are mandatory.");
+		}
+		checkLengths(input1.length, input2.length, result.length);
+	}
+
+	private static void checkLengths(int inputLength1, int inputLength2, int resultLength)
+			throws IncorrectInputParametersException {
+		if (inputLength1 != inputLength2) {
+			throw new IncorrectInputParametersException("Incorrect input parameters. Input arrays differ in length.");
+		}
+		if (resultLength < inputLength1) {
+			throw new IncorrectInputParametersException("Incorrect input parameters. Output array is too short.");
+		}
+	}
+}
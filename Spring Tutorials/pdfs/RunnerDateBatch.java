@@ -0,0 +1,446 @@
+package com.runner.architecture.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.TimeZone;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Converts whole columns of date strings in one call. Results are written into caller supplied primitive arrays: the
+ * value for input i is stored at index i and bit i of the invalid set tells whether input i could not be converted.
+ * Null and unparseable inputs do not throw, they are marked invalid and their output value is set to
+ * {@link #INVALID_EPOCH_DAY} or {@link #INVALID_EPOCH_MILLIS}, so invalid inputs can be told apart without the
+ * invalid set.
+ *
+ * Formats are resolved once per call. Without a format hint the same rules as in
+ * RunnerDate.convertStringToDate(String) and RunnerDate.convertTimeStampStringToDate are used.
+ *
+ * The InParallel variants split the input over a ForkJoinPool, the common pool if none is given. Every input is
+ * independent so the output is the same as with the sequential variants. Inputs smaller than
+ * {@link #PARALLEL_THRESHOLD} are converted in the calling thread.
+ *
+ * @author keshavprasad.akasam
+ *
+ */
+public final class RunnerDateBatch {
+
+	/* Output value of invalid inputs, the same as RunnerDateFormatSniffer writes */
+	public static final int INVALID_EPOCH_DAY = RunnerDateFormatSniffer.INVALID_EPOCH_DAY;
+	public static final long INVALID_EPOCH_MILLIS = RunnerDateFormatSniffer.INVALID_EPOCH_MILLIS;
+
+	/* Inputs smaller than this are not split */
+	public static final int PARALLEL_THRESHOLD = 8192;
+
+	/* Number of inputs converted by one fork/join task, multiple of 64 so tasks never share a word of invalid bits */
+	private static final int PARALLEL_CHUNK_SIZE = 4096;
+
+	private RunnerDateBatch() {
+	}
+
+	/**
+	 * Validates date strings. Without a format hint the rules of RunnerDate.isDateValid are used, otherwise the rules
+	 * of RunnerDate.isDateValidInSpecificFormat.
+	 *
+	 * @param dateStrings
+	 * @param format
+	 *            pattern of the strings or null to use the supported date formats
+	 * @param invalid
+	 *            receives the indexes of invalid inputs, may be null
+	 * @return number of valid inputs
+	 * @throws IncorrectInputParametersException
+	 */
+	public static int validateDates(List<? extends CharSequence> dateStrings, String format, BitSet invalid)
+			throws IncorrectInputParametersException {
+		checkParameters(dateStrings, Integer.MAX_VALUE);
+		return run(Conversion.VALIDATION, dateStrings, format, null, null, invalid, null, false);
+	}
+
+	/**
+	 * Parallel variant of {@link #validateDates(List, String, BitSet)}.
+	 *
+	 * @param dateStrings
+	 * @param format
+	 *            pattern of the strings or null to use the supported date formats
+	 * @param invalid
+	 *            receives the indexes of invalid inputs, may be null
+	 * @param pool
+	 *            pool to run in or null to use the common pool
+	 * @return number of valid inputs
+	 * @throws IncorrectInputParametersException
+	 */
+	public static int validateDatesInParallel(List<? extends CharSequence> dateStrings, String format, BitSet invalid,
+			ForkJoinPool pool) throws IncorrectInputParametersException {
+		checkParameters(dateStrings, Integer.MAX_VALUE);
+		return run(Conversion.VALIDATION, dateStrings, format, null, null, invalid, pool, true);
+	}
+
+	/**
+	 * Converts date strings to epoch days in the default time zone.
+	 *
+	 * @param dateStrings
+	 * @param format
+	 *            pattern of the strings or null to use the supported date formats
+	 * @param epochDays
+	 *            output, at least as long as dateStrings
+	 * @param invalid
+	 *            receives the indexes of invalid inputs, may be null
+	 * @return number of valid inputs
+	 * @throws IncorrectInputParametersException
+	 */
+	public static int convertStringsToEpochDays(String[] dateStrings, String format, int[] epochDays, BitSet invalid)
+			throws IncorrectInputParametersException {
+		return convertStringsToEpochDays(asList(dateStrings), format, epochDays, invalid);
+	}
+
+	/**
+	 * Converts date strings to epoch days in the default time zone.
+	 *
+	 * @param dateStrings
+	 * @param format
+	 *            pattern of the strings or null to use the supported date formats
+	 * @param epochDays
+	 *            output, at least as long as dateStrings
+	 * @param invalid
+	 *            receives the indexes of invalid inputs, may be null
+	 * @return number of valid inputs
+	 * @throws IncorrectInputParametersException
+	 */
+	public static int convertStringsToEpochDays(List<? extends CharSequence> dateStrings, String format,
+			int[] epochDays, BitSet invalid) throws IncorrectInputParametersException {
+		checkParameters(dateStrings, epochDays == null ? -1 : epochDays.length);
+		return run(Conversion.EPOCH_DAY, dateStrings, format, epochDays, null, invalid, null, false);
+	}
+
+	/**
+	 * Parallel variant of {@link #convertStringsToEpochDays(List, String, int[], BitSet)}.
+	 *
+	 * @param dateStrings
+	 * @param format
+	 *            pattern of the strings or null to use the supported date formats
+	 * @param epochDays
+	 *            output, at least as long as dateStrings
+	 * @param invalid
+	 *            receives the indexes of invalid inputs, may be null
+	 * @param pool
+	 *            pool to run in or null to use the common pool
+	 * @return number of valid inputs
+	 * @throws IncorrectInputParametersException
+	 */
+	public static int convertStringsToEpochDaysInParallel(List<? extends CharSequence> dateStrings, String format,
+			int[] epochDays, BitSet invalid, ForkJoinPool pool) throws IncorrectInputParametersException {
+		checkParameters(dateStrings, epochDays == null ? -1 : epochDays.length);
+		return run(Conversion.EPOCH_DAY, dateStrings, format, epochDays, null, invalid, pool, true);
+	}
+
+	/**
+	 * Converts date strings to epoch milliseconds. Without a format hint the result is midnight of the date like in
+	 * RunnerDate.convertStringToDate(String).
+	 *
+	 * @param dateStrings
+	 * @param format
+	 *            pattern of the strings or null to use the supported date formats
+	 * @param epochMillis
+	 *            output, at least as long as dateStrings
+	 * @param invalid
+	 *            receives the indexes of invalid inputs, may be null
+	 * @return number of valid inputs
+	 * @throws IncorrectInputParametersException
+	 */
+	public static int convertStringsToEpochMillis(String[] dateStrings, String format, long[] epochMillis,
+			BitSet invalid) throws IncorrectInputParametersException {
+		return convertStringsToEpochMillis(asList(dateStrings), format, epochMillis, invalid);
+	}
+
+	/**
+	 * Converts date strings to epoch milliseconds. Without a format hint the result is midnight of the date like in
+	 * RunnerDate.convertStringToDate(String).
+	 *
+	 * @param dateStrings
+	 * @param format
+	 *            pattern of the strings or null to use the supported date formats
+	 * @param epochMillis
+	 *            output, at least as long as dateStrings
+	 * @param invalid
+	 *            receives the indexes of invalid inputs, may be null
+	 * @return number of valid inputs
+	 * @throws IncorrectInputParametersException
+	 */
+	public static int convertStringsToEpochMillis(List<? extends CharSequence> dateStrings, String format,
+			long[] epochMillis, BitSet invalid) throws IncorrectInputParametersException {
+		checkParameters(dateStrings, epochMillis == null ? -1 : epochMillis.length);
+		return run(Conversion.EPOCH_MILLIS, dateStrings, format, null, epochMillis, invalid, null, false);
+	}
+
+	/**
+	 * Parallel variant of {@link #convertStringsToEpochMillis(List, String, long[], BitSet)}.
+	 *
+	 * @param dateStrings
+	 * @param format
+	 *            pattern of the strings or null to use the supported date formats
+	 * @param epochMillis
+	 *            output, at least as long as dateStrings
+	 * @param invalid
+	 *            receives the indexes of invalid inputs, may be null
+	 * @param pool
+	 *            pool to run in or null to use the common pool
+	 * @return number of valid inputs
+	 * @throws IncorrectInputParametersException
+	 */
+	public static int convertStringsToEpochMillisInParallel(List<? extends CharSequence> dateStrings, String format,
+			long[] epochMillis, BitSet invalid, ForkJoinPool pool) throws IncorrectInputParametersException {
+		checkParameters(dateStrings, epochMillis == null ? -1 : epochMillis.length);
+		return run(Conversion.EPOCH_MILLIS, dateStrings, format, null, epochMillis, invalid, pool, true);
+	}
+
+	/**
+	 * Converts time stamp strings to epoch milliseconds using the rules of RunnerDate.convertTimeStampStringToDate.
+	 *
+	 * @param timeStampStrings
+	 * @param epochMillis
+	 *            output, at least as long as timeStampStrings
+	 * @param invalid
+	 *            receives the indexes of invalid inputs, may be null
+	 * @return number of valid inputs
+	 * @throws IncorrectInputParametersException
+	 */
+	public static int convertTimeStampStringsToEpochMillis(String[] timeStampStrings, long[] epochMillis,
+			BitSet invalid) throws IncorrectInputParametersException {
+		return convertTimeStampStringsToEpochMillis(asList(timeStampStrings), epochMillis, invalid);
+	}
+
+	/**
+	 * Converts time stamp strings to epoch milliseconds using the rules of RunnerDate.convertTimeStampStringToDate.
+	 *
+	 * @param timeStampStrings
+	 * @param epochMillis
+	 *            output, at least as long as timeStampStrings
+	 * @param invalid
+	 *            receives the indexes of invalid inputs, may be null
+	 * @return number of valid inputs
+	 * @throws IncorrectInputParametersException
+	 */
+	public static int convertTimeStampStringsToEpochMillis(List<? extends CharSequence> timeStampStrings,
+			long[] epochMillis, BitSet invalid) throws IncorrectInputParametersException {
+		checkParameters(timeStampStrings, epochMillis == null ? -1 : epochMillis.length);
+		return run(Conversion.TIME_STAMP_MILLIS, timeStampStrings, null, null, epochMillis, invalid, null, false);
+	}
+
+	/**
+	 * Parallel variant of {@link #convertTimeStampStringsToEpochMillis(List, long[], BitSet)}.
+	 *
+	 * @param timeStampStrings
+	 * @param epochMillis
+	 *            output, at least as long as timeStampStrings
+	 * @param invalid
+	 *            receives the indexes of invalid inputs, may be null
+	 * @param pool
+	 *            pool to run in or null to use the common pool
+	 * @return number of valid inputs
+	 * @throws IncorrectInputParametersException
+	 */
+	public static int convertTimeStampStringsToEpochMillisInParallel(List<? extends CharSequence> timeStampStrings,
+			long[] epochMillis, BitSet invalid, ForkJoinPool pool) throws IncorrectInputParametersException {
+		checkParameters(timeStampStrings, epochMillis == null ? -1 : epochMillis.length);
+		return run(Conversion.TIME_STAMP_MILLIS, timeStampStrings, null, null, epochMillis, invalid, pool, true);
+	}
+
+	private static int run(Conversion conversion, List<? extends CharSequence> inputs, String format,
+			int[] epochDays, long[] epochMillis, BitSet invalid, ForkJoinPool pool, boolean parallel) {
+		RunnerDateFormat dateFormat = getFormat(format);
+		TimeZone zone = TimeZone.getDefault();
+		if (!(inputs instanceof RandomAccess)) {
+			inputs = new ArrayList<CharSequence>(inputs);
+		}
+
+		int size = inputs.size();
+		long[] invalidWords = invalid == null ? null : new long[(size + 63) >>> 6];
+		int validCount;
+
+		if (!parallel || size < PARALLEL_THRESHOLD) {
+			validCount = convert(conversion, inputs, dateFormat, zone, epochDays, epochMillis, invalidWords, 0, size);
+		} else {
+			ForkJoinPool forkJoinPool = pool != null ? pool : ForkJoinPool.commonPool();
+			validCount = forkJoinPool.invoke(new ConversionTask(conversion, inputs, dateFormat, zone, epochDays,
+					epochMillis, invalidWords, 0, size));
+		}
+
+		if (invalid != null) {
+			invalid.clear(0, size);
+			invalid.or(BitSet.valueOf(invalidWords));
+		}
+		return validCount;
+	}
+
+	/**
+	 * Converts inputs from (inclusive) to to (exclusive) in the given time zone. At most one of epochDays and
+	 * epochMillis is used.
+	 */
+	static int convert(Conversion conversion, List<? extends CharSequence> inputs, RunnerDateFormat dateFormat,
+			TimeZone zone, int[] epochDays, long[] epochMillis, long[] invalidWords, int from, int to) {
+		int validCount = 0;
+
+		for (int i = from; i < to; i++) {
+			CharSequence input = inputs.get(i);
+			long value = input == null ? Conversion.INVALID : conversion.convert(input, dateFormat, zone);
+
+			boolean valid = value != Conversion.INVALID;
+
+			if (valid) {
+				validCount++;
+			} else if (invalidWords != null) {
+				invalidWords[i >>> 6] |= 1L << i;
+			}
+			if (epochDays != null) {
+				epochDays[i] = valid ? (int) value : INVALID_EPOCH_DAY;
+			} else if (epochMillis != null) {
+				epochMillis[i] = valid ? value : INVALID_EPOCH_MILLIS;
+			}
+		}
+
+		return validCount;
+	}
+
+	static RunnerDateFormat getFormat(String format) {
+		return format == null ? null : RunnerDateFormatRegistry.getFormat(format);
+	}
+
+	static void checkParameters(List<?> inputs, int outputLength) {
+		if (inputs == null || outputLength < 0) {
+			throw new IncorrectInputParametersException(
+					"Incorrect input parameters. Input and output parameters are mandatory.");
+		}
+		if (outputLength < inputs.size()) {
+			throw new IncorrectInputParametersException("Incorrect input parameters. Output array is too short.");
+		}
+	}
+
+	private static List<String> asList(String[] strings) {
+		return strings == null ? null : Arrays.asList(strings);
+	}
+
+	/**
+	 * Conversion of a single input. Returns INVALID if the input cannot be converted.
+	 */
+	enum Conversion {
+
+		EPOCH_DAY {
+			@Override
+			long convert(CharSequence input, RunnerDateFormat dateFormat, TimeZone zone) {
+				int scannedDate = scan(input, dateFormat);
+				if (scannedDate != RunnerDateScanner.NOT_SCANNED) {
+					return scannedDate == RunnerDateScanner.INVALID || !RunnerDateScanner.existsIn(scannedDate, zone)
+							? INVALID : RunnerDateScanner.toEpochDay(scannedDate);
+				}
+				long epochMillis = dateFormat.parseToEpochMillis(input, zone);
+				return epochMillis == RunnerDateParser.INVALID ? INVALID
+						: RunnerEpochDate.toEpochDay(epochMillis, zone);
+			}
+		},
+
+		EPOCH_MILLIS {
+			@Override
+			long convert(CharSequence input, RunnerDateFormat dateFormat, TimeZone zone) {
+				int scannedDate = scan(input, dateFormat);
+				long epochMillis;
+				if (scannedDate == RunnerDateScanner.NOT_SCANNED) {
+					epochMillis = dateFormat.parseToEpochMillis(input, zone);
+				} else {
+					epochMillis = scannedDate == RunnerDateScanner.INVALID ? RunnerDateParser.INVALID
+							: RunnerDateScanner.toEpochMillis(scannedDate, zone);
+				}
+				return epochMillis == RunnerDateParser.INVALID ? INVALID : epochMillis;
+			}
+		},
+
+		TIME_STAMP_MILLIS {
+			@Override
+			long convert(CharSequence input, RunnerDateFormat dateFormat, TimeZone zone) {
+				long epochMillis = RunnerDate.parseTimeStamp(input, zone);
+				return epochMillis == RunnerDateParser.INVALID ? INVALID : epochMillis;
+			}
+		},
+
+		VALIDATION {
+			@Override
+			long convert(CharSequence input, RunnerDateFormat dateFormat, TimeZone zone) {
+				if (dateFormat == null) {
+					int scannedDate = RunnerDateScanner.scanDate(input, 0, input.length());
+					return scannedDate == RunnerDateScanner.INVALID || !RunnerDateScanner.existsIn(scannedDate, zone)
+							? INVALID : 0;
+				}
+				return dateFormat.parseToEpochMillis(input, zone) == RunnerDateParser.INVALID ? INVALID : 0;
+			}
+		};
+
+		/* No date converts to the smallest long */
+		static final long INVALID = Long.MIN_VALUE;
+
+		abstract long convert(CharSequence input, RunnerDateFormat dateFormat, TimeZone zone);
+
+		/*
+		 * Scans the supported date formats when there is no format hint and yyyyMMdd without SimpleDateFormat. Other
+		 * formats return NOT_SCANNED.
+		 */
+		private static int scan(CharSequence input, RunnerDateFormat dateFormat) {
+			if (dateFormat == null) {
+				return RunnerDateScanner.scanDate(input, 0, input.length());
+			}
+			if (dateFormat.isCompactDate()) {
+				return RunnerDateScanner.scanCompactDate(input, 0, input.length());
+			}
+			return RunnerDateScanner.NOT_SCANNED;
+		}
+	}
+
+	/**
+	 * Splits the input in halves until chunks are small enough to convert sequentially.
+	 */
+	private static final class ConversionTask extends RecursiveTask<Integer> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final Conversion conversion;
+		private final List<? extends CharSequence> inputs;
+		private final RunnerDateFormat dateFormat;
+		private final TimeZone zone;
+		private final int[] epochDays;
+		private final long[] epochMillis;
+		private final long[] invalidWords;
+		private final int from;
+		private final int to;
+
+		private ConversionTask(Conversion conversion, List<? extends CharSequence> inputs, RunnerDateFormat dateFormat,
+				TimeZone zone, int[] epochDays, long[] epochMillis, long[] invalidWords, int from, int to) {
+			this.conversion = conversion;
+			this.inputs = inputs;
+			this.dateFormat = dateFormat;
+			this.zone = zone;
+			this.epochDays = epochDays;
+			this.epochMillis = epochMillis;
+			this.invalidWords = invalidWords;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected Integer compute() {
+			if (to - from <= PARALLEL_CHUNK_SIZE) {
+				return convert(conversion, inputs, dateFormat, zone, epochDays, epochMillis, invalidWords, from, to);
+			}
+
+			// Split on a multiple of 64 so that both halves write to their own invalid words
+			int middle = from + ((to - from) >>> 1 & ~63);
+			ConversionTask first = new ConversionTask(conversion, inputs, dateFormat, zone, epochDays, epochMillis,
+					invalidWords, from, middle);
+			ConversionTask second = new ConversionTask(conversion, inputs, dateFormat, zone, epochDays, epochMillis,
+					invalidWords, middle, to);
+			first.fork();
+			int validCount = second.compute();
+			return validCount + first.join();
+		}
+	}
+}
@@ -0,0 +1,373 @@
+package com.runner.architecture.util;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.TimeZone;
+
+/**
+ * Conversions between java.time dates, java.util.Date, epoch days and epoch milliseconds. Conversions go through
+ * epoch days and zone offsets directly, without Calendar or intermediate ZonedDateTime objects. Castor dates are
+ * converted by RunnerCastorDates.
+ *
+ * Methods without a ZoneId use the default java.util.TimeZone like Calendar in RunnerDate, so for dates after 1582
+ * they agree with the Calendar fields of the same instant. Methods with a ZoneId use the rules of java.time. LocalDate
+ * and epoch days are proleptic Gregorian. Single value conversions return null for null input, bulk conversions write
+ * the value for input i to index i of the result array.
+ *
+ * @author keshavprasad.akasam
+ *
+ */
+public final class RunnerDateBridge {
+
+	private static final long NANOSECONDS_PER_MILLISECOND = 1000000L;
+
+	private RunnerDateBridge() {
+	}
+
+	/**
+	 * Returns the date of the given instant in the default time zone.
+	 *
+	 * @param date
+	 * @return local date
+	 */
+	public static LocalDate toLocalDate(Date date) {
+		if (date == null) {
+			return null;
+		}
+		return LocalDate.ofEpochDay(RunnerEpochDate.toEpochDay(date.getTime()));
+	}
+
+	/**
+	 * Returns the date of the given instant in the given time zone.
+	 *
+	 * If zone is null an IncorrectInputParametersException is thrown.
+	 *
+	 * @param date
+	 * @param zone
+	 * @return local date
+	 * @throws IncorrectInputParametersException
+	 */
+	public static LocalDate toLocalDate(Date date, ZoneId zone) throws IncorrectInputParametersException {
+		RunnerZoneOffsets offsets = RunnerZoneOffsets.of(zone);
+		if (date == null) {
+			return null;
+		}
+		return LocalDate.ofEpochDay(offsets.toEpochDay(date.getTime()));
+	}
+
+	/**
+	 * Returns midnight of the given date in the default time zone. Gives the same result as RunnerDate.createDate for
+	 * dates after 1582 when the default calendar is Gregorian.
+	 *
+	 * @param localDate
+	 * @return date
+	 */
+	public static Date toDate(LocalDate localDate) {
+		if (localDate == null) {
+			return null;
+		}
+		return new Date(RunnerEpochDate.toEpochMillis(toEpochDay(localDate)));
+	}
+
+	/**
+	 * Returns the first instant of the given date in the given time zone. If midnight is skipped by a daylight saving
+	 * change the day starts at the end of the gap.
+	 *
+	 * If zone is null an IncorrectInputParametersException is thrown.
+	 *
+	 * @param localDate
+	 * @param zone
+	 * @return date
+	 * @throws IncorrectInputParametersException
+	 */
+	public static Date toDate(LocalDate localDate, ZoneId zone) throws IncorrectInputParametersException {
+		RunnerZoneOffsets offsets = RunnerZoneOffsets.of(zone);
+		if (localDate == null) {
+			return null;
+		}
+		return new Date(offsets.toEpochMillis(toEpochDay(localDate)));
+	}
+
+	/**
+	 * Returns the date and time of the given instant in the default time zone.
+	 *
+	 * @param date
+	 * @return local date and time
+	 */
+	public static LocalDateTime toLocalDateTime(Date date) {
+		if (date == null) {
+			return null;
+		}
+		long epochMillis = date.getTime();
+		return toLocalDateTime(epochMillis + TimeZone.getDefault().getOffset(epochMillis));
+	}
+
+	/**
+	 * Returns the date and time of the given instant in the given time zone.
+	 *
+	 * If zone is null an IncorrectInputParametersException is thrown.
+	 *
+	 * @param date
+	 * @param zone
+	 * @return local date and time
+	 * @throws IncorrectInputParametersException
+	 */
+	public static LocalDateTime toLocalDateTime(Date date, ZoneId zone) throws IncorrectInputParametersException {
+		RunnerZoneOffsets offsets = RunnerZoneOffsets.of(zone);
+		if (date == null) {
+			return null;
+		}
+		long epochMillis = date.getTime();
+		return toLocalDateTime(epochMillis + offsets.getOffset(epochMillis));
+	}
+
+	/**
+	 * Returns the instant of the given date and time in the default time zone. Times skipped or repeated by a
+	 * daylight saving change are resolved like Calendar does. Nanoseconds below a millisecond are dropped.
+	 *
+	 * @param localDateTime
+	 * @return date
+	 */
+	public static Date toDate(LocalDateTime localDateTime) {
+		if (localDateTime == null) {
+			return null;
+		}
+		int millisOfDay = (int) (localDateTime.toLocalTime().toNanoOfDay() / NANOSECONDS_PER_MILLISECOND);
+		return new Date(RunnerEpochDate.toEpochMillis(toEpochDay(localDateTime.toLocalDate()), millisOfDay,
+				TimeZone.getDefault()));
+	}
+
+	/**
+	 * Returns the instant of the given date and time in the given time zone. Times in a daylight saving gap are moved
+	 * forward by the length of the gap and times in an overlap get the earlier offset, like LocalDateTime.atZone.
+	 * Nanoseconds below a millisecond are dropped.
+	 *
+	 * If zone is null an IncorrectInputParametersException is thrown.
+	 *
+	 * @param localDateTime
+	 * @param zone
+	 * @return date
+	 * @throws IncorrectInputParametersException
+	 */
+	public static Date toDate(LocalDateTime localDateTime, ZoneId zone) throws IncorrectInputParametersException {
+		RunnerZoneOffsets offsets = RunnerZoneOffsets.of(zone);
+		if (localDateTime == null) {
+			return null;
+		}
+		return new Date(toEpochMillis(localDateTime, offsets));
+	}
+
+	/**
+	 * Returns the epoch day of the given instant in the given time zone.
+	 *
+	 * If instant or zone is null an IncorrectInputParametersException is thrown.
+	 *
+	 * @param instant
+	 * @param zone
+	 * @return epoch day
+	 * @throws IncorrectInputParametersException
+	 */
+	public static int toEpochDay(Instant instant, ZoneId zone) throws IncorrectInputParametersException {
+		if (instant == null) {
+			throw new IncorrectInputParametersException("Incorrect input parameters. Parameter instant is mandatory.");
+		}
+		return RunnerZoneOffsets.of(zone).toEpochDay(instant.toEpochMilli());
+	}
+
+	/**
+	 * Returns the first instant of the given epoch day in the given time zone.
+	 *
+	 * If zone is null an IncorrectInputParametersException is thrown.
+	 *
+	 * @param epochDay
+	 * @param zone
+	 * @return instant
+	 * @throws IncorrectInputParametersException
+	 */
+	public static Instant toInstant(int epochDay, ZoneId zone) throws IncorrectInputParametersException {
+		return Instant.ofEpochMilli(RunnerZoneOffsets.of(zone).toEpochMillis(epochDay));
+	}
+
+	/**
+	 * Converts epoch days to local dates.
+	 *
+	 * @param epochDays
+	 * @param result
+	 * @throws IncorrectInputParametersException
+	 */
+	public static void toLocalDates(int[] epochDays, LocalDate[] result) throws IncorrectInputParametersException {
+		if (epochDays == null || result == null) {
+			throw new IncorrectInputParametersException(
+					"Incorrect input parameters. Input and output parameters are mandatory.");
+		}
+		checkLength(epochDays.length, result.length);
+		for (int i = 0; i < epochDays.length; i++) {
+			result[i] = LocalDate.ofEpochDay(epochDays[i]);
+		}
+	}
+
+	/**
+	 * Converts local dates to epoch days.
+	 *
+	 * If a local date is null an IncorrectInputParametersException is thrown.
+	 *
+	 * @param localDates
+	 * @param result
+	 * @throws IncorrectInputParametersException
+	 */
+	public static void toEpochDays(LocalDate[] localDates, int[] result) throws IncorrectInputParametersException {
+		if (localDates == null || result == null) {
+			throw new IncorrectInputParametersException(
+					"Incorrect input parameters. Input and output parameters are mandatory.");
+		}
+		checkLength(localDates.length, result.length);
+		for (int i = 0; i < localDates.length; i++) {
+			if (localDates[i] == null) {
+				throw new IncorrectInputParametersException("Incorrect input parameters. Local date " + i
+						+ " was null.");
+			}
+			result[i] = toEpochDay(localDates[i]);
+		}
+	}
+
+	/**
+	 * Converts instants given as epoch milliseconds to local dates of the given time zone.
+	 *
+	 * @param epochMillis
+	 * @param zone
+	 * @param result
+	 * @throws IncorrectInputParametersException
+	 */
+	public static void toLocalDates(long[] epochMillis, ZoneId zone, LocalDate[] result)
+			throws IncorrectInputParametersException {
+		RunnerZoneOffsets offsets = RunnerZoneOffsets.of(zone);
+		if (epochMillis == null || result == null) {
+			throw new IncorrectInputParametersException(
+					"Incorrect input parameters. Input and output parameters are mandatory.");
+		}
+		checkLength(epochMillis.length, result.length);
+		for (int i = 0; i < epochMillis.length; i++) {
+			result[i] = LocalDate.ofEpochDay(offsets.toEpochDay(epochMillis[i]));
+		}
+	}
+
+	/**
+	 * Converts local dates to the epoch milliseconds of their first instant in the given time zone.
+	 *
+	 * If a local date is null an IncorrectInputParametersException is thrown.
+	 *
+	 * @param localDates
+	 * @param zone
+	 * @param result
+	 * @throws IncorrectInputParametersException
+	 */
+	public static void toEpochMillis(LocalDate[] localDates, ZoneId zone, long[] result)
+			throws IncorrectInputParametersException {
+		RunnerZoneOffsets offsets = RunnerZoneOffsets.of(zone);
+		if (localDates == null || result == null) {
+			throw new IncorrectInputParametersException(
+					"Incorrect input parameters. Input and output parameters are mandatory.");
+		}
+		checkLength(localDates.length, result.length);
+		for (int i = 0; i < localDates.length; i++) {
+			if (localDates[i] == null) {
+				throw new IncorrectInputParametersException("Incorrect input parameters. Local date " + i
+						+ " was null.");
+			}
+			result[i] = offsets.toEpochMillis(toEpochDay(localDates[i]));
+		}
+	}
+
+	/**
+	 * Converts dates to local dates of the default time zone. Null dates give null local dates.
+	 *
+	 * @param dates
+	 * @param result
+	 * @throws IncorrectInputParametersException
+	 */
+	public static void toLocalDates(Date[] dates, LocalDate[] result) throws IncorrectInputParametersException {
+		if (dates == null || result == null) {
+			throw new IncorrectInputParametersException(
+					"Incorrect input parameters. Input and output parameters are mandatory.");
+		}
+		checkLength(dates.length, result.length);
+		for (int i = 0; i < dates.length; i++) {
+			result[i] = toLocalDate(dates[i]);
+		}
+	}
+
+	/**
+	 * Converts local dates to midnight of the default time zone. Null local dates give null dates.
+	 *
+	 * @param localDates
+	 * @param result
+	 * @throws IncorrectInputParametersException
+	 */
+	public static void toDates(LocalDate[] localDates, Date[] result) throws IncorrectInputParametersException {
+		if (localDates == null || result == null) {
+			throw new IncorrectInputParametersException(
+					"Incorrect input parameters. Input and output parameters are mandatory.");
+		}
+		checkLength(localDates.length, result.length);
+		for (int i = 0; i < localDates.length; i++) {
+			result[i] = toDate(localDates[i]);
+		}
+	}
+
+	/**
+	 * Returns the local date of a date scanned by RunnerDateScanner, the same as converting the Date of the scanned
+	 * date with toLocalDate.
+	 *
+	 * @param scannedDate
+	 * @return local date
+	 */
+	static LocalDate toLocalDate(int scannedDate) {
+		int year = RunnerDateScanner.year(scannedDate);
+		int month = RunnerDateScanner.month(scannedDate);
+		int day = RunnerDateScanner.day(scannedDate);
+
+		if (RunnerEpochDate.isCalendarCompatible(RunnerEpochDate.of(year, month, day))) {
+			return LocalDate.of(year, month, day);
+		}
+		// Julian or non Gregorian default calendar, the fields differ from the proleptic date
+		TimeZone zone = TimeZone.getDefault();
+		long epochMillis = RunnerDateScanner.toEpochMillis(scannedDate, zone);
+		return LocalDate.ofEpochDay(RunnerEpochDate.toEpochDay(epochMillis, zone));
+	}
+
+	private static int toEpochDay(LocalDate localDate) {
+		return (int) localDate.toEpochDay();
+	}
+
+	private static LocalDateTime toLocalDateTime(long localMillis) {
+		int epochDay = (int) Math.floorDiv(localMillis, RunnerEpochDate.MILLISECONDS_PER_DAY);
+		long millisOfDay = Math.floorMod(localMillis, RunnerEpochDate.MILLISECONDS_PER_DAY);
+		int fields = RunnerEpochDate.toFields(epochDay);
+		int secondOfDay = (int) (millisOfDay / 1000);
+
+		return LocalDateTime.of(RunnerEpochDate.yearOf(fields), RunnerEpochDate.monthOf(fields),
+				RunnerEpochDate.dayOf(fields), secondOfDay / 3600, secondOfDay / 60 % 60, secondOfDay % 60,
+				(int) (millisOfDay % 1000 * NANOSECONDS_PER_MILLISECOND));
+	}
+
+	private static long toEpochMillis(LocalDateTime localDateTime, RunnerZoneOffsets offsets) {
+		long localMillis = localDateTime.toLocalDate().toEpochDay() * RunnerEpochDate.MILLISECONDS_PER_DAY
+				+ localDateTime.toLocalTime().toNanoOfDay() / NANOSECONDS_PER_MILLISECOND;
+		long epochMillis = offsets.toEpochMillisIfUnambiguous(localMillis);
+		if (epochMillis != Long.MIN_VALUE) {
+			return epochMillis;
+		}
+
+		// Offset changes near the given time, let java.time resolve gaps and overlaps
+		return localDateTime.atZone(offsets.getZone()).toInstant().toEpochMilli();
+	}
+
+	static void checkLength(int inputLength, int resultLength) throws IncorrectInputParametersException {
+		if (resultLength < inputLength) {
+			throw new IncorrectInputParametersException("Incorrect input parameters. Output array is too short.");
+		}
+	}
+}
@@ -0,0 +1,236 @@
+package com.runner.architecture.util;
+
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded cache of parsed dates for data where the same date strings repeat often. Each distinct string is parsed
+ * once and the result is shared: the returned dates are immutable, calling a setter on them throws
+ * UnsupportedOperationException. Strings that are not valid dates are cached as well.
+ *
+ * A cache is bound to one format given at creation. Without a format strings are parsed like
+ * RunnerDate.convertStringToDate(String), otherwise like RunnerDate.convertStringToDate(String, String) except that
+ * invalid strings give null instead of a ParseException.
+ *
+ * The default time zone is read when the cache is created and all strings are parsed in it, so cached dates never
+ * mix zones. Create a new cache after changing the default time zone.
+ *
+ * The least recently used strings are evicted first. The cache is split into independently locked segments so it can
+ * be used by many threads at once; eviction is done per segment.
+ *
+ * @author keshavprasad.akasam
+ *
+ */
+public final class RunnerDateCache {
+
+	/* Caches at least this big are split into segments */
+	private static final int MIN_SIZE_FOR_SEGMENTS = 256;
+	private static final int SEGMENT_COUNT = 16;
+
+	/* Cached value of strings that are not valid dates */
+	private static final Date INVALID = new RunnerImmutableDate(Long.MIN_VALUE);
+
+	private final String format;
+	private final RunnerDateFormat dateFormat;
+	private final TimeZone zone;
+	private final int maximumSize;
+	private final Segment[] segments;
+	private final LongAdder hitCount = new LongAdder();
+	private final LongAdder missCount = new LongAdder();
+
+	/**
+	 * Creates cache for the supported date formats of RunnerDate.convertStringToDate(String).
+	 *
+	 * @param maximumSize
+	 *            maximum number of cached strings
+	 * @throws IncorrectInputParametersException
+	 */
+	public RunnerDateCache(int maximumSize) throws IncorrectInputParametersException {
+		this(null, maximumSize);
+	}
+
+	/**
+	 * Creates cache for the given format.
+	 *
+	 * @param format
+	 *            pattern of the strings or null to use the supported date formats
+	 * @param maximumSize
+	 *            maximum number of cached strings
+	 * @throws IncorrectInputParametersException
+	 */
+	public RunnerDateCache(String format, int maximumSize) throws IncorrectInputParametersException {
+		if (maximumSize <= 0) {
+			throw new IncorrectInputParametersException(
+					"Incorrect input parameters. Parameter maximumSize must be positive.");
+		}
+
+		this.format = format;
+		this.dateFormat = RunnerDateBatch.getFormat(format);
+		this.zone = TimeZone.getDefault();
+		this.maximumSize = maximumSize;
+
+		int segmentCount = maximumSize < MIN_SIZE_FOR_SEGMENTS ? 1 : SEGMENT_COUNT;
+		this.segments = new Segment[segmentCount];
+		for (int i = 0; i < segmentCount; i++) {
+			// Spread the maximum size exactly over the segments
+			segments[i] = new Segment(maximumSize / segmentCount + (i < maximumSize % segmentCount ? 1 : 0));
+		}
+	}
+
+	/**
+	 * Returns the date of the given string, parsing it only if it is not cached.
+	 *
+	 * If dateString is null an IncorrectInputParametersException is thrown.
+	 *
+	 * @param dateString
+	 * @return immutable date or null if dateString is not valid
+	 * @throws IncorrectInputParametersException
+	 */
+	public Date convertStringToDate(String dateString) throws IncorrectInputParametersException {
+		if (dateString == null) {
+			throw new IncorrectInputParametersException(
+					"Incorrect input parameters. Parameter dateString is mandatory.");
+		}
+
+		Segment segment = segmentFor(dateString);
+		Date date;
+		synchronized (segment) {
+			date = segment.get(dateString);
+		}
+
+		if (date != null) {
+			hitCount.increment();
+		} else {
+			missCount.increment();
+			// Parse outside the lock, a concurrent miss on the same string only parses it twice
+			date = parse(dateString);
+			synchronized (segment) {
+				segment.put(dateString, date);
+			}
+		}
+
+		return date == INVALID ? null : date;
+	}
+
+	/**
+	 * Checks that the given string is a valid date, parsing it only if it is not cached.
+	 *
+	 * If dateString is null an IncorrectInputParametersException is thrown.
+	 *
+	 * @param dateString
+	 * @return true if valid, false if not valid
+	 * @throws IncorrectInputParametersException
+	 */
+	public boolean isDateValid(String dateString) throws IncorrectInputParametersException {
+		return convertStringToDate(dateString) != null;
+	}
+
+	/**
+	 * Returns the format of this cache.
+	 *
+	 * @return pattern or null for the supported date formats
+	 */
+	public String getFormat() {
+		return format;
+	}
+
+	/**
+	 * Returns the time zone the strings are parsed in, the default time zone when the cache was created.
+	 *
+	 * @return copy of the time zone
+	 */
+	public TimeZone getTimeZone() {
+		return (TimeZone) zone.clone();
+	}
+
+	/**
+	 * Returns the maximum number of cached strings.
+	 *
+	 * @return maximum size
+	 */
+	public int getMaximumSize() {
+		return maximumSize;
+	}
+
+	/**
+	 * Returns the number of cached strings.
+	 *
+	 * @return size
+	 */
+	public int size() {
+		int size = 0;
+		for (Segment segment : segments) {
+			synchronized (segment) {
+				size += segment.size();
+			}
+		}
+		return size;
+	}
+
+	/**
+	 * Returns the number of calls that found the string in the cache.
+	 *
+	 * @return hit count
+	 */
+	public long getHitCount() {
+		return hitCount.sum();
+	}
+
+	/**
+	 * Returns the number of calls that had to parse the string.
+	 *
+	 * @return miss count
+	 */
+	public long getMissCount() {
+		return missCount.sum();
+	}
+
+	/**
+	 * Removes all cached strings and resets the counters.
+	 */
+	public void clear() {
+		for (Segment segment : segments) {
+			synchronized (segment) {
+				segment.clear();
+			}
+		}
+		hitCount.reset();
+		missCount.reset();
+	}
+
+	private Date parse(String dateString) {
+		long epochMillis = RunnerDateBatch.Conversion.EPOCH_MILLIS.convert(dateString, dateFormat, zone);
+		return epochMillis == RunnerDateBatch.Conversion.INVALID ? INVALID : new RunnerImmutableDate(epochMillis);
+	}
+
+	private Segment segmentFor(String dateString) {
+		if (segments.length == 1) {
+			return segments[0];
+		}
+		int hash = dateString.hashCode();
+		return segments[(hash ^ (hash >>> 16)) & (segments.length - 1)];
+	}
+
+	/**
+	 * Access ordered map that drops its least recently used entry when full. Guarded by its own monitor.
+	 */
+	private static final class Segment extends LinkedHashMap<String, Date> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final int maximumSize;
+
+		private Segment(int maximumSize) {
+			super(16, 0.75f, true);
+			this.maximumSize = maximumSize;
+		}
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, Date> eldest) {
+			return size() > maximumSize;
+		}
+	}
+}
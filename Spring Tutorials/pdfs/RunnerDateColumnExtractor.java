@@ -0,0 +1,325 @@
+package com.runner.architecture.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.TimeZone;
+
+/**
+ * Extracts one date column from a delimited or fixed width text file. The file is memory mapped and the dates are
+ * parsed straight from the mapped bytes into epoch days, no String is created per line.
+ *
+ * Lines end with \n or \r\n. The column is located either by its index between single byte delimiters (quoting is
+ * not supported) or by byte offset and length in the line. Spaces around the field are ignored. Without a format the
+ * field is parsed like RunnerDate.convertStringToDate(String), format yyyyMMdd is parsed like
+ * RunnerDate.getDateFromVRKDateString and other formats like RunnerDate.convertStringToDate(String, String).
+ *
+ * The file is mapped in windows of WINDOW_SIZE bytes, one at a time. A window is unmapped as soon as its lines are
+ * handled where the JDK allows it (sun.misc.Unsafe.invokeCleaner from Java 9, the buffer cleaner on Java 8), so at
+ * most one window per running extraction is mapped. Otherwise windows are unmapped by the garbage collector.
+ *
+ * Instances are immutable and can be used by several threads at once. Extraction itself runs in the calling thread:
+ * {@link #splitAtLines(File, int)} only computes byte ranges that start at line starts and does not start any
+ * threads. To process a file in parallel, callers run {@link #extract(File, long, long, DateHandler)} for each range
+ * on their own threads, for example with an ExecutorService, and use a handler per range or a thread safe one.
+ *
+ * @author keshavprasad.akasam
+ *
+ */
+public final class RunnerDateColumnExtractor {
+
+	/**
+	 * Receives the date of each line.
+	 */
+	public interface DateHandler {
+
+		/**
+		 * Called once per line in file order.
+		 *
+		 * @param lineOffset
+		 *            byte offset of the line start in the file
+		 * @param epochDay
+		 *            date of the line, 0 if not valid
+		 * @param valid
+		 *            false if the field is missing or not a valid date
+		 */
+		void handle(long lineOffset, int epochDay, boolean valid);
+	}
+
+	/* Part of the file mapped at once, smaller only at the end of the file */
+	private static final int WINDOW_SIZE = 256 * 1024 * 1024;
+
+	/* Buffer size used when searching line boundaries */
+	private static final int SPLIT_BUFFER_SIZE = 8192;
+
+	private final byte delimiter;
+	private final int column;
+	private final int fieldOffset;
+	private final int fieldLength;
+	private final RunnerDateFormat dateFormat;
+
+	private RunnerDateColumnExtractor(byte delimiter, int column, int fieldOffset, int fieldLength, String format) {
+		this.delimiter = delimiter;
+		this.column = column;
+		this.fieldOffset = fieldOffset;
+		this.fieldLength = fieldLength;
+		this.dateFormat = RunnerDateBatch.getFormat(format);
+	}
+
+	/**
+	 * Creates extractor for a delimited file.
+	 *
+	 * @param delimiter
+	 *            ASCII delimiter character
+	 * @param column
+	 *            zero based column index
+	 * @param format
+	 *            pattern of the dates or null to use the supported date formats
+	 * @return extractor
+	 * @throws IncorrectInputParametersException
+	 */
+	public static RunnerDateColumnExtractor forDelimitedColumn(char delimiter, int column, String format)
+			throws IncorrectInputParametersException {
+		if (delimiter > 127 || delimiter == '\n' || column < 0) {
+			throw new IncorrectInputParametersException(
+					"Incorrect input parameters. Delimiter must be ASCII and column not negative.");
+		}
+		return new RunnerDateColumnExtractor((byte) delimiter, column, -1, -1, format);
+	}
+
+	/**
+	 * Creates extractor for a fixed width file.
+	 *
+	 * @param offset
+	 *            byte offset of the field in the line
+	 * @param length
+	 *            length of the field in bytes
+	 * @param format
+	 *            pattern of the dates or null to use the supported date formats
+	 * @return extractor
+	 * @throws IncorrectInputParametersException
+	 */
+	public static RunnerDateColumnExtractor forFixedWidthColumn(int offset, int length, String format)
+			throws IncorrectInputParametersException {
+		if (offset < 0 || length <= 0) {
+			throw new IncorrectInputParametersException(
+					"Incorrect input parameters. Offset must not be negative and length must be positive.");
+		}
+		return new RunnerDateColumnExtractor((byte) 0, -1, offset, length, format);
+	}
+
+	/**
+	 * Extracts the column from every line of the file.
+	 *
+	 * @param file
+	 * @param handler
+	 * @return number of lines
+	 * @throws IOException
+	 */
+	public long extract(File file, DateHandler handler) throws IOException {
+		return extract(file, 0, Long.MAX_VALUE, handler);
+	}
+
+	/**
+	 * Extracts the column from the lines starting in the given byte range. The handler is called in the calling
+	 * thread.
+	 *
+	 * @param file
+	 * @param from
+	 *            start of the range, 0 or a boundary returned by splitAtLines
+	 * @param to
+	 *            end of the range (exclusive)
+	 * @param handler
+	 * @return number of lines
+	 * @throws IOException
+	 */
+	public long extract(File file, long from, long to, DateHandler handler) throws IOException {
+		if (file == null || handler == null || from < 0) {
+			throw new IncorrectInputParametersException(
+					"Incorrect input parameters. Parameters file and handler are mandatory.");
+		}
+
+		RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+		try {
+			FileChannel channel = randomAccessFile.getChannel();
+			long fileSize = channel.size();
+			long end = Math.min(to, fileSize);
+			RunnerAsciiSequence field = new RunnerAsciiSequence();
+			TimeZone zone = TimeZone.getDefault();
+			long lineCount = 0;
+			long windowStart = from;
+
+			while (windowStart < end) {
+				// The window may reach past the range end to complete the last line of the range
+				int windowSize = (int) Math.min(WINDOW_SIZE, fileSize - windowStart);
+				boolean lastWindow = windowStart + windowSize == fileSize;
+				MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, windowStart, windowSize);
+
+				int lineStart = 0;
+				try {
+					while (lineStart < windowSize && windowStart + lineStart < end) {
+						int lineEnd = indexOf(buffer, (byte) '\n', lineStart, windowSize);
+						if (lineEnd < 0) {
+							if (!lastWindow) {
+								// Incomplete line, continue from its start in the next window
+								break;
+							}
+							lineEnd = windowSize;
+						}
+						handleLine(buffer, lineStart, lineEnd, windowStart + lineStart, field, zone, handler);
+						lineCount++;
+						lineStart = lineEnd + 1;
+					}
+				} finally {
+					// The window never escapes this method, the field only reads it while the line is handled
+					unmap(buffer);
+				}
+
+				if (lineStart == 0) {
+					throw new IOException("Line at offset " + windowStart + " is longer than " + WINDOW_SIZE
+							+ " bytes.");
+				}
+				windowStart += lineStart;
+			}
+
+			return lineCount;
+		} finally {
+			randomAccessFile.close();
+		}
+	}
+
+	/**
+	 * Splits the file into byte ranges that start at line starts, for extracting the ranges in parallel. Range i is
+	 * from boundaries[i] (inclusive) to boundaries[i + 1] (exclusive). Ranges can be empty if lines are long.
+	 *
+	 * @param file
+	 * @param rangeCount
+	 * @return rangeCount + 1 boundaries
+	 * @throws IOException
+	 */
+	public static long[] splitAtLines(File file, int rangeCount) throws IOException {
+		if (file == null || rangeCount <= 0) {
+			throw new IncorrectInputParametersException(
+					"Incorrect input parameters. Parameter file is mandatory and rangeCount must be positive.");
+		}
+
+		RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+		try {
+			FileChannel channel = randomAccessFile.getChannel();
+			long fileSize = channel.size();
+			long[] boundaries = new long[rangeCount + 1];
+			ByteBuffer buffer = ByteBuffer.allocate(SPLIT_BUFFER_SIZE);
+
+			for (int i = 1; i < rangeCount; i++) {
+				// Next line starts after the first line end at or after the estimated boundary
+				long position = Math.max(fileSize / rangeCount * i - 1, boundaries[i - 1]);
+				boundaries[i] = fileSize;
+
+				while (position < fileSize) {
+					buffer.clear();
+					int read = channel.read(buffer, position);
+					if (read <= 0) {
+						break;
+					}
+					int lineEnd = indexOf(buffer, (byte) '\n', 0, read);
+					if (lineEnd >= 0) {
+						boundaries[i] = position + lineEnd + 1;
+						break;
+					}
+					position += read;
+				}
+			}
+			boundaries[rangeCount] = fileSize;
+
+			return boundaries;
+		} finally {
+			randomAccessFile.close();
+		}
+	}
+
+	private void handleLine(ByteBuffer buffer, int lineStart, int lineEnd, long lineOffset, RunnerAsciiSequence field,
+			TimeZone zone, DateHandler handler) {
+		if (lineEnd > lineStart && buffer.get(lineEnd - 1) == '\r') {
+			lineEnd--;
+		}
+
+		int start;
+		int end;
+		if (column >= 0) {
+			start = lineStart;
+			for (int i = 0; i < column && start >= 0; i++) {
+				start = indexOf(buffer, delimiter, start, lineEnd);
+				if (start >= 0) {
+					start++;
+				}
+			}
+			if (start < 0) {
+				handler.handle(lineOffset, 0, false);
+				return;
+			}
+			end = indexOf(buffer, delimiter, start, lineEnd);
+			if (end < 0) {
+				end = lineEnd;
+			}
+		} else {
+			start = Math.min(lineStart + fieldOffset, lineEnd);
+			end = Math.min(start + fieldLength, lineEnd);
+		}
+
+		while (start < end && buffer.get(start) == ' ') {
+			start++;
+		}
+		while (end > start && buffer.get(end - 1) == ' ') {
+			end--;
+		}
+
+		long epochDay = RunnerDateBatch.Conversion.EPOCH_DAY.convert(field.set(buffer, start, end - start),
+				dateFormat, zone);
+		if (epochDay == RunnerDateBatch.Conversion.INVALID) {
+			handler.handle(lineOffset, 0, false);
+		} else {
+			handler.handle(lineOffset, (int) epochDay, true);
+		}
+	}
+
+	/**
+	 * Unmaps the buffer right away if the JDK allows it. Does nothing otherwise, the garbage collector then unmaps it
+	 * when the buffer is collected. The buffer must not be used afterwards.
+	 */
+	private static void unmap(MappedByteBuffer buffer) {
+		try {
+			try {
+				// Java 9 and later
+				Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+				Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+				Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+				theUnsafe.setAccessible(true);
+				invokeCleaner.invoke(theUnsafe.get(null), buffer);
+			} catch (NoSuchMethodException nsme) {
+				// Java 8
+				Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+				cleanerMethod.setAccessible(true);
+				Object cleaner = cleanerMethod.invoke(buffer);
+				if (cleaner != null) {
+					cleaner.getClass().getMethod("clean").invoke(cleaner);
+				}
+			}
+		} catch (Exception e) {
+			// Not accessible in this JDK, left to the garbage collector
+		}
+	}
+
+	private static int indexOf(ByteBuffer buffer, byte value, int from, int to) {
+		for (int i = from; i < to; i++) {
+			if (buffer.get(i) == value) {
+				return i;
+			}
+		}
+		return -1;
+	}
+}
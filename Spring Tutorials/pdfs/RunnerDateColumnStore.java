@@ -0,0 +1,468 @@
+package com.runner.architecture.util;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Date;
+import java.util.TimeZone;
+
+/**
+ * Column of dates stored off-heap as epoch days, four bytes per date instead of a Date object per date. Built for
+ * large snapshots of dates such as contract start and end dates that are filtered again and again with
+ * RunnerDate.isDateBetweenOrEqualToTwoDates or RunnerDate.compareDates.
+ *
+ * The dates are kept in a direct ByteBuffer ({@link #allocate(int)}) or in a memory mapped file ({@link #open(File)}),
+ * which survives restarts: opening the file again gives back the same column without parsing or creating any dates.
+ * Dates are numbered in the order they were added, starting from 0.
+ *
+ * For every block of BLOCK_SIZE dates the smallest and largest day is kept on the heap. Filters skip blocks whose
+ * days are all outside the range and take blocks whose days are all inside it without reading their dates, so
+ * filtering a column sorted or clustered by date reads only the blocks at the range ends.
+ *
+ * Filters compare days like RunnerDate.compareDates: the day of a date is its day in the default time zone and a null
+ * date is later than every date. So {@link #filterBetweenOrEqual(Date, Date, BitSet)} selects the same dates as
+ * isDateBetweenOrEqualToTwoDates, including its handling of nulls.
+ *
+ * Instances are not thread safe. Several threads may filter at once as long as no thread adds or sets dates.
+ *
+ * @author keshavprasad.akasam
+ *
+ */
+public final class RunnerDateColumnStore implements Closeable {
+
+	/* Number of dates sharing one minimum and maximum */
+	public static final int BLOCK_SIZE = 1024;
+
+	/* Stored for null dates, later than every date as in RunnerDate.compareDates */
+	public static final int NULL_EPOCH_DAY = Integer.MAX_VALUE;
+
+	/* File header: magic, version, number of dates, reserved */
+	private static final int MAGIC = 0x52444353;
+	private static final int VERSION = 1;
+	private static final int SIZE_OFFSET = 8;
+	private static final int HEADER_SIZE = 16;
+
+	private static final int DEFAULT_CAPACITY = 64 * BLOCK_SIZE;
+	private static final int MAX_CAPACITY = (Integer.MAX_VALUE - HEADER_SIZE) / 4;
+
+	private final FileChannel channel;
+	private ByteBuffer buffer;
+	private int capacity;
+	private int size;
+
+	/* Smallest and largest epoch day of each block */
+	private int[] blockMins;
+	private int[] blockMaxes;
+
+	private RunnerDateColumnStore(FileChannel channel, ByteBuffer buffer, int size) {
+		this.channel = channel;
+		this.buffer = buffer.order(ByteOrder.nativeOrder());
+		this.capacity = (buffer.capacity() - HEADER_SIZE) / 4;
+		this.size = size;
+		this.blockMins = new int[blockCount(capacity)];
+		this.blockMaxes = new int[blockMins.length];
+
+		for (int block = 0; block < blockCount(size); block++) {
+			computeBlock(block);
+		}
+	}
+
+	/**
+	 * Creates empty column in a direct buffer, which grows as needed.
+	 *
+	 * @param initialCapacity
+	 *            number of dates that fit without growing
+	 * @return column
+	 * @throws IncorrectInputParametersException
+	 */
+	public static RunnerDateColumnStore allocate(int initialCapacity) throws IncorrectInputParametersException {
+		checkCapacity(initialCapacity);
+		ByteBuffer buffer = ByteBuffer.allocateDirect(HEADER_SIZE + initialCapacity * 4);
+		writeHeader(buffer.order(ByteOrder.nativeOrder()));
+		return new RunnerDateColumnStore(null, buffer, 0);
+	}
+
+	/**
+	 * Opens column stored in the given file, creating the file if it does not exist or is empty. The file is memory
+	 * mapped and grows as dates are added. It uses the byte order of the platform and can only be opened on platforms
+	 * with the same byte order.
+	 *
+	 * If file is null an IncorrectInputParametersException is thrown. If the file is not a column written by this
+	 * class an IOException is thrown.
+	 *
+	 * @param file
+	 * @return column
+	 * @throws IOException
+	 * @throws IncorrectInputParametersException
+	 */
+	public static RunnerDateColumnStore open(File file) throws IOException, IncorrectInputParametersException {
+		return open(file, DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Same as {@link #open(File)} with the number of dates that fit in a new file without growing.
+	 *
+	 * @param file
+	 * @param initialCapacity
+	 * @return column
+	 * @throws IOException
+	 * @throws IncorrectInputParametersException
+	 */
+	public static RunnerDateColumnStore open(File file, int initialCapacity) throws IOException,
+			IncorrectInputParametersException {
+		if (file == null) {
+			throw new IncorrectInputParametersException("Incorrect input parameters. Parameter file is mandatory.");
+		}
+		checkCapacity(initialCapacity);
+
+		RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+		boolean opened = false;
+		try {
+			FileChannel channel = randomAccessFile.getChannel();
+			long fileSize = channel.size();
+			if ((fileSize > 0 && fileSize < HEADER_SIZE) || fileSize > HEADER_SIZE + (long) MAX_CAPACITY * 4) {
+				throw new IOException("File " + file + " is not a date column of this platform.");
+			}
+
+			// An existing file is mapped as it is, so that a file of another kind is not extended
+			long mapSize = fileSize > 0 ? fileSize : HEADER_SIZE + (long) initialCapacity * 4;
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, mapSize);
+			buffer.order(ByteOrder.nativeOrder());
+			int size = 0;
+			if (fileSize == 0) {
+				writeHeader(buffer);
+			} else {
+				size = buffer.getInt(SIZE_OFFSET);
+				if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION || size < 0
+						|| HEADER_SIZE + (long) size * 4 > fileSize) {
+					throw new IOException("File " + file + " is not a date column of this platform.");
+				}
+			}
+
+			RunnerDateColumnStore column = new RunnerDateColumnStore(channel, buffer, size);
+			opened = true;
+			return column;
+		} finally {
+			if (!opened) {
+				randomAccessFile.close();
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of dates.
+	 *
+	 * @return size
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Checks whether the column is stored in a file.
+	 *
+	 * @return true if opened from a file
+	 */
+	public boolean isFileBacked() {
+		return channel != null;
+	}
+
+	/**
+	 * Adds the day of the given date in the default time zone, or a null date.
+	 *
+	 * @param date
+	 * @return index of the date
+	 * @throws IncorrectInputParametersException
+	 */
+	public int add(Date date) throws IncorrectInputParametersException {
+		return add(epochDayOf(date, TimeZone.getDefault()));
+	}
+
+	/**
+	 * Adds the given epoch day. NULL_EPOCH_DAY adds a null date.
+	 *
+	 * If the column is full and cannot grow an IncorrectInputParametersException is thrown.
+	 *
+	 * @param epochDay
+	 * @return index of the date
+	 * @throws IncorrectInputParametersException
+	 */
+	public int add(int epochDay) throws IncorrectInputParametersException {
+		if (size == capacity) {
+			grow();
+		}
+
+		int index = size++;
+		buffer.putInt(HEADER_SIZE + index * 4, epochDay);
+		buffer.putInt(SIZE_OFFSET, size);
+
+		int block = index / BLOCK_SIZE;
+		if (index % BLOCK_SIZE == 0) {
+			blockMins[block] = epochDay;
+			blockMaxes[block] = epochDay;
+		} else if (epochDay < blockMins[block]) {
+			blockMins[block] = epochDay;
+		} else if (epochDay > blockMaxes[block]) {
+			blockMaxes[block] = epochDay;
+		}
+		return index;
+	}
+
+	/**
+	 * Replaces the date at the given index by the day of the given date, or a null date.
+	 *
+	 * @param index
+	 * @param date
+	 * @throws IncorrectInputParametersException
+	 */
+	public void set(int index, Date date) throws IncorrectInputParametersException {
+		set(index, epochDayOf(date, TimeZone.getDefault()));
+	}
+
+	/**
+	 * Replaces the date at the given index by the given epoch day. NULL_EPOCH_DAY sets a null date.
+	 *
+	 * @param index
+	 * @param epochDay
+	 * @throws IncorrectInputParametersException
+	 */
+	public void set(int index, int epochDay) throws IncorrectInputParametersException {
+		checkIndex(index);
+		buffer.putInt(HEADER_SIZE + index * 4, epochDay);
+		computeBlock(index / BLOCK_SIZE);
+	}
+
+	/**
+	 * Returns the epoch day at the given index, NULL_EPOCH_DAY for a null date.
+	 *
+	 * @param index
+	 * @return epoch day
+	 * @throws IncorrectInputParametersException
+	 */
+	public int getEpochDay(int index) throws IncorrectInputParametersException {
+		checkIndex(index);
+		return buffer.getInt(HEADER_SIZE + index * 4);
+	}
+
+	/**
+	 * Returns the date at the given index as a new date at midnight in the default time zone.
+	 *
+	 * @param index
+	 * @return date or null
+	 * @throws IncorrectInputParametersException
+	 */
+	public Date get(int index) throws IncorrectInputParametersException {
+		int epochDay = getEpochDay(index);
+		return epochDay == NULL_EPOCH_DAY ? null : new Date(RunnerEpochDate.toEpochMillis(epochDay));
+	}
+
+	/**
+	 * Selects the dates for which RunnerDate.isDateBetweenOrEqualToTwoDates(earlierDate, laterDate, date) is true.
+	 *
+	 * @param earlierDate
+	 * @param laterDate
+	 * @param matches
+	 *            receives the indexes of the selected dates, may be null to only count them
+	 * @return number of selected dates
+	 */
+	public int filterBetweenOrEqual(Date earlierDate, Date laterDate, BitSet matches) {
+		TimeZone zone = TimeZone.getDefault();
+		return filter(epochDayOf(earlierDate, zone), epochDayOf(laterDate, zone), matches);
+	}
+
+	/**
+	 * Selects the dates from the first to the last epoch day, both included.
+	 *
+	 * @param firstEpochDay
+	 * @param lastEpochDay
+	 * @param matches
+	 *            receives the indexes of the selected dates, may be null to only count them
+	 * @return number of selected dates
+	 */
+	public int filterBetweenOrEqual(int firstEpochDay, int lastEpochDay, BitSet matches) {
+		return filter(firstEpochDay, lastEpochDay, matches);
+	}
+
+	/**
+	 * Selects the dates on days strictly between the days of the given dates, that is the dates for which
+	 * RunnerDate.compareDates(date, earlierDate) is 1 and RunnerDate.compareDates(date, laterDate) is -1. Unlike
+	 * RunnerDate.isDateBetweenTwoDates only days are compared, not times.
+	 *
+	 * @param earlierDate
+	 * @param laterDate
+	 * @param matches
+	 *            receives the indexes of the selected dates, may be null to only count them
+	 * @return number of selected dates
+	 */
+	public int filterBetween(Date earlierDate, Date laterDate, BitSet matches) {
+		TimeZone zone = TimeZone.getDefault();
+		return filter((long) epochDayOf(earlierDate, zone) + 1, (long) epochDayOf(laterDate, zone) - 1, matches);
+	}
+
+	/**
+	 * Selects the dates for which RunnerDate.compareDates(date, givenDate) returns the given comparison.
+	 *
+	 * If comparison is not -1, 0 or 1 an IncorrectInputParametersException is thrown.
+	 *
+	 * @param givenDate
+	 * @param comparison
+	 *            -1 for earlier days, 0 for the same day, 1 for later days or null dates
+	 * @param matches
+	 *            receives the indexes of the selected dates, may be null to only count them
+	 * @return number of selected dates
+	 * @throws IncorrectInputParametersException
+	 */
+	public int filterCompared(Date givenDate, int comparison, BitSet matches) throws IncorrectInputParametersException {
+		long epochDay = epochDayOf(givenDate, TimeZone.getDefault());
+		if (comparison == -1) {
+			return filter(Long.MIN_VALUE, epochDay - 1, matches);
+		} else if (comparison == 0) {
+			return filter(epochDay, epochDay, matches);
+		} else if (comparison == 1) {
+			return filter(epochDay + 1, Long.MAX_VALUE, matches);
+		}
+		throw new IncorrectInputParametersException(
+				"Incorrect input parameters. Parameter comparison must be -1, 0 or 1.");
+	}
+
+	/**
+	 * Writes the dates of a file backed column to the storage device. Does nothing for a column in a direct buffer.
+	 */
+	public void flush() {
+		if (buffer instanceof MappedByteBuffer) {
+			((MappedByteBuffer) buffer).force();
+		}
+	}
+
+	/**
+	 * Flushes and closes the file of a file backed column. The column must not be used afterwards.
+	 *
+	 * @throws IOException
+	 */
+	@Override
+	public void close() throws IOException {
+		if (channel != null && channel.isOpen()) {
+			flush();
+			channel.close();
+		}
+	}
+
+	/**
+	 * Selects the epoch days from low to high, both included.
+	 */
+	private int filter(long low, long high, BitSet matches) {
+		if (matches != null) {
+			matches.clear(0, size);
+		}
+		if (low > high) {
+			return 0;
+		}
+
+		int count = 0;
+		for (int block = 0; block < blockCount(size); block++) {
+			int min = blockMins[block];
+			int max = blockMaxes[block];
+			if (max < low || min > high) {
+				continue;
+			}
+
+			int first = block * BLOCK_SIZE;
+			int last = Math.min(first + BLOCK_SIZE, size);
+			if (min >= low && max <= high) {
+				// Whole block is inside the range
+				count += last - first;
+				if (matches != null) {
+					matches.set(first, last);
+				}
+				continue;
+			}
+
+			for (int index = first; index < last; index++) {
+				int epochDay = buffer.getInt(HEADER_SIZE + index * 4);
+				if (epochDay >= low && epochDay <= high) {
+					count++;
+					if (matches != null) {
+						matches.set(index);
+					}
+				}
+			}
+		}
+		return count;
+	}
+
+	private void computeBlock(int block) {
+		int first = block * BLOCK_SIZE;
+		int last = Math.min(first + BLOCK_SIZE, size);
+		int min = Integer.MAX_VALUE;
+		int max = Integer.MIN_VALUE;
+		for (int index = first; index < last; index++) {
+			int epochDay = buffer.getInt(HEADER_SIZE + index * 4);
+			min = Math.min(min, epochDay);
+			max = Math.max(max, epochDay);
+		}
+		blockMins[block] = min;
+		blockMaxes[block] = max;
+	}
+
+	private void grow() throws IncorrectInputParametersException {
+		if (capacity == MAX_CAPACITY) {
+			throw new IncorrectInputParametersException("Incorrect input parameters. Date column is full.");
+		}
+		int newCapacity = (int) Math.min(Math.max(2L * capacity, BLOCK_SIZE), MAX_CAPACITY);
+
+		ByteBuffer newBuffer;
+		if (channel != null) {
+			try {
+				// Mapping past the end of the file extends the file
+				newBuffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long) newCapacity * 4);
+			} catch (IOException ioe) {
+				throw new IllegalStateException("Growing the date column file failed.", ioe);
+			}
+		} else {
+			newBuffer = ByteBuffer.allocateDirect(HEADER_SIZE + newCapacity * 4);
+			ByteBuffer source = buffer.duplicate();
+			source.clear().limit(HEADER_SIZE + size * 4);
+			newBuffer.put(source);
+		}
+
+		buffer = newBuffer.order(ByteOrder.nativeOrder());
+		capacity = newCapacity;
+		blockMins = Arrays.copyOf(blockMins, blockCount(newCapacity));
+		blockMaxes = Arrays.copyOf(blockMaxes, blockMins.length);
+	}
+
+	private void checkIndex(int index) throws IncorrectInputParametersException {
+		if (index < 0 || index >= size) {
+			throw new IncorrectInputParametersException("Incorrect input parameters. Index " + index
+					+ " is outside the column of " + size + " dates.");
+		}
+	}
+
+	private static int epochDayOf(Date date, TimeZone zone) {
+		return date == null ? NULL_EPOCH_DAY : RunnerEpochDate.toEpochDay(date.getTime(), zone);
+	}
+
+	private static int blockCount(int count) {
+		return (count + BLOCK_SIZE - 1) / BLOCK_SIZE;
+	}
+
+	private static void writeHeader(ByteBuffer buffer) {
+		buffer.putInt(0, MAGIC);
+		buffer.putInt(4, VERSION);
+		buffer.putInt(SIZE_OFFSET, 0);
+	}
+
+	private static void checkCapacity(int initialCapacity) throws IncorrectInputParametersException {
+		if (initialCapacity < 0 || initialCapacity > MAX_CAPACITY) {
+			throw new IncorrectInputParametersException("Incorrect input parameters. Capacity must be between 0 and "
+					+ MAX_CAPACITY + ".");
+		}
+	}
+}
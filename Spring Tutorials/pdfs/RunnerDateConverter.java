@@ -0,0 +1,330 @@
+package com.runner.architecture.util;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Date;
+import java.util.TimeZone;
+
+/**
+ * Reusable parser and formatter bound to a set of patterns, for tight loops. The patterns are resolved once at
+ * creation and the instance owns all scratch state it needs (parse position, char buffers, a view over byte input),
+ * so the parse methods returning epoch days or epoch milliseconds and the format methods writing into a caller's
+ * buffer create no objects for dates of numeric patterns such as dd.MM.yyyy or yyyyMMdd HH:mm.
+ *
+ * Text is parsed with the patterns in the given order and the first matching pattern wins; each pattern parses like
+ * RunnerDate.convertStringToDate(String, String). Without patterns text is parsed like
+ * RunnerDate.convertStringToDate(String). Dates are formatted with the first pattern, or d.M.yyyy without patterns.
+ *
+ * The default time zone is read when the converter is created and used for all its dates, like a SimpleDateFormat
+ * keeps the zone it was created with.
+ *
+ * Instances are thread-confined: they are not thread safe and must only be used by the thread that created them, for
+ * example one instance per partition of a batch step. {@link #perThread(String...)} creates such an instance lazily in
+ * every thread that asks for one.
+ *
+ * @author keshavprasad.akasam
+ *
+ */
+public final class RunnerDateConverter {
+
+	/* Result of the parse methods for text that is not a date */
+	public static final int INVALID_EPOCH_DAY = Integer.MIN_VALUE;
+	public static final long INVALID_EPOCH_MILLIS = Long.MIN_VALUE;
+
+	private final String[] patterns;
+	private final RunnerDateFormat.Worker[] parsers;
+	private final RunnerDateFormat.Worker formatter;
+	private final TimeZone zone;
+	private final RunnerAsciiSequence asciiSequence = new RunnerAsciiSequence();
+
+	private RunnerDateConverter(String[] patterns) {
+		this.patterns = patterns;
+		this.parsers = new RunnerDateFormat.Worker[patterns.length];
+		for (int i = 0; i < patterns.length; i++) {
+			parsers[i] = RunnerDateFormatRegistry.getFormat(patterns[i]).newWorker();
+		}
+		this.formatter = patterns.length > 0 ? parsers[0] : RunnerDateFormatRegistry.getFormat(
+				RunnerDate.GENERAL_DATE_FORMAT).newWorker();
+		this.zone = TimeZone.getDefault();
+	}
+
+	/**
+	 * Creates converter for the given patterns, to be used by the calling thread only.
+	 *
+	 * If patterns or one of the patterns is null an IncorrectInputParametersException is thrown.
+	 *
+	 * @param patterns
+	 *            patterns in the order they are tried, none to use the supported date formats
+	 * @return converter
+	 * @throws IncorrectInputParametersException
+	 */
+	public static RunnerDateConverter create(String... patterns) throws IncorrectInputParametersException {
+		return new RunnerDateConverter(checkPatterns(patterns));
+	}
+
+	/**
+	 * Returns factory of per thread converters for the given patterns. Each thread calling get() on the result gets
+	 * its own converter, created on its first call.
+	 *
+	 * If patterns or one of the patterns is null an IncorrectInputParametersException is thrown.
+	 *
+	 * @param patterns
+	 *            patterns in the order they are tried, none to use the supported date formats
+	 * @return per thread converters
+	 * @throws IncorrectInputParametersException
+	 */
+	public static ThreadLocal<RunnerDateConverter> perThread(String... patterns)
+			throws IncorrectInputParametersException {
+		final String[] checkedPatterns = checkPatterns(patterns);
+		return new ThreadLocal<RunnerDateConverter>() {
+			@Override
+			protected RunnerDateConverter initialValue() {
+				return new RunnerDateConverter(checkedPatterns);
+			}
+		};
+	}
+
+	/**
+	 * Returns the patterns of this converter.
+	 *
+	 * @return copy of the patterns
+	 */
+	public String[] getPatterns() {
+		return patterns.clone();
+	}
+
+	/**
+	 * Parses given text to epoch milliseconds.
+	 *
+	 * If text is null an IncorrectInputParametersException is thrown.
+	 *
+	 * @param text
+	 * @return epoch milliseconds or INVALID_EPOCH_MILLIS if no pattern matches
+	 * @throws IncorrectInputParametersException
+	 */
+	public long parseToEpochMillis(CharSequence text) throws IncorrectInputParametersException {
+		if (text == null) {
+			throw new IncorrectInputParametersException("Incorrect input parameters. Parameter text is mandatory.");
+		}
+
+		if (parsers.length == 0) {
+			int scannedDate = RunnerDateScanner.scanDate(text, 0, text.length());
+			long epochMillis = scannedDate == RunnerDateScanner.INVALID ? RunnerDateParser.INVALID
+					: RunnerDateScanner.toEpochMillis(scannedDate, zone);
+			return epochMillis == RunnerDateParser.INVALID ? INVALID_EPOCH_MILLIS : epochMillis;
+		}
+
+		for (int i = 0; i < parsers.length; i++) {
+			long epochMillis = parsers[i].parse(text, zone);
+			if (epochMillis != RunnerDateParser.INVALID) {
+				return epochMillis;
+			}
+		}
+		return INVALID_EPOCH_MILLIS;
+	}
+
+	/**
+	 * Same as {@link #parseToEpochMillis(CharSequence)} for ASCII bytes.
+	 *
+	 * @param bytes
+	 * @param offset
+	 * @param length
+	 * @return epoch milliseconds or INVALID_EPOCH_MILLIS if no pattern matches
+	 * @throws IncorrectInputParametersException
+	 */
+	public long parseToEpochMillis(byte[] bytes, int offset, int length) throws IncorrectInputParametersException {
+		checkRange(bytes == null ? -1 : bytes.length, offset, length);
+		return parseToEpochMillis(asciiSequence.set(bytes, offset, length));
+	}
+
+	/**
+	 * Same as {@link #parseToEpochMillis(CharSequence)} for ASCII bytes of a buffer. The buffer position is not
+	 * changed.
+	 *
+	 * @param buffer
+	 * @param offset
+	 *            absolute index in the buffer
+	 * @param length
+	 * @return epoch milliseconds or INVALID_EPOCH_MILLIS if no pattern matches
+	 * @throws IncorrectInputParametersException
+	 */
+	public long parseToEpochMillis(ByteBuffer buffer, int offset, int length)
+			throws IncorrectInputParametersException {
+		checkRange(buffer == null ? -1 : buffer.limit(), offset, length);
+		return parseToEpochMillis(asciiSequence.set(buffer, offset, length));
+	}
+
+	/**
+	 * Parses given text to the epoch day of the parsed instant in the default time zone.
+	 *
+	 * If text is null an IncorrectInputParametersException is thrown.
+	 *
+	 * @param text
+	 * @return epoch day or INVALID_EPOCH_DAY if no pattern matches
+	 * @throws IncorrectInputParametersException
+	 */
+	public int parseToEpochDay(CharSequence text) throws IncorrectInputParametersException {
+		if (text != null && parsers.length == 0) {
+			int scannedDate = RunnerDateScanner.scanDate(text, 0, text.length());
+			return scannedDate == RunnerDateScanner.INVALID || !RunnerDateScanner.existsIn(scannedDate, zone)
+					? INVALID_EPOCH_DAY : RunnerDateScanner.toEpochDay(scannedDate);
+		}
+
+		long epochMillis = parseToEpochMillis(text);
+		return epochMillis == INVALID_EPOCH_MILLIS ? INVALID_EPOCH_DAY
+				: RunnerEpochDate.toEpochDay(epochMillis, zone);
+	}
+
+	/**
+	 * Same as {@link #parseToEpochDay(CharSequence)} for ASCII bytes.
+	 *
+	 * @param bytes
+	 * @param offset
+	 * @param length
+	 * @return epoch day or INVALID_EPOCH_DAY if no pattern matches
+	 * @throws IncorrectInputParametersException
+	 */
+	public int parseToEpochDay(byte[] bytes, int offset, int length) throws IncorrectInputParametersException {
+		checkRange(bytes == null ? -1 : bytes.length, offset, length);
+		return parseToEpochDay(asciiSequence.set(bytes, offset, length));
+	}
+
+	/**
+	 * Same as {@link #parseToEpochDay(CharSequence)} for ASCII bytes of a buffer. The buffer position is not changed.
+	 *
+	 * @param buffer
+	 * @param offset
+	 *            absolute index in the buffer
+	 * @param length
+	 * @return epoch day or INVALID_EPOCH_DAY if no pattern matches
+	 * @throws IncorrectInputParametersException
+	 */
+	public int parseToEpochDay(ByteBuffer buffer, int offset, int length) throws IncorrectInputParametersException {
+		checkRange(buffer == null ? -1 : buffer.limit(), offset, length);
+		return parseToEpochDay(asciiSequence.set(buffer, offset, length));
+	}
+
+	/**
+	 * Parses given text to a new date.
+	 *
+	 * If text is null an IncorrectInputParametersException is thrown.
+	 *
+	 * @param text
+	 * @return date or null if no pattern matches
+	 * @throws IncorrectInputParametersException
+	 */
+	public Date parse(CharSequence text) throws IncorrectInputParametersException {
+		long epochMillis = parseToEpochMillis(text);
+		return epochMillis == INVALID_EPOCH_MILLIS ? null : new Date(epochMillis);
+	}
+
+	/**
+	 * Checks that given text matches one of the patterns.
+	 *
+	 * If text is null an IncorrectInputParametersException is thrown.
+	 *
+	 * @param text
+	 * @return true if valid, false if not valid
+	 * @throws IncorrectInputParametersException
+	 */
+	public boolean isValid(CharSequence text) throws IncorrectInputParametersException {
+		return parseToEpochMillis(text) != INVALID_EPOCH_MILLIS;
+	}
+
+	/**
+	 * Formats given instant to the end of the builder.
+	 *
+	 * If builder is null an IncorrectInputParametersException is thrown.
+	 *
+	 * @param epochMillis
+	 * @param builder
+	 * @return builder
+	 * @throws IncorrectInputParametersException
+	 */
+	public StringBuilder format(long epochMillis, StringBuilder builder) throws IncorrectInputParametersException {
+		if (builder == null) {
+			throw new IncorrectInputParametersException("Incorrect input parameters. Parameter builder is mandatory.");
+		}
+		formatter.format(epochMillis, zone, builder);
+		return builder;
+	}
+
+	/**
+	 * Formats given instant to the appendable, for example a Writer of an export file.
+	 *
+	 * If appendable is null an IncorrectInputParametersException is thrown.
+	 *
+	 * @param epochMillis
+	 * @param appendable
+	 * @throws IOException
+	 *             if appending fails
+	 * @throws IncorrectInputParametersException
+	 */
+	public void format(long epochMillis, Appendable appendable) throws IOException,
+			IncorrectInputParametersException {
+		if (appendable == null) {
+			throw new IncorrectInputParametersException(
+					"Incorrect input parameters. Parameter appendable is mandatory.");
+		}
+		formatter.format(epochMillis, zone, appendable);
+	}
+
+	/**
+	 * Formats given instant into the array starting at the given offset.
+	 *
+	 * If chars is null or the date does not fit in the array an IncorrectInputParametersException is thrown and the
+	 * array is not changed.
+	 *
+	 * @param epochMillis
+	 * @param chars
+	 * @param offset
+	 * @return offset after the last written char
+	 * @throws IncorrectInputParametersException
+	 */
+	public int format(long epochMillis, char[] chars, int offset) throws IncorrectInputParametersException {
+		if (chars == null) {
+			throw new IncorrectInputParametersException("Incorrect input parameters. Parameter chars is mandatory.");
+		}
+		return formatter.format(epochMillis, zone, chars, offset);
+	}
+
+	/**
+	 * Formats given instant into the buffer at its position as US-ASCII bytes and advances the position.
+	 *
+	 * If buffer is null or the date does not fit in the remaining buffer an IncorrectInputParametersException is
+	 * thrown and the buffer is not changed.
+	 *
+	 * @param epochMillis
+	 * @param buffer
+	 * @throws IncorrectInputParametersException
+	 */
+	public void format(long epochMillis, ByteBuffer buffer) throws IncorrectInputParametersException {
+		if (buffer == null) {
+			throw new IncorrectInputParametersException("Incorrect input parameters. Parameter buffer is mandatory.");
+		}
+		formatter.format(epochMillis, zone, buffer);
+	}
+
+	private static String[] checkPatterns(String[] patterns) throws IncorrectInputParametersException {
+		if (patterns == null) {
+			throw new IncorrectInputParametersException("Incorrect input parameters. Parameter patterns is mandatory.");
+		}
+		String[] checkedPatterns = patterns.clone();
+		for (String pattern : checkedPatterns) {
+			if (pattern == null) {
+				throw new IncorrectInputParametersException(
+						"Incorrect input parameters. Patterns must not contain null.");
+			}
+			// Fails early on illegal patterns
+			RunnerDateFormatRegistry.getFormat(pattern);
+		}
+		return checkedPatterns;
+	}
+
+	private static void checkRange(int capacity, int offset, int length) throws IncorrectInputParametersException {
+		if (capacity < 0 || offset < 0 || length < 0 || offset > capacity - length) {
+			throw new IncorrectInputParametersException(
+					"Incorrect input parameters. Input is mandatory and offset and length must be inside it.");
+		}
+	}
+}
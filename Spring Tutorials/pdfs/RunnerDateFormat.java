@@ -0,0 +1,412 @@
+package com.runner.architecture.util;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.text.FieldPosition;
+import java.text.ParseException;
+import java.text.ParsePosition;
+import java.text.SimpleDateFormat;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.Locale;
+import java.util.TimeZone;
+
+/**
+ * Compiled, non-lenient date pattern. Instances are immutable and can be shared between threads; each thread works on
+ * its own copy of the underlying SimpleDateFormat so no locking is needed and the pattern, locale and calendar are set
+ * up only once per thread.
+ *
+ * Dates are parsed and formatted in the default time zone of each call. The locale is fixed when the pattern is
+ * compiled. Two digit years of patterns like dd.MM.yy are read relative to the time of each call, like with a
+ * SimpleDateFormat created for the call: within 80 years before and 20 years after the current date in the time zone
+ * of the call.
+ *
+ * Numeric patterns such as dd.MM.yyyy, yyyyMMdd or dd-MM-yyyy HH:mm are formatted and parsed without
+ * SimpleDateFormat. The format methods that write into a StringBuilder, Appendable, char array or ByteBuffer then
+ * create no objects.
+ *
+ * Instances are obtained from {@link RunnerDateFormatRegistry}.
+ *
+ * @author keshavprasad.akasam
+ *
+ */
+public final class RunnerDateFormat {
+
+	private final String pattern;
+	private final Locale locale;
+	private final SimpleDateFormat prototype;
+	private final boolean compactDate;
+	private final boolean twoDigitYear;
+	private final RunnerDatePrinter printer;
+	private final RunnerDateParser parser;
+	private final ThreadLocal<Worker> workers;
+
+	RunnerDateFormat(String pattern, Locale locale) {
+		this.prototype = new SimpleDateFormat(pattern, locale);
+		prototype.setLenient(false);
+
+		this.pattern = pattern;
+		this.locale = locale;
+		this.compactDate = RunnerDate.DATE_FORMAT_YYYYMMDD.equals(pattern);
+		this.twoDigitYear = hasTwoDigitYear(prototype.toPattern());
+		this.printer = RunnerDatePrinter.compile(prototype);
+		this.parser = RunnerDateParser.compile(prototype);
+		this.workers = new ThreadLocal<Worker>() {
+			@Override
+			protected Worker initialValue() {
+				return newWorker();
+			}
+		};
+	}
+
+	/**
+	 * Creates parsing and formatting state for use by a single thread.
+	 *
+	 * @return new worker
+	 */
+	Worker newWorker() {
+		return new Worker((SimpleDateFormat) prototype.clone(), twoDigitYear, printer, parser);
+	}
+
+	/**
+	 * Returns the pattern this format was compiled from.
+	 *
+	 * @return pattern
+	 */
+	public String getPattern() {
+		return pattern;
+	}
+
+	/**
+	 * Returns the locale this format was compiled for.
+	 *
+	 * @return locale
+	 */
+	Locale getLocale() {
+		return locale;
+	}
+
+	/**
+	 * Returns true if the pattern is yyyyMMdd, which can be scanned without SimpleDateFormat.
+	 *
+	 * @return true for yyyyMMdd
+	 */
+	boolean isCompactDate() {
+		return compactDate;
+	}
+
+	/**
+	 * Parses given string. Behaves exactly like a non-lenient SimpleDateFormat.parse(String).
+	 *
+	 * @param dateString
+	 * @return date
+	 * @throws ParseException
+	 *             if dateString does not match the pattern
+	 */
+	public Date parse(String dateString) throws ParseException {
+		Worker worker = workers.get();
+		TimeZone zone = TimeZone.getDefault();
+		long epochMillis = worker.parse(dateString, zone);
+		if (epochMillis == RunnerDateParser.INVALID) {
+			throw new ParseException("Unparseable date: \"" + dateString + "\"", worker.getErrorIndex(dateString,
+					zone));
+		}
+		return new Date(epochMillis);
+	}
+
+	/**
+	 * Parses given string without throwing on failure.
+	 *
+	 * @param dateString
+	 * @return date or null if dateString does not match the pattern
+	 */
+	public Date parseOrNull(String dateString) {
+		long epochMillis = workers.get().parse(dateString, TimeZone.getDefault());
+		return epochMillis == RunnerDateParser.INVALID ? null : new Date(epochMillis);
+	}
+
+	/**
+	 * Parses given text in the given time zone to epoch milliseconds without creating a Date.
+	 *
+	 * @param text
+	 * @param zone
+	 * @return epoch milliseconds or RunnerDateParser.INVALID if text does not match the pattern
+	 */
+	long parseToEpochMillis(CharSequence text, TimeZone zone) {
+		return workers.get().parse(text, zone);
+	}
+
+	/**
+	 * Checks that given string matches the pattern.
+	 *
+	 * @param dateString
+	 * @return true if valid, false if not valid
+	 */
+	public boolean isValid(String dateString) {
+		return workers.get().parse(dateString, TimeZone.getDefault()) != RunnerDateParser.INVALID;
+	}
+
+	/**
+	 * Formats given date.
+	 *
+	 * @param date
+	 * @return date in string format
+	 */
+	public String format(Date date) {
+		Worker worker = workers.get();
+		int length = worker.print(date.getTime(), TimeZone.getDefault());
+		if (length < 0) {
+			return worker.formatted.toString();
+		}
+		return new String(worker.chars, 0, length);
+	}
+
+	/**
+	 * Formats given date to the end of the builder.
+	 *
+	 * @param date
+	 * @param builder
+	 * @return builder
+	 */
+	public StringBuilder format(Date date, StringBuilder builder) {
+		workers.get().format(date.getTime(), TimeZone.getDefault(), builder);
+		return builder;
+	}
+
+	/**
+	 * Formats given date to the appendable, for example a Writer of an export file.
+	 *
+	 * @param date
+	 * @param appendable
+	 * @throws IOException
+	 *             if appending fails
+	 */
+	public void format(Date date, Appendable appendable) throws IOException {
+		workers.get().format(date.getTime(), TimeZone.getDefault(), appendable);
+	}
+
+	/**
+	 * Formats given date into the array starting at the given offset.
+	 *
+	 * If the date does not fit in the array an IncorrectInputParametersException is thrown and the array is not
+	 * changed.
+	 *
+	 * @param date
+	 * @param chars
+	 * @param offset
+	 * @return offset after the last written char
+	 * @throws IncorrectInputParametersException
+	 */
+	public int format(Date date, char[] chars, int offset) throws IncorrectInputParametersException {
+		return workers.get().format(date.getTime(), TimeZone.getDefault(), chars, offset);
+	}
+
+	/**
+	 * Formats given date into the buffer at its position as US-ASCII bytes and advances the position. Chars outside
+	 * US-ASCII, which only month or day names can produce, are written as '?'.
+	 *
+	 * If the date does not fit in the remaining buffer an IncorrectInputParametersException is thrown and the buffer
+	 * is not changed.
+	 *
+	 * @param date
+	 * @param buffer
+	 * @throws IncorrectInputParametersException
+	 */
+	public void format(Date date, ByteBuffer buffer) throws IncorrectInputParametersException {
+		workers.get().format(date.getTime(), TimeZone.getDefault(), buffer);
+	}
+
+	/**
+	 * Checks whether the pattern has a year of one or two letters, which SimpleDateFormat parses relative to the
+	 * start of its two digit years.
+	 */
+	private static boolean hasTwoDigitYear(String pattern) {
+		boolean quoted = false;
+		for (int i = 0; i < pattern.length();) {
+			char c = pattern.charAt(i);
+			int end = i + 1;
+			while (end < pattern.length() && pattern.charAt(end) == c) {
+				end++;
+			}
+			if (c == '\'') {
+				// Two quotes are a quote, an odd number of quotes toggles quoting
+				quoted ^= (end - i) % 2 != 0;
+			} else if (!quoted && (c == 'y' || c == 'Y') && end - i <= 2) {
+				return true;
+			}
+			i = end;
+		}
+		return false;
+	}
+
+	private static void checkSpace(int capacity, int offset, int length) throws IncorrectInputParametersException {
+		if (offset < 0 || offset > capacity - length) {
+			throw new IncorrectInputParametersException("Incorrect input parameters. Formatted date of " + length
+					+ " chars does not fit at offset " + offset + ".");
+		}
+	}
+
+	/**
+	 * Parsing and formatting state of one thread. The time zone is given to every call and the SimpleDateFormat is
+	 * moved to it only when it is needed and has changed.
+	 */
+	static final class Worker {
+
+		private final SimpleDateFormat dateFormat;
+		private final boolean twoDigitYear;
+		private final ParsePosition position = new ParsePosition(0);
+		private final RunnerDatePrinter printer;
+		private final RunnerDateParser parser;
+		private final char[] chars;
+		private final StringBuffer formatted = new StringBuffer();
+		private final FieldPosition fieldPosition = new FieldPosition(0);
+		private final Date date = new Date(0);
+
+		/* Time zone of dateFormat */
+		private TimeZone zone;
+
+		private Worker(SimpleDateFormat dateFormat, boolean twoDigitYear, RunnerDatePrinter printer,
+				RunnerDateParser parser) {
+			this.dateFormat = dateFormat;
+			this.twoDigitYear = twoDigitYear;
+			this.printer = printer;
+			this.parser = parser;
+			this.chars = new char[printer == null ? 0 : printer.getMaximumLength()];
+			this.zone = dateFormat.getTimeZone();
+		}
+
+		/**
+		 * Prints the date into chars, or into formatted with SimpleDateFormat when the printer does not support it.
+		 *
+		 * @return number of printed chars or -1 if the date is in formatted
+		 */
+		private int print(long epochMillis, TimeZone zone) {
+			if (printer != null) {
+				int length = printer.print(epochMillis, chars, zone);
+				if (length >= 0) {
+					return length;
+				}
+			}
+			// Formatting only reads the time, the reused date never escapes
+			setTimeZone(zone);
+			date.setTime(epochMillis);
+			formatted.setLength(0);
+			dateFormat.format(date, formatted, fieldPosition);
+			return -1;
+		}
+
+		void format(long epochMillis, TimeZone zone, StringBuilder builder) {
+			int length = print(epochMillis, zone);
+			if (length < 0) {
+				builder.append(formatted);
+			} else {
+				builder.append(chars, 0, length);
+			}
+		}
+
+		void format(long epochMillis, TimeZone zone, Appendable appendable) throws IOException {
+			int length = print(epochMillis, zone);
+			if (length < 0) {
+				appendable.append(formatted);
+			} else if (appendable instanceof Writer) {
+				((Writer) appendable).write(chars, 0, length);
+			} else {
+				for (int i = 0; i < length; i++) {
+					appendable.append(chars[i]);
+				}
+			}
+		}
+
+		int format(long epochMillis, TimeZone zone, char[] target, int offset)
+				throws IncorrectInputParametersException {
+			int length = print(epochMillis, zone);
+			if (length < 0) {
+				length = formatted.length();
+				checkSpace(target.length, offset, length);
+				formatted.getChars(0, length, target, offset);
+			} else {
+				checkSpace(target.length, offset, length);
+				System.arraycopy(chars, 0, target, offset, length);
+			}
+			return offset + length;
+		}
+
+		void format(long epochMillis, TimeZone zone, ByteBuffer buffer) throws IncorrectInputParametersException {
+			int length = print(epochMillis, zone);
+			if (length < 0) {
+				length = formatted.length();
+				checkSpace(buffer.remaining(), 0, length);
+				for (int i = 0; i < length; i++) {
+					char c = formatted.charAt(i);
+					buffer.put(c < 128 ? (byte) c : (byte) '?');
+				}
+			} else {
+				// Printed chars are always ASCII
+				checkSpace(buffer.remaining(), 0, length);
+				for (int i = 0; i < length; i++) {
+					buffer.put((byte) chars[i]);
+				}
+			}
+		}
+
+		/**
+		 * Parses the text with the parser, or with SimpleDateFormat when the parser does not support it.
+		 *
+		 * @return epoch milliseconds or RunnerDateParser.INVALID
+		 */
+		long parse(CharSequence text, TimeZone zone) {
+			if (parser != null) {
+				long epochMillis = parser.parse(text, 0, text.length(), zone);
+				if (epochMillis != RunnerDateParser.NOT_PARSED) {
+					return epochMillis;
+				}
+			}
+			setTimeZone(zone);
+			Date parsed = parseWithDateFormat(text.toString());
+			return parsed == null ? RunnerDateParser.INVALID : parsed.getTime();
+		}
+
+		/**
+		 * Returns the index where SimpleDateFormat fails to parse the given invalid text.
+		 */
+		private int getErrorIndex(String text, TimeZone zone) {
+			setTimeZone(zone);
+			parseWithDateFormat(text);
+			return position.getErrorIndex();
+		}
+
+		private void setTimeZone(TimeZone newZone) {
+			if (!newZone.getID().equals(zone.getID())) {
+				dateFormat.setTimeZone(newZone);
+				zone = newZone;
+			}
+		}
+
+		private Date parseWithDateFormat(String dateString) {
+			if (twoDigitYear) {
+				resetTwoDigitYearStart();
+			}
+			position.setIndex(0);
+			position.setErrorIndex(-1);
+			Date date = dateFormat.parse(dateString, position);
+			// DateFormat.parse(String) fails whenever nothing was consumed
+			if (position.getIndex() == 0) {
+				return null;
+			}
+			return date;
+		}
+
+		/*
+		 * A SimpleDateFormat fixes the start of two digit years to 80 years before its creation, in the zone it was
+		 * created in. Workers live long and move between zones, so the start is computed again for each parse as a
+		 * new SimpleDateFormat would.
+		 */
+		private void resetTwoDigitYearStart() {
+			Calendar calendar = (Calendar) dateFormat.getCalendar().clone();
+			calendar.setTimeInMillis(System.currentTimeMillis());
+			calendar.add(Calendar.YEAR, -80);
+			dateFormat.set2DigitYearStart(calendar.getTime());
+		}
+	}
+}
@@ -0,0 +1,111 @@
+package com.runner.architecture.util;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded cache of compiled date patterns keyed by the pattern string. Each pattern is compiled once into a
+ * {@link RunnerDateFormat} and shared by all callers.
+ *
+ * The formats parse and format in the default time zone of each call. A format is compiled for the default locale
+ * and compiled again when the default locale has changed. When the cache is full the least recently used pattern is
+ * evicted to make room for the new one.
+ *
+ * @author keshavprasad.akasam
+ *
+ */
+public final class RunnerDateFormatRegistry {
+
+	/* Upper bound for the number of cached patterns */
+	public static final int MAX_CACHED_FORMATS = 64;
+
+	private static final ConcurrentMap<String, CachedFormat> FORMATS =
+			new ConcurrentHashMap<String, CachedFormat>();
+
+	/* Advanced on every compilation, entries remember its value at their last use */
+	private static final AtomicLong USE_CLOCK = new AtomicLong();
+
+	private RunnerDateFormatRegistry() {
+	}
+
+	/**
+	 * Returns compiled format for the given pattern.
+	 *
+	 * If pattern is null an IncorrectInputParametersException is thrown.
+	 *
+	 * @param pattern
+	 * @return compiled format
+	 * @throws IncorrectInputParametersException
+	 */
+	public static RunnerDateFormat getFormat(String pattern) throws IncorrectInputParametersException {
+		if (pattern == null) {
+			throw new IncorrectInputParametersException("Incorrect input parameters. Parameter format is mandatory.");
+		}
+
+		Locale locale = Locale.getDefault(Locale.Category.FORMAT);
+		CachedFormat cached = FORMATS.get(pattern);
+		if (cached != null && cached.format.getLocale().equals(locale)) {
+			cached.markUsed();
+			return cached.format;
+		}
+
+		CachedFormat compiled = new CachedFormat(new RunnerDateFormat(pattern, locale));
+		if (cached != null) {
+			// Compiled for another locale
+			FORMATS.replace(pattern, cached, compiled);
+			return compiled.format;
+		}
+
+		if (FORMATS.size() >= MAX_CACHED_FORMATS) {
+			evictLeastRecentlyUsed();
+		}
+		CachedFormat existing = FORMATS.putIfAbsent(pattern, compiled);
+		return existing != null ? existing.format : compiled.format;
+	}
+
+	/**
+	 * Removes all cached formats.
+	 */
+	public static void clear() {
+		FORMATS.clear();
+	}
+
+	private static void evictLeastRecentlyUsed() {
+		String eldestPattern = null;
+		CachedFormat eldest = null;
+		for (Map.Entry<String, CachedFormat> candidate : FORMATS.entrySet()) {
+			if (eldest == null || candidate.getValue().lastUse < eldest.lastUse) {
+				eldestPattern = candidate.getKey();
+				eldest = candidate.getValue();
+			}
+		}
+		if (eldest != null) {
+			FORMATS.remove(eldestPattern, eldest);
+		}
+	}
+
+	/**
+	 * Cached format with the clock value of its last use. Uses between two compilations are not told apart, so a
+	 * cache hit writes the shared field at most once per compilation.
+	 */
+	private static final class CachedFormat {
+
+		private final RunnerDateFormat format;
+		private volatile long lastUse;
+
+		private CachedFormat(RunnerDateFormat format) {
+			this.format = format;
+			this.lastUse = USE_CLOCK.incrementAndGet();
+		}
+
+		private void markUsed() {
+			long clock = USE_CLOCK.get();
+			if (lastUse != clock) {
+				lastUse = clock;
+			}
+		}
+	}
+}
@@ -0,0 +1,365 @@
+package com.runner.architecture.util;
+
+import java.util.Date;
+import java.util.List;
+import java.util.TimeZone;
+
+/**
+ * Parses the values of one column of a feed, where all values normally share one format that is not known in
+ * advance. The sniffer first parses a sample of values with full detection, trying every candidate format in order,
+ * and counts which format each value matched. After the sample it locks onto the format matched most often and parses
+ * the following values with that format only. A value the locked format does not accept is still parsed with full
+ * detection, so no value is lost; if {@link #getSampleSize()} values in a row need full detection the column has
+ * changed its format and the sniffer samples again.
+ *
+ * The candidates are the formats of RunnerDate.convertStringToDate(String) or RunnerDate.convertTimeStampStringToDate
+ * in their usual order, followed by the formats given at creation, for example yyyy/MM/dd of one vendor. A value in a
+ * built-in format is accepted by exactly the same rules as in RunnerDate, a value in a given format like
+ * RunnerDate.convertStringToDate(String, String). If several candidates accept a value but give different dates, as
+ * dd/MM/yyyy and MM/dd/yyyy do for 01/02/2015, full detection takes the first candidate and a locked sniffer the
+ * locked format.
+ *
+ * The default time zone is read when the sniffer is created and used for all values of the column.
+ *
+ * Instances keep state per column and are not thread safe. Use one instance per column and thread.
+ *
+ * @author keshavprasad.akasam
+ *
+ */
+public final class RunnerDateFormatSniffer {
+
+	/* Number of valid values sampled before locking, unless given at creation */
+	public static final int DEFAULT_SAMPLE_SIZE = 16;
+
+	/* Result of the parse methods for values no candidate accepts */
+	public static final int INVALID_EPOCH_DAY = Integer.MIN_VALUE;
+	public static final long INVALID_EPOCH_MILLIS = Long.MIN_VALUE;
+
+	private static final int NO_MATCH = -1;
+
+	private final boolean timeStamps;
+	private final int sampleSize;
+
+	/* Built-in formats followed by the given formats, workers only for the given formats */
+	private final String[] formats;
+	private final int builtInCount;
+	private final RunnerDateFormat.Worker[] workers;
+	private final TimeZone zone;
+
+	/* Date shapes accepted by each built-in format and the built-in format of each shape */
+	private final int[] builtInShapes;
+	private final int[] builtInFormatOfShape = new int[RunnerDateScanner.SHAPE_COUNT];
+
+	private final int[] matchCounts;
+	private final RunnerAsciiSequence asciiSequence = new RunnerAsciiSequence();
+	private int sampledCount;
+	private int lockedFormat = NO_MATCH;
+	private int missCount;
+
+	/* Candidate matched by the last full detection */
+	private int detectedFormat;
+
+	private RunnerDateFormatSniffer(boolean timeStamps, int sampleSize, String[] extraFormats) {
+		List<String> builtInFormats = timeStamps ? RunnerDate.getTimeStampFormats() : RunnerDate.getDateFormats();
+
+		this.timeStamps = timeStamps;
+		this.sampleSize = sampleSize;
+		this.builtInCount = builtInFormats.size();
+		this.formats = new String[builtInCount + extraFormats.length];
+		this.workers = new RunnerDateFormat.Worker[formats.length];
+		this.matchCounts = new int[formats.length];
+		this.zone = TimeZone.getDefault();
+		this.builtInShapes = new int[builtInCount];
+
+		for (int i = 0; i < builtInCount; i++) {
+			formats[i] = builtInFormats.get(i);
+		}
+		for (int shape = 0; shape < RunnerDateScanner.SHAPE_COUNT; shape++) {
+			String format = timeStamps ? RunnerDate.getTimeStampFormat(shape) : RunnerDate.getDateFormat(shape);
+			int index = format == null ? NO_MATCH : builtInFormats.indexOf(format);
+			builtInFormatOfShape[shape] = index;
+			if (index != NO_MATCH) {
+				builtInShapes[index] |= 1 << shape;
+			}
+		}
+		for (int i = 0; i < extraFormats.length; i++) {
+			formats[builtInCount + i] = extraFormats[i];
+			workers[builtInCount + i] = RunnerDateFormatRegistry.getFormat(extraFormats[i]).newWorker();
+		}
+	}
+
+	/**
+	 * Creates sniffer for a column of dates with the default sample size.
+	 *
+	 * If extraFormats or one of the formats is null or not a valid pattern an IncorrectInputParametersException is
+	 * thrown.
+	 *
+	 * @param extraFormats
+	 *            formats tried after the ones of RunnerDate.convertStringToDate(String)
+	 * @return sniffer
+	 * @throws IncorrectInputParametersException
+	 */
+	public static RunnerDateFormatSniffer forDates(String... extraFormats) throws IncorrectInputParametersException {
+		return forDates(DEFAULT_SAMPLE_SIZE, extraFormats);
+	}
+
+	/**
+	 * Creates sniffer for a column of dates.
+	 *
+	 * If sampleSize is not positive or extraFormats or one of the formats is null or not a valid pattern an
+	 * IncorrectInputParametersException is thrown.
+	 *
+	 * @param sampleSize
+	 *            number of valid values sampled before locking onto a format
+	 * @param extraFormats
+	 *            formats tried after the ones of RunnerDate.convertStringToDate(String)
+	 * @return sniffer
+	 * @throws IncorrectInputParametersException
+	 */
+	public static RunnerDateFormatSniffer forDates(int sampleSize, String... extraFormats)
+			throws IncorrectInputParametersException {
+		return new RunnerDateFormatSniffer(false, checkSampleSize(sampleSize), checkFormats(extraFormats));
+	}
+
+	/**
+	 * Creates sniffer for a column of time stamps with the default sample size.
+	 *
+	 * If extraFormats or one of the formats is null or not a valid pattern an IncorrectInputParametersException is
+	 * thrown.
+	 *
+	 * @param extraFormats
+	 *            formats tried after the ones of RunnerDate.convertTimeStampStringToDate
+	 * @return sniffer
+	 * @throws IncorrectInputParametersException
+	 */
+	public static RunnerDateFormatSniffer forTimeStamps(String... extraFormats)
+			throws IncorrectInputParametersException {
+		return forTimeStamps(DEFAULT_SAMPLE_SIZE, extraFormats);
+	}
+
+	/**
+	 * Creates sniffer for a column of time stamps.
+	 *
+	 * If sampleSize is not positive or extraFormats or one of the formats is null or not a valid pattern an
+	 * IncorrectInputParametersException is thrown.
+	 *
+	 * @param sampleSize
+	 *            number of valid values sampled before locking onto a format
+	 * @param extraFormats
+	 *            formats tried after the ones of RunnerDate.convertTimeStampStringToDate
+	 * @return sniffer
+	 * @throws IncorrectInputParametersException
+	 */
+	public static RunnerDateFormatSniffer forTimeStamps(int sampleSize, String... extraFormats)
+			throws IncorrectInputParametersException {
+		return new RunnerDateFormatSniffer(true, checkSampleSize(sampleSize), checkFormats(extraFormats));
+	}
+
+	/**
+	 * Parses given value to epoch milliseconds.
+	 *
+	 * If text is null an IncorrectInputParametersException is thrown.
+	 *
+	 * @param text
+	 * @return epoch milliseconds or INVALID_EPOCH_MILLIS if no candidate accepts the value
+	 * @throws IncorrectInputParametersException
+	 */
+	public long parseToEpochMillis(CharSequence text) throws IncorrectInputParametersException {
+		if (text == null) {
+			throw new IncorrectInputParametersException("Incorrect input parameters. Parameter text is mandatory.");
+		}
+
+		if (lockedFormat != NO_MATCH) {
+			long epochMillis = parse(lockedFormat, text);
+			if (epochMillis != RunnerDateParser.INVALID) {
+				missCount = 0;
+				return epochMillis;
+			}
+
+			epochMillis = detect(text);
+			if (epochMillis != RunnerDateParser.INVALID && ++missCount >= sampleSize) {
+				// The column uses another format now
+				restartSampling();
+			}
+			return epochMillis == RunnerDateParser.INVALID ? INVALID_EPOCH_MILLIS : epochMillis;
+		}
+
+		long epochMillis = detect(text);
+		if (epochMillis == RunnerDateParser.INVALID) {
+			return INVALID_EPOCH_MILLIS;
+		}
+
+		matchCounts[detectedFormat]++;
+		if (++sampledCount >= sampleSize) {
+			lock();
+		}
+		return epochMillis;
+	}
+
+	/**
+	 * Same as {@link #parseToEpochMillis(CharSequence)} for ASCII bytes.
+	 *
+	 * @param bytes
+	 * @param offset
+	 * @param length
+	 * @return epoch milliseconds or INVALID_EPOCH_MILLIS if no candidate accepts the value
+	 * @throws IncorrectInputParametersException
+	 */
+	public long parseToEpochMillis(byte[] bytes, int offset, int length) throws IncorrectInputParametersException {
+		if (bytes == null || offset < 0 || length < 0 || offset > bytes.length - length) {
+			throw new IncorrectInputParametersException(
+					"Incorrect input parameters. Input is mandatory and offset and length must be inside it.");
+		}
+		return parseToEpochMillis(asciiSequence.set(bytes, offset, length));
+	}
+
+	/**
+	 * Parses given value to the epoch day of the parsed instant in the default time zone.
+	 *
+	 * If text is null an IncorrectInputParametersException is thrown.
+	 *
+	 * @param text
+	 * @return epoch day or INVALID_EPOCH_DAY if no candidate accepts the value
+	 * @throws IncorrectInputParametersException
+	 */
+	public int parseToEpochDay(CharSequence text) throws IncorrectInputParametersException {
+		long epochMillis = parseToEpochMillis(text);
+		return epochMillis == INVALID_EPOCH_MILLIS ? INVALID_EPOCH_DAY
+				: RunnerEpochDate.toEpochDay(epochMillis, zone);
+	}
+
+	/**
+	 * Parses given value to a new date.
+	 *
+	 * If text is null an IncorrectInputParametersException is thrown.
+	 *
+	 * @param text
+	 * @return date or null if no candidate accepts the value
+	 * @throws IncorrectInputParametersException
+	 */
+	public Date parse(CharSequence text) throws IncorrectInputParametersException {
+		long epochMillis = parseToEpochMillis(text);
+		return epochMillis == INVALID_EPOCH_MILLIS ? null : new Date(epochMillis);
+	}
+
+	/**
+	 * Returns the format the sniffer is locked onto.
+	 *
+	 * @return pattern or null while sampling
+	 */
+	public String getLockedFormat() {
+		return lockedFormat == NO_MATCH ? null : formats[lockedFormat];
+	}
+
+	/**
+	 * Returns the candidate formats in the order of full detection.
+	 *
+	 * @return copy of the patterns
+	 */
+	public String[] getFormats() {
+		return formats.clone();
+	}
+
+	/**
+	 * Returns the number of valid values sampled before locking onto a format.
+	 *
+	 * @return sample size
+	 */
+	public int getSampleSize() {
+		return sampleSize;
+	}
+
+	/**
+	 * Forgets the locked format and the sample, for example before parsing the next file.
+	 */
+	public void reset() {
+		restartSampling();
+	}
+
+	private void lock() {
+		int best = 0;
+		for (int i = 1; i < matchCounts.length; i++) {
+			// Ties go to the format tried first
+			if (matchCounts[i] > matchCounts[best]) {
+				best = i;
+			}
+		}
+		lockedFormat = best;
+		missCount = 0;
+	}
+
+	private void restartSampling() {
+		for (int i = 0; i < matchCounts.length; i++) {
+			matchCounts[i] = 0;
+		}
+		sampledCount = 0;
+		lockedFormat = NO_MATCH;
+		missCount = 0;
+	}
+
+	/*
+	 * Tries all candidates in order and stores the matching one in detectedFormat.
+	 */
+	private long detect(CharSequence text) {
+		// The built-in formats are recognised in one pass
+		long epochMillis = parseBuiltIn(text, RunnerDateScanner.ALL_SHAPES);
+		if (epochMillis != RunnerDateParser.INVALID) {
+			detectedFormat = builtInFormatOfShape[timeStamps ? RunnerTimeStampParser.shapeOf(text, 0, text.length())
+					: RunnerDateScanner.shapeOf(text, 0, text.length())];
+			return epochMillis;
+		}
+
+		for (int i = builtInCount; i < formats.length; i++) {
+			epochMillis = parse(i, text);
+			if (epochMillis != RunnerDateParser.INVALID) {
+				detectedFormat = i;
+				return epochMillis;
+			}
+		}
+		return RunnerDateParser.INVALID;
+	}
+
+	private long parse(int format, CharSequence text) {
+		if (format >= builtInCount) {
+			return workers[format].parse(text, zone);
+		}
+		// Values of other shapes are rejected before they are scanned
+		return parseBuiltIn(text, builtInShapes[format]);
+	}
+
+	private long parseBuiltIn(CharSequence text, int shapes) {
+		if (timeStamps) {
+			long epochMillis = RunnerTimeStampParser.parse(text, 0, text.length(), zone, shapes);
+			return epochMillis == RunnerTimeStampParser.UNSUPPORTED || epochMillis == RunnerTimeStampParser.INVALID
+					? RunnerDateParser.INVALID : epochMillis;
+		}
+		int scannedDate = RunnerDateScanner.scanDate(text, 0, text.length(), shapes);
+		return scannedDate == RunnerDateScanner.INVALID ? RunnerDateParser.INVALID : RunnerDateScanner
+				.toEpochMillis(scannedDate, zone);
+	}
+
+	private static int checkSampleSize(int sampleSize) throws IncorrectInputParametersException {
+		if (sampleSize <= 0) {
+			throw new IncorrectInputParametersException(
+					"Incorrect input parameters. Parameter sampleSize must be positive.");
+		}
+		return sampleSize;
+	}
+
+	private static String[] checkFormats(String[] extraFormats) throws IncorrectInputParametersException {
+		if (extraFormats == null) {
+			throw new IncorrectInputParametersException(
+					"Incorrect input parameters. Parameter extraFormats is mandatory.");
+		}
+		String[] checkedFormats = extraFormats.clone();
+		for (String format : checkedFormats) {
+			if (format == null) {
+				throw new IncorrectInputParametersException(
+						"Incorrect input parameters. Formats must not contain null.");
+			}
+			// Fails early on illegal patterns
+			RunnerDateFormatRegistry.getFormat(format);
+		}
+		return checkedFormats;
+	}
+}
@@ -0,0 +1,506 @@
+package com.runner.architecture.util;
+
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Optional counters and latency histograms of the RunnerDate operations: how often each kind of operation is called
+ * and how long it takes, which of the supported formats the parsed strings matched and why parsing or validation
+ * failed.
+ *
+ * Metrics are collected only when the JVM is started with -Dcom.runner.architecture.util.metrics=true. The switch is
+ * read once into {@link #ENABLED} and every recording call in RunnerDate is guarded by it, so when disabled the JIT
+ * removes the instrumentation together with its System.nanoTime() calls and no counters are even created.
+ *
+ * Counters are LongAdders, so recording from many threads does not contend. Latencies are kept in histograms with
+ * power of two buckets: bucket i counts calls that took 2^i to 2^(i+1)-1 nanoseconds, bucket 0 also counts calls
+ * measured as 0 nanoseconds.
+ *
+ * The metrics are read with {@link #snapshot()}, pushed to a {@link RunnerDateMetricsReporter} with
+ * {@link #report(RunnerDateMetricsReporter)} or exposed through JMX with {@link #registerMBean()}.
+ *
+ * @author keshavprasad.akasam
+ *
+ */
+public final class RunnerDateMetrics {
+
+	/* System property that enables the metrics */
+	public static final String ENABLED_PROPERTY = "com.runner.architecture.util.metrics";
+
+	/* True if metrics are collected, fixed at class initialisation */
+	public static final boolean ENABLED = Boolean.getBoolean(ENABLED_PROPERTY);
+
+	/* Name of the MBean registered by registerMBean() */
+	public static final String OBJECT_NAME = "com.runner.architecture.util:type=RunnerDateMetrics";
+
+	/* Number of histogram buckets, the last one counts all calls of 2^(BUCKET_COUNT-1) nanoseconds or more */
+	public static final int BUCKET_COUNT = 40;
+
+	/* Upper bound for the number of formats counted separately, further formats are counted as OTHER_FORMATS */
+	public static final int MAX_TRACKED_FORMATS = RunnerDateFormatRegistry.MAX_CACHED_FORMATS;
+	public static final String OTHER_FORMATS = "other";
+
+	/**
+	 * Kinds of measured operations.
+	 */
+	public enum Operation {
+		/* convertStringToDate, convertTimeStampStringToDate and getDateFromVRKDateString */
+		PARSE,
+		/* isDateValid and isDateValidInSpecificFormat */
+		VALIDATE,
+		/* convertDateToString of a single date */
+		FORMAT,
+		/* increaseDateByGivenNumberOfDates, -Months, -Years and getDiffinDays */
+		ARITHMETIC
+	}
+
+	/**
+	 * Causes of failed parsing and validation.
+	 */
+	public enum Failure {
+		/* Text was null */
+		MISSING_INPUT,
+		/* Text has none of the supported shapes, for example 2015/12/24 */
+		UNSUPPORTED_FORMAT,
+		/* Text has a supported shape but is not an existing date or time, for example 31.02.2015 */
+		INVALID_DATE,
+		/* Text was rejected by an explicitly given format */
+		PARSE_ERROR
+	}
+
+	private RunnerDateMetrics() {
+	}
+
+	/**
+	 * Returns the start time of a measured call.
+	 *
+	 * @return System.nanoTime() or 0 if metrics are disabled
+	 */
+	static long startTime() {
+		return ENABLED ? System.nanoTime() : 0L;
+	}
+
+	/**
+	 * Records a successful call. Callers guard the call with {@link #ENABLED}.
+	 *
+	 * @param operation
+	 * @param startTime
+	 *            value of startTime() at the start of the call
+	 */
+	static void recordSuccess(Operation operation, long startTime) {
+		if (ENABLED) {
+			Counters.record(operation, startTime);
+		}
+	}
+
+	/**
+	 * Records a successful parse or validation that matched the given format. Callers guard the call with
+	 * {@link #ENABLED}.
+	 *
+	 * @param operation
+	 * @param startTime
+	 *            value of startTime() at the start of the call
+	 * @param format
+	 *            pattern the text matched
+	 */
+	static void recordSuccess(Operation operation, long startTime, String format) {
+		if (ENABLED) {
+			Counters.record(operation, startTime);
+			Counters.recordFormat(format);
+		}
+	}
+
+	/**
+	 * Records a failed call. Callers guard the call with {@link #ENABLED}.
+	 *
+	 * @param operation
+	 * @param startTime
+	 *            value of startTime() at the start of the call
+	 * @param failure
+	 */
+	static void recordFailure(Operation operation, long startTime, Failure failure) {
+		if (ENABLED) {
+			Counters.record(operation, startTime);
+			Counters.FAILURES[operation.ordinal()][failure.ordinal()].increment();
+		}
+	}
+
+	/**
+	 * Returns the current values of the metrics. Counters are read one by one while other threads may record, so the
+	 * values of a snapshot can be off by the calls in progress.
+	 *
+	 * @return snapshot, with all values zero if metrics are disabled
+	 */
+	public static Snapshot snapshot() {
+		return ENABLED ? Counters.snapshot() : new Snapshot(new long[Operation.values().length][BUCKET_COUNT],
+				new long[Operation.values().length], new long[Operation.values().length][Failure.values().length],
+				Collections.<String, Long> emptyMap());
+	}
+
+	/**
+	 * Resets all metrics to zero.
+	 */
+	public static void reset() {
+		if (ENABLED) {
+			Counters.reset();
+		}
+	}
+
+	/**
+	 * Passes a snapshot of the metrics to the given reporter. Meant to be called periodically by the scheduler of the
+	 * application.
+	 *
+	 * If reporter is null an IncorrectInputParametersException is thrown.
+	 *
+	 * @param reporter
+	 * @throws IncorrectInputParametersException
+	 */
+	public static void report(RunnerDateMetricsReporter reporter) throws IncorrectInputParametersException {
+		if (reporter == null) {
+			throw new IncorrectInputParametersException("Incorrect input parameters. Parameter reporter is mandatory.");
+		}
+		reporter.report(snapshot());
+	}
+
+	/**
+	 * Registers the metrics as {@link RunnerDateMetricsMXBean} named {@link #OBJECT_NAME} in the platform MBean server.
+	 * Registering again does nothing.
+	 *
+	 * @throws IllegalStateException
+	 *             if the registration fails
+	 */
+	public static void registerMBean() {
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		try {
+			ObjectName name = new ObjectName(OBJECT_NAME);
+			if (!server.isRegistered(name)) {
+				server.registerMBean(new MXBean(), name);
+			}
+		} catch (InstanceAlreadyExistsException iaee) {
+			// Registered by another thread
+		} catch (JMException jme) {
+			throw new IllegalStateException("Registering " + OBJECT_NAME + " failed.", jme);
+		}
+	}
+
+	/**
+	 * Removes the MBean registered by {@link #registerMBean()}, for example when an application is undeployed.
+	 * Unregistering a missing MBean does nothing.
+	 */
+	public static void unregisterMBean() {
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		try {
+			ObjectName name = new ObjectName(OBJECT_NAME);
+			if (server.isRegistered(name)) {
+				server.unregisterMBean(name);
+			}
+		} catch (JMException jme) {
+			// Unregistered by another thread
+		}
+	}
+
+	/**
+	 * Returns the histogram bucket of the given duration.
+	 *
+	 * @param nanos
+	 * @return bucket index
+	 */
+	static int bucketOf(long nanos) {
+		if (nanos <= 0) {
+			return 0;
+		}
+		return Math.min(63 - Long.numberOfLeadingZeros(nanos), BUCKET_COUNT - 1);
+	}
+
+	/**
+	 * Immutable values of the metrics at one point of time.
+	 */
+	public static final class Snapshot {
+
+		private final long[][] buckets;
+		private final long[] totalNanos;
+		private final long[][] failures;
+		private final Map<String, Long> formatCounts;
+
+		private Snapshot(long[][] buckets, long[] totalNanos, long[][] failures, Map<String, Long> formatCounts) {
+			this.buckets = buckets;
+			this.totalNanos = totalNanos;
+			this.failures = failures;
+			this.formatCounts = formatCounts;
+		}
+
+		/**
+		 * Returns the number of calls of the given kind.
+		 *
+		 * @param operation
+		 * @return number of calls
+		 */
+		public long getCount(Operation operation) {
+			long count = 0;
+			for (long bucket : buckets[operation.ordinal()]) {
+				count += bucket;
+			}
+			return count;
+		}
+
+		/**
+		 * Returns the time spent in calls of the given kind.
+		 *
+		 * @param operation
+		 * @return nanoseconds
+		 */
+		public long getTotalNanos(Operation operation) {
+			return totalNanos[operation.ordinal()];
+		}
+
+		/**
+		 * Returns the mean duration of calls of the given kind.
+		 *
+		 * @param operation
+		 * @return nanoseconds, 0 if there were no calls
+		 */
+		public long getMeanNanos(Operation operation) {
+			long count = getCount(operation);
+			return count == 0 ? 0 : totalNanos[operation.ordinal()] / count;
+		}
+
+		/**
+		 * Returns the upper bound of the histogram bucket holding the given percentile of the durations, so the value
+		 * is exact to a factor of two.
+		 *
+		 * If percentile is not between 0 and 100 an IncorrectInputParametersException is thrown.
+		 *
+		 * @param operation
+		 * @param percentile
+		 *            for example 99 for the 99th percentile
+		 * @return nanoseconds, 0 if there were no calls
+		 * @throws IncorrectInputParametersException
+		 */
+		public long getPercentileNanos(Operation operation, double percentile)
+				throws IncorrectInputParametersException {
+			if (!(percentile >= 0 && percentile <= 100)) {
+				throw new IncorrectInputParametersException(
+						"Incorrect input parameters. Parameter percentile must be between 0 and 100.");
+			}
+
+			long count = getCount(operation);
+			if (count == 0) {
+				return 0;
+			}
+			long rank = Math.max(1, (long) Math.ceil(count * percentile / 100));
+			long[] histogram = buckets[operation.ordinal()];
+			for (int i = 0; i < histogram.length; i++) {
+				rank -= histogram[i];
+				if (rank <= 0) {
+					return i == BUCKET_COUNT - 1 ? Long.MAX_VALUE : (1L << (i + 1)) - 1;
+				}
+			}
+			return Long.MAX_VALUE;
+		}
+
+		/**
+		 * Returns the histogram of the durations of calls of the given kind.
+		 *
+		 * @param operation
+		 * @return copy of the bucket counts, see {@link RunnerDateMetrics}
+		 */
+		public long[] getHistogram(Operation operation) {
+			return buckets[operation.ordinal()].clone();
+		}
+
+		/**
+		 * Returns the number of calls of the given kind that failed for the given cause.
+		 *
+		 * @param operation
+		 * @param failure
+		 * @return number of failed calls
+		 */
+		public long getFailureCount(Operation operation, Failure failure) {
+			return failures[operation.ordinal()][failure.ordinal()];
+		}
+
+		/**
+		 * Returns the number of failed calls of the given kind.
+		 *
+		 * @param operation
+		 * @return number of failed calls
+		 */
+		public long getFailureCount(Operation operation) {
+			long count = 0;
+			for (long failure : failures[operation.ordinal()]) {
+				count += failure;
+			}
+			return count;
+		}
+
+		/**
+		 * Returns how many parsed or validated strings matched each format.
+		 *
+		 * @return unmodifiable map from pattern to count
+		 */
+		public Map<String, Long> getFormatCounts() {
+			return formatCounts;
+		}
+	}
+
+	/*
+	 * Counters are created on first use, which only happens if metrics are enabled.
+	 */
+	private static final class Counters {
+
+		private static final LongAdder[][] BUCKETS = new LongAdder[Operation.values().length][BUCKET_COUNT];
+		private static final LongAdder[] TOTAL_NANOS = new LongAdder[Operation.values().length];
+		private static final LongAdder[][] FAILURES = new LongAdder[Operation.values().length][Failure.values().length];
+		private static final ConcurrentMap<String, LongAdder> FORMATS = new ConcurrentHashMap<String, LongAdder>();
+		private static final LongAdder OTHER_FORMAT_COUNT = new LongAdder();
+
+		static {
+			for (int i = 0; i < BUCKETS.length; i++) {
+				TOTAL_NANOS[i] = new LongAdder();
+				for (int j = 0; j < BUCKET_COUNT; j++) {
+					BUCKETS[i][j] = new LongAdder();
+				}
+				for (int j = 0; j < FAILURES[i].length; j++) {
+					FAILURES[i][j] = new LongAdder();
+				}
+			}
+		}
+
+		private Counters() {
+		}
+
+		static void record(Operation operation, long startTime) {
+			long nanos = System.nanoTime() - startTime;
+			BUCKETS[operation.ordinal()][bucketOf(nanos)].increment();
+			TOTAL_NANOS[operation.ordinal()].add(nanos);
+		}
+
+		static void recordFormat(String format) {
+			LongAdder count = FORMATS.get(format);
+			if (count == null) {
+				if (FORMATS.size() >= MAX_TRACKED_FORMATS) {
+					OTHER_FORMAT_COUNT.increment();
+					return;
+				}
+				count = new LongAdder();
+				LongAdder existing = FORMATS.putIfAbsent(format, count);
+				if (existing != null) {
+					count = existing;
+				}
+			}
+			count.increment();
+		}
+
+		static Snapshot snapshot() {
+			long[][] buckets = new long[BUCKETS.length][BUCKET_COUNT];
+			long[] totalNanos = new long[BUCKETS.length];
+			long[][] failures = new long[BUCKETS.length][Failure.values().length];
+			for (int i = 0; i < BUCKETS.length; i++) {
+				totalNanos[i] = TOTAL_NANOS[i].sum();
+				for (int j = 0; j < BUCKET_COUNT; j++) {
+					buckets[i][j] = BUCKETS[i][j].sum();
+				}
+				for (int j = 0; j < failures[i].length; j++) {
+					failures[i][j] = FAILURES[i][j].sum();
+				}
+			}
+
+			Map<String, Long> formatCounts = new LinkedHashMap<String, Long>();
+			for (Map.Entry<String, LongAdder> entry : FORMATS.entrySet()) {
+				formatCounts.put(entry.getKey(), entry.getValue().sum());
+			}
+			long otherFormatCount = OTHER_FORMAT_COUNT.sum();
+			if (otherFormatCount > 0) {
+				formatCounts.put(OTHER_FORMATS, otherFormatCount);
+			}
+			return new Snapshot(buckets, totalNanos, failures, Collections.unmodifiableMap(formatCounts));
+		}
+
+		static void reset() {
+			for (int i = 0; i < BUCKETS.length; i++) {
+				TOTAL_NANOS[i].reset();
+				for (int j = 0; j < BUCKET_COUNT; j++) {
+					BUCKETS[i][j].reset();
+				}
+				for (int j = 0; j < FAILURES[i].length; j++) {
+					FAILURES[i][j].reset();
+				}
+			}
+			FORMATS.clear();
+			OTHER_FORMAT_COUNT.reset();
+		}
+	}
+
+	/*
+	 * JMX view of the metrics, each attribute is computed from a fresh snapshot.
+	 */
+	private static final class MXBean implements RunnerDateMetricsMXBean {
+
+		@Override
+		public boolean isEnabled() {
+			return ENABLED;
+		}
+
+		@Override
+		public Map<String, Long> getCounts() {
+			Snapshot snapshot = snapshot();
+			Map<String, Long> values = new LinkedHashMap<String, Long>();
+			for (Operation operation : Operation.values()) {
+				values.put(operation.name(), snapshot.getCount(operation));
+			}
+			return values;
+		}
+
+		@Override
+		public Map<String, Long> getMeanNanos() {
+			Snapshot snapshot = snapshot();
+			Map<String, Long> values = new LinkedHashMap<String, Long>();
+			for (Operation operation : Operation.values()) {
+				values.put(operation.name(), snapshot.getMeanNanos(operation));
+			}
+			return values;
+		}
+
+		@Override
+		public Map<String, Long> getPercentile99Nanos() {
+			Snapshot snapshot = snapshot();
+			Map<String, Long> values = new LinkedHashMap<String, Long>();
+			for (Operation operation : Operation.values()) {
+				values.put(operation.name(), snapshot.getPercentileNanos(operation, 99));
+			}
+			return values;
+		}
+
+		@Override
+		public Map<String, Long> getFailureCounts() {
+			Snapshot snapshot = snapshot();
+			Map<String, Long> values = new LinkedHashMap<String, Long>();
+			for (Operation operation : Operation.values()) {
+				for (Failure failure : Failure.values()) {
+					values.put(operation + "." + failure, snapshot.getFailureCount(operation, failure));
+				}
+			}
+			return values;
+		}
+
+		@Override
+		public Map<String, Long> getFormatCounts() {
+			return new LinkedHashMap<String, Long>(snapshot().getFormatCounts());
+		}
+
+		@Override
+		public void reset() {
+			RunnerDateMetrics.reset();
+		}
+	}
+}
@@ -0,0 +1,48 @@
+package com.runner.architecture.util;
+
+import java.util.Map;
+
+/**
+ * JMX view of {@link RunnerDateMetrics}, registered with {@link RunnerDateMetrics#registerMBean()}. Maps are keyed by
+ * the names of the RunnerDateMetrics.Operation constants unless said otherwise.
+ *
+ * @author keshavprasad.akasam
+ *
+ */
+public interface RunnerDateMetricsMXBean {
+
+	/**
+	 * @return true if metrics are collected
+	 */
+	boolean isEnabled();
+
+	/**
+	 * @return number of calls per operation
+	 */
+	Map<String, Long> getCounts();
+
+	/**
+	 * @return mean duration in nanoseconds per operation
+	 */
+	Map<String, Long> getMeanNanos();
+
+	/**
+	 * @return 99th percentile of the durations in nanoseconds per operation, exact to a factor of two
+	 */
+	Map<String, Long> getPercentile99Nanos();
+
+	/**
+	 * @return number of failed calls keyed by operation and cause, for example PARSE.INVALID_DATE
+	 */
+	Map<String, Long> getFailureCounts();
+
+	/**
+	 * @return number of parsed or validated strings keyed by the pattern they matched
+	 */
+	Map<String, Long> getFormatCounts();
+
+	/**
+	 * Resets all metrics to zero.
+	 */
+	void reset();
+}
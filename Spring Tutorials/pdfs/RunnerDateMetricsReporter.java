@@ -0,0 +1,19 @@
+package com.runner.architecture.util;
+
+/**
+ * Receives snapshots of the RunnerDate metrics, for example to forward them to the monitoring system of the
+ * application. Snapshots are passed with {@link RunnerDateMetrics#report(RunnerDateMetricsReporter)}.
+ *
+ * @author keshavprasad.akasam
+ *
+ */
+public interface RunnerDateMetricsReporter {
+
+	/**
+	 * Handles the given snapshot. Counts in the snapshot are totals since start or the last reset, not differences to
+	 * the previous snapshot.
+	 *
+	 * @param snapshot
+	 */
+	void report(RunnerDateMetrics.Snapshot snapshot);
+}
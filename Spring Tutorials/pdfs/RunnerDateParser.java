@@ -0,0 +1,264 @@
+package com.runner.architecture.util;
+
+import java.text.DecimalFormat;
+import java.text.NumberFormat;
+import java.text.SimpleDateFormat;
+import java.util.GregorianCalendar;
+import java.util.TimeZone;
+
+/**
+ * Parses dates of a numeric pattern without SimpleDateFormat, the counterpart of {@link RunnerDatePrinter}. Supports
+ * patterns with y (three or more letters), M (one or two letters), d and optionally H, m, s and S, each at most once,
+ * together with unquoted ASCII literals. Nothing is allocated.
+ *
+ * Only the plain form of the text is parsed here: ASCII digits and the literals of the pattern, dates of 1583-9999 and
+ * times not next to a time zone offset change. For such text the result is the same as from the non-lenient
+ * SimpleDateFormat the parser was compiled from, set to the time zone given to parse. Anything else, for example
+ * spaces before a number, other digits or older years, returns {@link #NOT_PARSED} and must be parsed by the
+ * SimpleDateFormat.
+ *
+ * @author keshavprasad.akasam
+ *
+ */
+final class RunnerDateParser {
+
+	/* Result of text that SimpleDateFormat would reject as well */
+	static final long INVALID = Long.MIN_VALUE;
+
+	/* Result of text that must be parsed by SimpleDateFormat */
+	static final long NOT_PARSED = Long.MIN_VALUE + 1;
+
+	private static final byte LITERAL = 0;
+	private static final byte YEAR = 1;
+	private static final byte MONTH = 2;
+	private static final byte DAY = 3;
+	private static final byte HOUR = 4;
+	private static final byte MINUTE = 5;
+	private static final byte SECOND = 6;
+	private static final byte MILLISECOND = 7;
+	private static final int FIELD_COUNT = 8;
+
+	/* Longest number read here, longer numbers are left to SimpleDateFormat */
+	private static final int MAX_DIGITS = 9;
+
+	private static final int FIRST_YEAR = 1583;
+	private static final int LAST_YEAR = 9999;
+
+	private final byte[] kinds;
+
+	/* Char of a literal, number of pattern letters of a field */
+	private final int[] values;
+
+	/* True for fields followed by another field, SimpleDateFormat reads exactly as many digits as pattern letters */
+	private final boolean[] obeyCounts;
+
+	private RunnerDateParser(byte[] kinds, int[] values, boolean[] obeyCounts) {
+		this.kinds = kinds;
+		this.values = values;
+		this.obeyCounts = obeyCounts;
+	}
+
+	/**
+	 * Compiles parser equivalent to the given non-lenient format.
+	 *
+	 * @param dateFormat
+	 * @return parser or null if the pattern, calendar or digits of the format are not supported
+	 */
+	static RunnerDateParser compile(SimpleDateFormat dateFormat) {
+		if (dateFormat.isLenient() || dateFormat.getCalendar().getClass() != GregorianCalendar.class) {
+			return null;
+		}
+		NumberFormat numberFormat = dateFormat.getNumberFormat();
+		if (!(numberFormat instanceof DecimalFormat)
+				|| ((DecimalFormat) numberFormat).getDecimalFormatSymbols().getZeroDigit() != '0') {
+			return null;
+		}
+
+		String pattern = dateFormat.toPattern();
+		byte[] kinds = new byte[pattern.length()];
+		int[] values = new int[pattern.length()];
+		boolean[] seen = new boolean[FIELD_COUNT];
+		int count = 0;
+
+		for (int i = 0; i < pattern.length();) {
+			char c = pattern.charAt(i);
+			int end = i + 1;
+			while (end < pattern.length() && pattern.charAt(end) == c) {
+				end++;
+			}
+
+			if (c == '\'' || c >= 128) {
+				return null;
+			}
+			if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z')) {
+				byte kind = kindOf(c, end - i);
+				if (kind == LITERAL || seen[kind]) {
+					return null;
+				}
+				seen[kind] = true;
+				kinds[count] = kind;
+				values[count++] = end - i;
+			} else {
+				for (int j = i; j < end; j++) {
+					kinds[count] = LITERAL;
+					values[count++] = c;
+				}
+			}
+			i = end;
+		}
+
+		if (!seen[YEAR] || !seen[MONTH] || !seen[DAY]) {
+			return null;
+		}
+
+		byte[] compiledKinds = new byte[count];
+		int[] compiledValues = new int[count];
+		boolean[] obeyCounts = new boolean[count];
+		System.arraycopy(kinds, 0, compiledKinds, 0, count);
+		System.arraycopy(values, 0, compiledValues, 0, count);
+		for (int i = 0; i + 1 < count; i++) {
+			obeyCounts[i] = kinds[i] != LITERAL && kinds[i + 1] != LITERAL;
+		}
+		return new RunnerDateParser(compiledKinds, compiledValues, obeyCounts);
+	}
+
+	/**
+	 * Parses the text from the given start in the given time zone. Like SimpleDateFormat.parse(String) the text may
+	 * continue after the pattern.
+	 *
+	 * @param text
+	 * @param start
+	 * @param end
+	 * @param zone
+	 * @return epoch milliseconds, INVALID or NOT_PARSED
+	 */
+	long parse(CharSequence text, int start, int end, TimeZone zone) {
+		int year = 0;
+		int month = 0;
+		int day = 0;
+		int millisOfDay = 0;
+		int position = start;
+
+		for (int i = 0; i < kinds.length; i++) {
+			int value = values[i];
+			if (kinds[i] == LITERAL) {
+				if (position >= end || text.charAt(position) != value) {
+					return INVALID;
+				}
+				position++;
+				continue;
+			}
+
+			if (position >= end) {
+				return INVALID;
+			}
+			char c = text.charAt(position);
+			if (c < '0' || c > '9') {
+				// Signs, spaces and other digits are accepted by SimpleDateFormat
+				return c < 128 && c != ' ' && c != '\t' && c != '-' && c != '+' && !isLetter(c) ? INVALID
+						: NOT_PARSED;
+			}
+
+			int limit = obeyCounts[i] ? Math.min(end, position + value) : Math.min(end, position + MAX_DIGITS + 1);
+			int number = 0;
+			int digitsStart = position;
+			while (position < limit && (c = text.charAt(position)) >= '0' && c <= '9') {
+				number = number * 10 + c - '0';
+				position++;
+			}
+
+			if (obeyCounts[i] ? position - digitsStart != value : position - digitsStart > MAX_DIGITS) {
+				return NOT_PARSED;
+			}
+			if (!obeyCounts[i] && position < end) {
+				// A number may continue with other digits or an exponent
+				c = text.charAt(position);
+				if (c >= 128 || isLetter(c)) {
+					return NOT_PARSED;
+				}
+			}
+
+			switch (kinds[i]) {
+			case YEAR:
+				year = number;
+				break;
+			case MONTH:
+				month = number;
+				break;
+			case DAY:
+				day = number;
+				break;
+			case HOUR:
+				if (number > 23) {
+					return INVALID;
+				}
+				millisOfDay += number * 3600000;
+				break;
+			case MINUTE:
+				if (number > 59) {
+					return INVALID;
+				}
+				millisOfDay += number * 60000;
+				break;
+			case SECOND:
+				if (number > 59) {
+					return INVALID;
+				}
+				millisOfDay += number * 1000;
+				break;
+			default:
+				if (number > 999) {
+					return INVALID;
+				}
+				millisOfDay += number;
+				break;
+			}
+		}
+
+		if (year < FIRST_YEAR || year > LAST_YEAR) {
+			return NOT_PARSED;
+		}
+		if (month < 1 || month > 12 || day < 1 || day > RunnerEpochDate.lengthOfMonth(year, month)) {
+			return INVALID;
+		}
+
+		long localMillis = RunnerEpochDate.of(year, month, day) * RunnerEpochDate.MILLISECONDS_PER_DAY + millisOfDay;
+		int offset = zone.getOffset(localMillis - zone.getRawOffset());
+		long epochMillis = localMillis - offset;
+
+		if (zone.getOffset(epochMillis - RunnerEpochDate.MILLISECONDS_PER_DAY) == offset
+				&& zone.getOffset(epochMillis + RunnerEpochDate.MILLISECONDS_PER_DAY) == offset) {
+			return epochMillis;
+		}
+
+		// Offset changes near the given time, times in a gap are rejected by the non-lenient calendar
+		return NOT_PARSED;
+	}
+
+	private static boolean isLetter(char c) {
+		return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+	}
+
+	private static byte kindOf(char letter, int count) {
+		switch (letter) {
+		case 'y':
+			// y and yy read two digit years relative to the current century
+			return count >= 3 ? YEAR : LITERAL;
+		case 'M':
+			// MMM and longer are month names
+			return count <= 2 ? MONTH : LITERAL;
+		case 'd':
+			return DAY;
+		case 'H':
+			return HOUR;
+		case 'm':
+			return MINUTE;
+		case 's':
+			return SECOND;
+		case 'S':
+			return MILLISECOND;
+		default:
+			return LITERAL;
+		}
+	}
+}
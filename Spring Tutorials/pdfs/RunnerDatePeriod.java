@@ -0,0 +1,92 @@
+package com.runner.architecture.util;
+
+/**
+ * Whole years, months and days between two epoch days. Periods are computed from the year, month and day fields in
+ * constant time and returned packed into a long, read with getYears, getMonths, getDays and getTotalMonths, so
+ * nothing is allocated.
+ *
+ * A month is whole when adding it with RunnerEpochDate.plusMonths to the start day does not pass the end day. Month
+ * ends are clamped like Calendar.add: from 31.1 one month is full on 28.2 (29.2 in leap years), and from 29.2 one
+ * year is full on 28.2 of the next year. If the end is before the start all parts of the period are negative.
+ *
+ * @author keshavprasad.akasam
+ *
+ */
+public final class RunnerDatePeriod {
+
+	private RunnerDatePeriod() {
+	}
+
+	/**
+	 * Calculates the period from start to end.
+	 *
+	 * @param startEpochDay
+	 * @param endEpochDay
+	 * @return packed period
+	 */
+	public static long between(int startEpochDay, int endEpochDay) {
+		if (endEpochDay < startEpochDay) {
+			long period = between(endEpochDay, startEpochDay);
+			return pack(-getTotalMonths(period), -getDays(period));
+		}
+
+		int start = RunnerEpochDate.toFields(startEpochDay);
+		int end = RunnerEpochDate.toFields(endEpochDay);
+		int endYear = RunnerEpochDate.yearOf(end);
+		int endMonth = RunnerEpochDate.monthOf(end);
+		int totalMonths = (endYear - RunnerEpochDate.yearOf(start)) * 12 + endMonth - RunnerEpochDate.monthOf(start);
+
+		// The day of the start clamped to the length of the end month
+		int monthDay = Math.min(RunnerEpochDate.dayOf(start), RunnerEpochDate.lengthOfMonth(endYear, endMonth));
+		if (RunnerEpochDate.dayOf(end) < monthDay) {
+			totalMonths--;
+		}
+
+		int days = endEpochDay - RunnerEpochDate.plusMonths(startEpochDay, totalMonths);
+		return pack(totalMonths, days);
+	}
+
+	/**
+	 * Returns the whole years of the period.
+	 *
+	 * @param period
+	 * @return years
+	 */
+	public static int getYears(long period) {
+		return getTotalMonths(period) / 12;
+	}
+
+	/**
+	 * Returns the whole months of the period left after the whole years.
+	 *
+	 * @param period
+	 * @return months. Values from -11 to 11
+	 */
+	public static int getMonths(long period) {
+		return getTotalMonths(period) % 12;
+	}
+
+	/**
+	 * Returns the days of the period left after the whole months.
+	 *
+	 * @param period
+	 * @return days. Values from -30 to 30
+	 */
+	public static int getDays(long period) {
+		return (int) period;
+	}
+
+	/**
+	 * Returns the whole months of the period including the months of the whole years.
+	 *
+	 * @param period
+	 * @return months
+	 */
+	public static int getTotalMonths(long period) {
+		return (int) (period >> 32);
+	}
+
+	private static long pack(int totalMonths, int days) {
+		return (long) totalMonths << 32 | (days & 0xFFFFFFFFL);
+	}
+}
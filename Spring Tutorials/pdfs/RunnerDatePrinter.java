@@ -0,0 +1,231 @@
+package com.runner.architecture.util;
+
+import java.text.DecimalFormat;
+import java.text.NumberFormat;
+import java.text.SimpleDateFormat;
+import java.util.GregorianCalendar;
+import java.util.TimeZone;
+
+/**
+ * Formats dates of a numeric pattern into a char array without SimpleDateFormat. Supports the pattern letters y, M,
+ * d, H, m, s and S as numbers together with unquoted ASCII literals, which covers the date and time stamp formats of
+ * RunnerDate. Digits are written from precomputed tables and fields are computed from epoch days, nothing is
+ * allocated.
+ *
+ * The output is the same as the SimpleDateFormat the printer was compiled from, set to the time zone given to print.
+ * Dates outside 1583-9999 are left to the SimpleDateFormat, see {@link #print(long, char[], TimeZone)}.
+ *
+ * @author keshavprasad.akasam
+ *
+ */
+final class RunnerDatePrinter {
+
+	private static final byte LITERAL = 0;
+	private static final byte YEAR = 1;
+	private static final byte YEAR_OF_CENTURY = 2;
+	private static final byte MONTH = 3;
+	private static final byte DAY = 4;
+	private static final byte HOUR = 5;
+	private static final byte MINUTE = 6;
+	private static final byte SECOND = 7;
+	private static final byte MILLISECOND = 8;
+
+	/* Widest number field supported, wider fields are left to SimpleDateFormat */
+	private static final int MAX_FIELD_WIDTH = 4;
+
+	/* Last day printed here, later years may need more than four digits */
+	private static final int LAST_EPOCH_DAY = RunnerEpochDate.of(9999, 12, 31);
+
+	/* Tens and ones digit of 0-99 */
+	private static final char[] DIGIT_TENS = new char[100];
+	private static final char[] DIGIT_ONES = new char[100];
+
+	static {
+		for (int i = 0; i < 100; i++) {
+			DIGIT_TENS[i] = (char) ('0' + i / 10);
+			DIGIT_ONES[i] = (char) ('0' + i % 10);
+		}
+	}
+
+	private final byte[] kinds;
+	private final int[] values;
+	private final int maximumLength;
+
+	private RunnerDatePrinter(byte[] kinds, int[] values, int maximumLength) {
+		this.kinds = kinds;
+		this.values = values;
+		this.maximumLength = maximumLength;
+	}
+
+	/**
+	 * Compiles printer equivalent to the given format.
+	 *
+	 * @param dateFormat
+	 * @return printer or null if the pattern, calendar or digits of the format are not supported
+	 */
+	static RunnerDatePrinter compile(SimpleDateFormat dateFormat) {
+		if (dateFormat.getCalendar().getClass() != GregorianCalendar.class) {
+			return null;
+		}
+		NumberFormat numberFormat = dateFormat.getNumberFormat();
+		if (!(numberFormat instanceof DecimalFormat)
+				|| ((DecimalFormat) numberFormat).getDecimalFormatSymbols().getZeroDigit() != '0') {
+			return null;
+		}
+
+		String pattern = dateFormat.toPattern();
+		byte[] kinds = new byte[pattern.length()];
+		int[] values = new int[pattern.length()];
+		int count = 0;
+		int maximumLength = 0;
+
+		for (int i = 0; i < pattern.length();) {
+			char c = pattern.charAt(i);
+			int end = i + 1;
+			while (end < pattern.length() && pattern.charAt(end) == c) {
+				end++;
+			}
+
+			if (c == '\'' || c >= 128) {
+				return null;
+			}
+			if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z')) {
+				// Letters without a numeric field map to LITERAL and are not supported
+				byte kind = kindOf(c, end - i);
+				if (kind == LITERAL || end - i > MAX_FIELD_WIDTH) {
+					return null;
+				}
+				kinds[count] = kind;
+				values[count++] = end - i;
+				maximumLength += MAX_FIELD_WIDTH;
+			} else {
+				for (int j = i; j < end; j++) {
+					kinds[count] = LITERAL;
+					values[count++] = c;
+					maximumLength++;
+				}
+			}
+			i = end;
+		}
+
+		byte[] compiledKinds = new byte[count];
+		int[] compiledValues = new int[count];
+		System.arraycopy(kinds, 0, compiledKinds, 0, count);
+		System.arraycopy(values, 0, compiledValues, 0, count);
+		return new RunnerDatePrinter(compiledKinds, compiledValues, maximumLength);
+	}
+
+	/**
+	 * Returns the longest output of this printer.
+	 *
+	 * @return maximum number of chars
+	 */
+	int getMaximumLength() {
+		return maximumLength;
+	}
+
+	/**
+	 * Prints the given instant in the given time zone into the buffer from index 0.
+	 *
+	 * @param epochMillis
+	 * @param buffer
+	 *            buffer of at least getMaximumLength() chars
+	 * @param zone
+	 * @return number of chars printed or -1 if the date is before 1583 or after 9999 and must be formatted by
+	 *         SimpleDateFormat
+	 */
+	int print(long epochMillis, char[] buffer, TimeZone zone) {
+		long localMillis = epochMillis + zone.getOffset(epochMillis);
+		long epochDay = Math.floorDiv(localMillis, RunnerEpochDate.MILLISECONDS_PER_DAY);
+		if (epochDay < RunnerEpochDate.FIRST_GREGORIAN_ONLY_EPOCH_DAY || epochDay > LAST_EPOCH_DAY) {
+			return -1;
+		}
+
+		int fields = RunnerEpochDate.toFields((int) epochDay);
+		int millisOfDay = (int) (localMillis - epochDay * RunnerEpochDate.MILLISECONDS_PER_DAY);
+		int position = 0;
+
+		for (int i = 0; i < kinds.length; i++) {
+			int width = values[i];
+			switch (kinds[i]) {
+			case LITERAL:
+				buffer[position++] = (char) width;
+				break;
+			case YEAR:
+				position = printNumber(RunnerEpochDate.yearOf(fields), width, buffer, position);
+				break;
+			case YEAR_OF_CENTURY:
+				position = printNumber(RunnerEpochDate.yearOf(fields) % 100, 2, buffer, position);
+				break;
+			case MONTH:
+				position = printNumber(RunnerEpochDate.monthOf(fields), width, buffer, position);
+				break;
+			case DAY:
+				position = printNumber(RunnerEpochDate.dayOf(fields), width, buffer, position);
+				break;
+			case HOUR:
+				position = printNumber(millisOfDay / 3600000, width, buffer, position);
+				break;
+			case MINUTE:
+				position = printNumber(millisOfDay / 60000 % 60, width, buffer, position);
+				break;
+			case SECOND:
+				position = printNumber(millisOfDay / 1000 % 60, width, buffer, position);
+				break;
+			default:
+				position = printNumber(millisOfDay % 1000, width, buffer, position);
+				break;
+			}
+		}
+
+		return position;
+	}
+
+	private static byte kindOf(char letter, int count) {
+		switch (letter) {
+		case 'y':
+			// SimpleDateFormat truncates yy to two digits, other counts are minimum widths
+			return count == 2 ? YEAR_OF_CENTURY : YEAR;
+		case 'M':
+			// MMM and longer are month names
+			return count <= 2 ? MONTH : LITERAL;
+		case 'd':
+			return DAY;
+		case 'H':
+			return HOUR;
+		case 'm':
+			return MINUTE;
+		case 's':
+			return SECOND;
+		case 'S':
+			return MILLISECOND;
+		default:
+			return LITERAL;
+		}
+	}
+
+	/**
+	 * Prints value of 0-9999 zero padded to the given width.
+	 */
+	private static int printNumber(int value, int width, char[] buffer, int position) {
+		int digits = value < 10 ? 1 : value < 100 ? 2 : value < 1000 ? 3 : 4;
+		for (int i = digits; i < width; i++) {
+			buffer[position++] = '0';
+		}
+
+		if (digits > 2) {
+			int high = value / 100;
+			if (digits == 4) {
+				buffer[position++] = DIGIT_TENS[high];
+			}
+			buffer[position++] = DIGIT_ONES[high];
+			value -= high * 100;
+			buffer[position++] = DIGIT_TENS[value];
+		} else if (digits == 2) {
+			buffer[position++] = DIGIT_TENS[value];
+		}
+		buffer[position++] = DIGIT_ONES[value];
+
+		return position;
+	}
+}
@@ -0,0 +1,493 @@
+package com.runner.architecture.util;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.TimeZone;
+
+/**
+ * Immutable index of date periods that answers which periods contain a date in logarithmic time. Built for checking
+ * many dates against the same large set of validity periods, where calling RunnerDate.isDateBetweenOrEqualToTwoDates
+ * or RunnerDate.isDateBetweenTwoDates once per period would be too slow.
+ *
+ * An index has the semantics of one of the two methods, chosen when the builder is created:
+ * <ul>
+ * <li>{@link #betweenOrEqualBuilder()}: a period contains a date like isDateBetweenOrEqualToTwoDates(start, end,
+ * date), comparing days only. A null date is treated as later than any date, as in RunnerDate.compareDates, so a
+ * null end leaves the period open.</li>
+ * <li>{@link #betweenBuilder()}: a period contains a date like isDateBetweenTwoDates(start, end, date), comparing
+ * instants and excluding both ends. Periods and dates with null values never match.</li>
+ * </ul>
+ *
+ * Periods are identified by the order in which they were added, starting from 0. Internally the bounds are stored as
+ * inclusive epoch days (epoch milliseconds for betweenBuilder) in primitive arrays sorted by start, with an implicit
+ * interval tree over them.
+ *
+ * Instances are immutable and can be used by several threads at once.
+ *
+ * @author keshavprasad.akasam
+ *
+ */
+public final class RunnerDateRangeIndex {
+
+	/* Key of null dates in a betweenOrEqual index, later than every date */
+	private static final long NULL_KEY = Long.MAX_VALUE;
+
+	/* Subtrees of this level or lower are scanned linearly */
+	private static final int SCAN_LEVEL = 3;
+
+	private final boolean betweenOrEqual;
+	private final int periodCount;
+
+	/* Matchable periods sorted by start */
+	private final long[] starts;
+	private final long[] ends;
+	private final int[] periodIds;
+
+	/* Largest end in the implicit tree below each index and largest end up to each index */
+	private final long[] subtreeMaxEnds;
+	private final long[] prefixMaxEnds;
+	private final int rootLevel;
+
+	private RunnerDateRangeIndex(boolean betweenOrEqual, int periodCount, long[] starts, long[] ends, int[] periodIds) {
+		this.betweenOrEqual = betweenOrEqual;
+		this.periodCount = periodCount;
+		this.starts = starts;
+		this.ends = ends;
+		this.periodIds = periodIds;
+		this.subtreeMaxEnds = new long[starts.length];
+		this.prefixMaxEnds = new long[starts.length];
+		this.rootLevel = buildSubtreeMaxEnds(ends, subtreeMaxEnds);
+
+		for (int i = 0; i < ends.length; i++) {
+			prefixMaxEnds[i] = i == 0 ? ends[i] : Math.max(prefixMaxEnds[i - 1], ends[i]);
+		}
+	}
+
+	/**
+	 * Returns builder of an index with the semantics of RunnerDate.isDateBetweenOrEqualToTwoDates.
+	 *
+	 * @return builder
+	 */
+	public static Builder betweenOrEqualBuilder() {
+		return new Builder(true);
+	}
+
+	/**
+	 * Returns builder of an index with the semantics of RunnerDate.isDateBetweenTwoDates.
+	 *
+	 * @return builder
+	 */
+	public static Builder betweenBuilder() {
+		return new Builder(false);
+	}
+
+	/**
+	 * Returns true if the index has the semantics of RunnerDate.isDateBetweenOrEqualToTwoDates, false if it has the
+	 * semantics of RunnerDate.isDateBetweenTwoDates.
+	 *
+	 * @return true for an inclusive day index
+	 */
+	public boolean isBetweenOrEqual() {
+		return betweenOrEqual;
+	}
+
+	/**
+	 * Returns the number of added periods.
+	 *
+	 * @return size
+	 */
+	public int size() {
+		return periodCount;
+	}
+
+	/**
+	 * Checks whether any period contains the given date.
+	 *
+	 * @param date
+	 * @return true if at least one period contains the date
+	 */
+	public boolean containsAny(Date date) {
+		if (date == null && !betweenOrEqual) {
+			return false;
+		}
+		return containsAny(keyOf(date, TimeZone.getDefault()));
+	}
+
+	/**
+	 * Checks whether any period contains the given epoch day. Only for betweenOrEqual indexes.
+	 *
+	 * @param epochDay
+	 * @return true if at least one period contains the day
+	 * @throws IncorrectInputParametersException
+	 */
+	public boolean containsAny(int epochDay) throws IncorrectInputParametersException {
+		checkBetweenOrEqual();
+		return containsAny((long) epochDay);
+	}
+
+	/**
+	 * Returns the periods that contain the given date.
+	 *
+	 * @param date
+	 * @return ids of the periods in ascending order
+	 */
+	public int[] getContaining(Date date) {
+		if (date == null && !betweenOrEqual) {
+			return new int[0];
+		}
+		return getContaining(keyOf(date, TimeZone.getDefault()));
+	}
+
+	/**
+	 * Returns the periods that contain the given epoch day. Only for betweenOrEqual indexes.
+	 *
+	 * @param epochDay
+	 * @return ids of the periods in ascending order
+	 * @throws IncorrectInputParametersException
+	 */
+	public int[] getContaining(int epochDay) throws IncorrectInputParametersException {
+		checkBetweenOrEqual();
+		return getContaining((long) epochDay);
+	}
+
+	/**
+	 * Returns the number of periods that contain the given date.
+	 *
+	 * @param date
+	 * @return number of periods
+	 */
+	public int countContaining(Date date) {
+		if (date == null && !betweenOrEqual) {
+			return 0;
+		}
+		return stab(keyOf(date, TimeZone.getDefault()), null);
+	}
+
+	/**
+	 * Checks for every date of a sorted list whether any period contains it. The list is processed in one pass
+	 * together with the periods, which is faster than calling containsAny(Date) per date. Dates must be in ascending
+	 * order by day for betweenOrEqual indexes and by instant otherwise; nulls go last in a betweenOrEqual index and
+	 * are not allowed in a between index.
+	 *
+	 * If dates is null, not sorted or contains a null where not allowed, an IncorrectInputParametersException is
+	 * thrown.
+	 *
+	 * @param sortedDates
+	 * @param contained
+	 *            receives the indexes of the dates contained by some period, may be null
+	 * @return number of contained dates
+	 * @throws IncorrectInputParametersException
+	 */
+	public int containsAny(List<? extends Date> sortedDates, BitSet contained)
+			throws IncorrectInputParametersException {
+		if (sortedDates == null) {
+			throw new IncorrectInputParametersException("Incorrect input parameters. Parameter dates is mandatory.");
+		}
+
+		Sweep sweep = new Sweep(contained, sortedDates.size());
+		TimeZone zone = TimeZone.getDefault();
+		for (int i = 0; i < sortedDates.size(); i++) {
+			Date date = sortedDates.get(i);
+			if (date == null && !betweenOrEqual) {
+				throw new IncorrectInputParametersException("Incorrect input parameters. Date at index " + i
+						+ " was null.");
+			}
+			sweep.next(i, keyOf(date, zone));
+		}
+		return sweep.count;
+	}
+
+	/**
+	 * Same as {@link #containsAny(List, BitSet)} for sorted epoch days. Only for betweenOrEqual indexes.
+	 *
+	 * @param sortedEpochDays
+	 * @param contained
+	 *            receives the indexes of the days contained by some period, may be null
+	 * @return number of contained days
+	 * @throws IncorrectInputParametersException
+	 */
+	public int containsAny(int[] sortedEpochDays, BitSet contained) throws IncorrectInputParametersException {
+		checkBetweenOrEqual();
+		if (sortedEpochDays == null) {
+			throw new IncorrectInputParametersException(
+					"Incorrect input parameters. Parameter epochDays is mandatory.");
+		}
+
+		Sweep sweep = new Sweep(contained, sortedEpochDays.length);
+		for (int i = 0; i < sortedEpochDays.length; i++) {
+			sweep.next(i, sortedEpochDays[i]);
+		}
+		return sweep.count;
+	}
+
+	private boolean containsAny(long key) {
+		// Last period starting at or before the key
+		int index = upperBound(key) - 1;
+		return index >= 0 && prefixMaxEnds[index] >= key;
+	}
+
+	private int[] getContaining(long key) {
+		int[] periods = new int[stab(key, null)];
+		stab(key, periods);
+		Arrays.sort(periods);
+		return periods;
+	}
+
+	/**
+	 * Finds the periods containing the key by walking the implicit interval tree.
+	 *
+	 * @param key
+	 * @param periods
+	 *            receives the ids of found periods, null to only count them
+	 * @return number of found periods
+	 */
+	private int stab(long key, int[] periods) {
+		int n = starts.length;
+		if (n == 0) {
+			return 0;
+		}
+
+		int found = 0;
+		// Each stack entry is level, index and whether the left subtree is done
+		int[] levels = new int[2 * (rootLevel + 2)];
+		int[] indexes = new int[levels.length];
+		boolean[] leftDone = new boolean[levels.length];
+		int top = 0;
+		levels[top] = rootLevel;
+		indexes[top] = (1 << rootLevel) - 1;
+		leftDone[top++] = false;
+
+		while (top > 0) {
+			top--;
+			int level = levels[top];
+			int index = indexes[top];
+
+			if (level <= SCAN_LEVEL) {
+				int first = index >> level << level;
+				int last = (int) Math.min((long) first + (1L << (level + 1)) - 1, n);
+				for (int i = first; i < last && starts[i] <= key; i++) {
+					if (ends[i] >= key) {
+						found = report(periods, found, i);
+					}
+				}
+			} else if (!leftDone[top]) {
+				int left = index - (1 << (level - 1));
+				leftDone[top++] = true;
+				// The left child can be past the end while its own left subtree still has periods
+				if (left >= n || subtreeMaxEnds[left] >= key) {
+					levels[top] = level - 1;
+					indexes[top] = left;
+					leftDone[top++] = false;
+				}
+			} else if (index < n && starts[index] <= key) {
+				if (ends[index] >= key) {
+					found = report(periods, found, index);
+				}
+				levels[top] = level - 1;
+				indexes[top] = index + (1 << (level - 1));
+				leftDone[top++] = false;
+			}
+		}
+
+		return found;
+	}
+
+	private int report(int[] periods, int found, int index) {
+		if (periods != null) {
+			periods[found] = periodIds[index];
+		}
+		return found + 1;
+	}
+
+	private int upperBound(long key) {
+		int low = 0;
+		int high = starts.length;
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (starts[middle] <= key) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+		return low;
+	}
+
+	private long keyOf(Date date, TimeZone zone) {
+		if (!betweenOrEqual) {
+			return date.getTime();
+		}
+		return date == null ? NULL_KEY : RunnerEpochDate.toEpochDay(date.getTime(), zone);
+	}
+
+	private void checkBetweenOrEqual() throws IncorrectInputParametersException {
+		if (!betweenOrEqual) {
+			throw new IncorrectInputParametersException(
+					"Incorrect input parameters. Epoch days can only be used with a betweenOrEqual index.");
+		}
+	}
+
+	/**
+	 * Stores the largest end of each subtree of the implicit tree in which the root of level k subtrees are the
+	 * indexes with k trailing ones. Indexes past the end are treated as holding the largest end of the last subtree.
+	 *
+	 * @return level of the root
+	 */
+	private static int buildSubtreeMaxEnds(long[] ends, long[] maxEnds) {
+		int n = ends.length;
+		if (n == 0) {
+			return -1;
+		}
+
+		int lastIndex = 0;
+		long lastMax = 0;
+		for (int i = 0; i < n; i += 2) {
+			lastIndex = i;
+			maxEnds[i] = ends[i];
+			lastMax = ends[i];
+		}
+
+		int level = 1;
+		for (; 1L << level <= n; level++) {
+			int half = 1 << (level - 1);
+			long step = (long) half << 2;
+			for (long i = ((long) half << 1) - 1; i < n; i += step) {
+				int index = (int) i;
+				long leftMax = maxEnds[index - half];
+				long rightMax = index + (long) half < n ? maxEnds[index + half] : lastMax;
+				maxEnds[index] = Math.max(ends[index], Math.max(leftMax, rightMax));
+			}
+			lastIndex = (lastIndex >> level & 1) != 0 ? lastIndex - half : lastIndex + half;
+			if (lastIndex < n && maxEnds[lastIndex] > lastMax) {
+				lastMax = maxEnds[lastIndex];
+			}
+		}
+
+		return level - 1;
+	}
+
+	/**
+	 * Merges sorted query keys with the periods sorted by start.
+	 */
+	private final class Sweep {
+
+		private final BitSet contained;
+		private int started;
+		private long previousKey = Long.MIN_VALUE;
+		private int count;
+
+		private Sweep(BitSet contained, int size) {
+			this.contained = contained;
+			if (contained != null) {
+				contained.clear(0, size);
+			}
+		}
+
+		private void next(int position, long key) {
+			if (key < previousKey) {
+				throw new IncorrectInputParametersException("Incorrect input parameters. Dates are not sorted at index "
+						+ position + ".");
+			}
+			previousKey = key;
+
+			while (started < starts.length && starts[started] <= key) {
+				started++;
+			}
+			if (started > 0 && prefixMaxEnds[started - 1] >= key) {
+				count++;
+				if (contained != null) {
+					contained.set(position);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Collects periods for an index. A builder can build several indexes, each with the periods added so far.
+	 */
+	public static final class Builder {
+
+		private final boolean betweenOrEqual;
+		private long[] starts = new long[16];
+		private long[] ends = new long[16];
+		private int[] periodIds = new int[16];
+		private int matchableCount;
+		private int periodCount;
+
+		private Builder(boolean betweenOrEqual) {
+			this.betweenOrEqual = betweenOrEqual;
+		}
+
+		/**
+		 * Adds period from start to end. Bounds are compared as in the method the index was created for.
+		 *
+		 * @param start
+		 * @param end
+		 * @return id of the period
+		 */
+		public int add(Date start, Date end) {
+			int periodId = periodCount++;
+			long first;
+			long last;
+
+			if (betweenOrEqual) {
+				TimeZone zone = TimeZone.getDefault();
+				first = start == null ? NULL_KEY : RunnerEpochDate.toEpochDay(start.getTime(), zone);
+				last = end == null ? NULL_KEY : RunnerEpochDate.toEpochDay(end.getTime(), zone);
+			} else {
+				// Exclusive instants as inclusive bounds, periods with nothing in between never match
+				if (start == null || end == null || start.getTime() >= end.getTime()) {
+					return periodId;
+				}
+				first = start.getTime() + 1;
+				last = end.getTime() - 1;
+			}
+			if (first > last) {
+				return periodId;
+			}
+
+			if (matchableCount == starts.length) {
+				int capacity = starts.length * 2;
+				starts = Arrays.copyOf(starts, capacity);
+				ends = Arrays.copyOf(ends, capacity);
+				periodIds = Arrays.copyOf(periodIds, capacity);
+			}
+			starts[matchableCount] = first;
+			ends[matchableCount] = last;
+			periodIds[matchableCount++] = periodId;
+			return periodId;
+		}
+
+		/**
+		 * Builds index of the periods added so far.
+		 *
+		 * @return index
+		 */
+		public RunnerDateRangeIndex build() {
+			Integer[] order = new Integer[matchableCount];
+			for (int i = 0; i < matchableCount; i++) {
+				order[i] = i;
+			}
+			Arrays.sort(order, new Comparator<Integer>() {
+				@Override
+				public int compare(Integer index1, Integer index2) {
+					return Long.compare(starts[index1], starts[index2]);
+				}
+			});
+
+			long[] sortedStarts = new long[matchableCount];
+			long[] sortedEnds = new long[matchableCount];
+			int[] sortedIds = new int[matchableCount];
+			for (int i = 0; i < matchableCount; i++) {
+				sortedStarts[i] = starts[order[i]];
+				sortedEnds[i] = ends[order[i]];
+				sortedIds[i] = periodIds[order[i]];
+			}
+
+			return new RunnerDateRangeIndex(betweenOrEqual, periodCount, sortedStarts, sortedEnds, sortedIds);
+		}
+	}
+}
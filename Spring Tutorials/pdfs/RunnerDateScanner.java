@@ -0,0 +1,373 @@
+package com.runner.architecture.util;
+
+import java.util.Calendar;
+import java.util.TimeZone;
+
+/**
+ * Single pass scanner for the date strings accepted by RunnerDate.isDateValid and RunnerDate.convertStringToDate.
+ * Recognised shapes: dd-MM-yyyy, dd.MM.yyyy, d.M.yyyy (and the mixed one and two digit variants) and ddMMyyyy.
+ *
+ * Scanning uses neither regular expressions nor exceptions. Results are the same as with the non-lenient
+ * DATE_FORMAT_LIST patterns: both separators must be the same character, year must have four digits and day, month
+ * and year must form an existing date in the default calendar. Scanning does not look at the time zone; callers check
+ * with {@link #existsIn(int, TimeZone)} or {@link #toEpochMillis(int, TimeZone)} that the zone does not skip the day.
+ *
+ * The VRK format yyyyMMdd is scanned by {@link #scanCompactDate(CharSequence, int, int)}.
+ *
+ * A successful scan returns the date packed as yyyyMMdd into an int, a failed scan returns {@link #INVALID}.
+ *
+ * {@link #shapeOf(CharSequence, int, int)} tells which of the shapes a date string has. Callers that expect one shape,
+ * like a column locked onto one format, pass the accepted shapes to
+ * {@link #scanDate(CharSequence, int, int, int)} so that other shapes are rejected before scanning.
+ *
+ * @author keshavprasad.akasam
+ *
+ */
+final class RunnerDateScanner {
+
+	/* Returned when the input is not a supported date */
+	static final int INVALID = -1;
+
+	/* Returned when the input has to be checked with the full format rules */
+	static final int NOT_SCANNED = -2;
+
+	/* Shapes of date strings, see shapeOf */
+	static final int NO_SHAPE = -1;
+	static final int LINE_SEPARATED_SHAPE = 0;
+	static final int DOT_SEPARATED_SHAPE = 1;
+	static final int SHORT_DOT_SEPARATED_SHAPE = 2;
+	static final int COMPACT_SHAPE = 3;
+	static final int ISO_SHAPE = 4;
+	static final int SHAPE_COUNT = 5;
+
+	/* Bit set of all shapes */
+	static final int ALL_SHAPES = (1 << SHAPE_COUNT) - 1;
+
+	/* Dates after the Julian-Gregorian cutover year are validated arithmetically */
+	private static final int FIRST_GREGORIAN_ONLY_YEAR = 1583;
+
+	private RunnerDateScanner() {
+	}
+
+	/**
+	 * Scans characters start (inclusive) to end (exclusive) of the given text.
+	 *
+	 * @param text
+	 * @param start
+	 * @param end
+	 * @return date packed as yyyyMMdd or INVALID
+	 */
+	static int scanDate(CharSequence text, int start, int end) {
+		int length = end - start;
+		if (length < 8 || length > 10) {
+			return INVALID;
+		}
+
+		int day;
+		int month;
+		int year;
+
+		char separator = text.charAt(start + 1);
+		if (length == 8 && isDigit(separator) && isDigit(text.charAt(start + 2))) {
+			// ddMMyyyy
+			day = twoDigits(text, start);
+			month = twoDigits(text, start + 2);
+			year = fourDigits(text, start + 4);
+		} else {
+			int position = start;
+
+			// d or dd
+			day = digit(text.charAt(position++));
+			if (day < 0) {
+				return INVALID;
+			}
+			int value = digit(text.charAt(position));
+			if (value >= 0) {
+				day = day * 10 + value;
+				position++;
+			}
+
+			separator = text.charAt(position++);
+			if (separator != '-' && separator != '.') {
+				return INVALID;
+			}
+
+			// M or MM
+			month = digit(text.charAt(position++));
+			if (month < 0) {
+				return INVALID;
+			}
+			value = digit(text.charAt(position));
+			if (value >= 0) {
+				month = month * 10 + value;
+				position++;
+			}
+
+			if (text.charAt(position++) != separator || end - position != 4) {
+				return INVALID;
+			}
+
+			// yyyy
+			year = fourDigits(text, position);
+		}
+
+		if (day < 0 || month < 0 || year < 0) {
+			return INVALID;
+		}
+
+		return isValidDate(year, month, day) ? pack(year, month, day) : INVALID;
+	}
+
+	/**
+	 * Scans characters start (inclusive) to end (exclusive) of the given text if they have one of the given shapes.
+	 *
+	 * @param text
+	 * @param start
+	 * @param end
+	 * @param shapes
+	 *            bit set of the accepted shapes, bit n for shape n
+	 * @return date packed as yyyyMMdd or INVALID
+	 */
+	static int scanDate(CharSequence text, int start, int end, int shapes) {
+		if (shapes != ALL_SHAPES && !hasShape(text, start, end, shapes)) {
+			return INVALID;
+		}
+		return scanDate(text, start, end);
+	}
+
+	/**
+	 * Returns the shape of characters start (inclusive) to end (exclusive) of the given text. Only the length and the
+	 * separators are looked at, so a date string of a shape is not necessarily valid.
+	 *
+	 * <ul>
+	 * <li>LINE_SEPARATED_SHAPE: dd-MM-yyyy and the one digit variants</li>
+	 * <li>DOT_SEPARATED_SHAPE: dd.MM.yyyy</li>
+	 * <li>SHORT_DOT_SEPARATED_SHAPE: d.M.yyyy, d.MM.yyyy and dd.M.yyyy</li>
+	 * <li>COMPACT_SHAPE: ddMMyyyy</li>
+	 * <li>ISO_SHAPE: yyyy-MM-dd, which only time stamps accept</li>
+	 * </ul>
+	 *
+	 * @param text
+	 * @param start
+	 * @param end
+	 * @return shape or NO_SHAPE
+	 */
+	static int shapeOf(CharSequence text, int start, int end) {
+		int length = end - start;
+		if (length < 8 || length > 10) {
+			return NO_SHAPE;
+		}
+		if (length == 8 && isDigit(text.charAt(start + 1)) && isDigit(text.charAt(start + 2))) {
+			return COMPACT_SHAPE;
+		}
+		if (length == 10 && text.charAt(start + 4) == '-') {
+			return ISO_SHAPE;
+		}
+
+		char separator = text.charAt(end - 5);
+		if (separator == '-') {
+			return LINE_SEPARATED_SHAPE;
+		}
+		if (separator == '.') {
+			return length == 10 ? DOT_SEPARATED_SHAPE : SHORT_DOT_SEPARATED_SHAPE;
+		}
+		return NO_SHAPE;
+	}
+
+	/**
+	 * Checks that characters start (inclusive) to end (exclusive) of the given text have one of the given shapes.
+	 *
+	 * @param text
+	 * @param start
+	 * @param end
+	 * @param shapes
+	 *            bit set of the accepted shapes, bit n for shape n
+	 * @return true if the shape is accepted
+	 */
+	static boolean hasShape(CharSequence text, int start, int end, int shapes) {
+		int shape = shapeOf(text, start, end);
+		return shape != NO_SHAPE && (shapes & 1 << shape) != 0;
+	}
+
+	/**
+	 * Scans a date in format yyyyMMdd from characters start (inclusive) to end (exclusive) of the given text.
+	 *
+	 * Only exactly eight digits are scanned. SimpleDateFormat accepts more, for example trailing characters or a
+	 * shorter day, so any other input returns NOT_SCANNED and has to be parsed with the format.
+	 *
+	 * @param text
+	 * @param start
+	 * @param end
+	 * @return date packed as yyyyMMdd, INVALID or NOT_SCANNED
+	 */
+	static int scanCompactDate(CharSequence text, int start, int end) {
+		if (end - start != 8) {
+			return NOT_SCANNED;
+		}
+
+		int year = fourDigits(text, start);
+		int month = twoDigits(text, start + 4);
+		int day = twoDigits(text, start + 6);
+		if (year < 0 || month < 0 || day < 0) {
+			return NOT_SCANNED;
+		}
+
+		return isValidDate(year, month, day) ? pack(year, month, day) : INVALID;
+	}
+
+	/**
+	 * Checks that year, month (1-12) and day form an existing date.
+	 *
+	 * @param year
+	 * @param month
+	 * @param day
+	 * @return true if valid, false if not valid
+	 */
+	static boolean isValidDate(int year, int month, int day) {
+		if (month < 1 || month > 12 || day < 1 || year < 1) {
+			return false;
+		}
+		if (!RunnerEpochDate.DEFAULT_CALENDAR_GREGORIAN || year < FIRST_GREGORIAN_ONLY_YEAR) {
+			return isValidInDefaultCalendar(year, month, day);
+		}
+		return day <= RunnerEpochDate.lengthOfMonth(year, month);
+	}
+
+	/**
+	 * Returns the epoch day of a scanned date. The date fields are read in the default calendar, so dates before the
+	 * Julian-Gregorian cutover give the same day as RunnerDate.createDate.
+	 *
+	 * @param scannedDate
+	 *            date packed as yyyyMMdd
+	 * @return epoch day
+	 */
+	static int toEpochDay(int scannedDate) {
+		int year = year(scannedDate);
+		if (RunnerEpochDate.DEFAULT_CALENDAR_GREGORIAN && year >= FIRST_GREGORIAN_ONLY_YEAR) {
+			return RunnerEpochDate.of(year, month(scannedDate), day(scannedDate));
+		}
+		return RunnerEpochDate.toEpochDay(RunnerDate.createDate(year, month(scannedDate), day(scannedDate)).getTime());
+	}
+
+	/**
+	 * Returns midnight of a scanned date in the default time zone.
+	 *
+	 * @param scannedDate
+	 *            date packed as yyyyMMdd
+	 * @return epoch milliseconds or RunnerDateParser.INVALID if the zone skips the day
+	 */
+	static long toEpochMillis(int scannedDate) {
+		return toEpochMillis(scannedDate, TimeZone.getDefault());
+	}
+
+	/**
+	 * Returns midnight of a scanned date in the given time zone. If midnight falls into an offset change the day
+	 * starts at the end of the gap. A day the zone skips entirely, like 30.12.2011 in Pacific/Apia, does not exist and
+	 * is rejected as by a non-lenient SimpleDateFormat.
+	 *
+	 * @param scannedDate
+	 *            date packed as yyyyMMdd
+	 * @param zone
+	 * @return epoch milliseconds or RunnerDateParser.INVALID if the zone skips the day
+	 */
+	static long toEpochMillis(int scannedDate, TimeZone zone) {
+		int year = year(scannedDate);
+		int month = month(scannedDate);
+		int day = day(scannedDate);
+
+		if (RunnerEpochDate.DEFAULT_CALENDAR_GREGORIAN && year >= FIRST_GREGORIAN_ONLY_YEAR) {
+			long localMillis = RunnerEpochDate.of(year, month, day) * RunnerEpochDate.MILLISECONDS_PER_DAY;
+			int offset = zone.getOffset(localMillis - zone.getRawOffset());
+			long epochMillis = localMillis - offset;
+			if (zone.getOffset(epochMillis - RunnerEpochDate.MILLISECONDS_PER_DAY) == offset
+					&& zone.getOffset(epochMillis + RunnerEpochDate.MILLISECONDS_PER_DAY) == offset) {
+				return epochMillis;
+			}
+		}
+
+		// Offset changes near midnight, old dates or other calendars
+		Calendar calendar = Calendar.getInstance(zone);
+		calendar.setLenient(false);
+		calendar.clear();
+		calendar.set(year, month - 1, day);
+		try {
+			return calendar.getTimeInMillis();
+		} catch (IllegalArgumentException iae) {
+			// The zone skips the whole day
+			return RunnerDateParser.INVALID;
+		}
+	}
+
+	/**
+	 * Checks that the given time zone does not skip the day of a scanned date.
+	 *
+	 * @param scannedDate
+	 *            date packed as yyyyMMdd
+	 * @param zone
+	 * @return true if the day exists in the zone
+	 */
+	static boolean existsIn(int scannedDate, TimeZone zone) {
+		return toEpochMillis(scannedDate, zone) != RunnerDateParser.INVALID;
+	}
+
+	static int pack(int year, int month, int day) {
+		return year * 10000 + month * 100 + day;
+	}
+
+	static int year(int packedDate) {
+		return packedDate / 10000;
+	}
+
+	static int month(int packedDate) {
+		return packedDate / 100 % 100;
+	}
+
+	static int day(int packedDate) {
+		return packedDate % 100;
+	}
+
+	private static int twoDigits(CharSequence text, int position) {
+		int high = digit(text.charAt(position));
+		int low = digit(text.charAt(position + 1));
+		if (high < 0 || low < 0) {
+			return INVALID;
+		}
+		return high * 10 + low;
+	}
+
+	private static int fourDigits(CharSequence text, int position) {
+		int high = twoDigits(text, position);
+		int low = twoDigits(text, position + 2);
+		if (high < 0 || low < 0) {
+			return INVALID;
+		}
+		return high * 100 + low;
+	}
+
+	private static int digit(char c) {
+		return isDigit(c) ? c - '0' : INVALID;
+	}
+
+	private static boolean isDigit(char c) {
+		return c >= '0' && c <= '9';
+	}
+
+	/*
+	 * Dates before the cutover (Julian rules, missing October days of 1582) and non-Gregorian default calendars are
+	 * checked the same way a non-lenient SimpleDateFormat does.
+	 */
+	private static boolean isValidInDefaultCalendar(int year, int month, int day) {
+		Calendar calendar = Calendar.getInstance();
+		calendar.setLenient(false);
+		calendar.clear();
+		calendar.set(Calendar.YEAR, year);
+		calendar.set(Calendar.MONTH, month - 1);
+		calendar.set(Calendar.DATE, day);
+		try {
+			calendar.getTime();
+		} catch (IllegalArgumentException iae) {
+			return false;
+		}
+		return true;
+	}
+}
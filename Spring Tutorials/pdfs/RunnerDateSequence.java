@@ -0,0 +1,498 @@
+package com.runner.architecture.util;
+
+import java.util.Comparator;
+import java.util.Date;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.TimeZone;
+import java.util.function.IntConsumer;
+import java.util.function.LongConsumer;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Lazy sequence of days, months or years between two dates, from the first date towards the last date with a
+ * step. Nothing is materialised: element i is computed from the first date when it is needed, so a sequence over
+ * decades costs the same to create as one over a week.
+ *
+ * Elements are epoch days:
+ * <ul>
+ * <li>{@link #ofDays(int, int, int)}: every step-th day</li>
+ * <li>{@link #ofMonths(int, int, int)}: the first day moved by i * step months, keeping the day of month or using the
+ * last day of shorter months like RunnerEpochDate.plusMonths</li>
+ * <li>{@link #ofYears(int, int, int)}: the first day moved by i * step years like RunnerEpochDate.plusYears</li>
+ * </ul>
+ * except for {@link #ofYearNumbers(int, int, int)}, whose elements are plain year numbers. A negative step walks
+ * backwards from a later first date to an earlier last date. The last date is included if the steps reach it.
+ *
+ * A sequence is consumed as an IntStream of elements, a LongStream of the epoch milliseconds of their midnights in the
+ * default time zone, or with a {@link Cursor}. The streams are backed by SIZED and SUBSIZED spliterators that split at
+ * the middle index, so parallel streams get even halves.
+ *
+ * Sequences are immutable and can be used by several threads at once, each iterating on its own.
+ *
+ * @author keshavprasad.akasam
+ *
+ */
+public final class RunnerDateSequence implements Iterable<Integer> {
+
+	private enum Unit {
+		DAYS, MONTHS, YEARS, YEAR_NUMBERS
+	}
+
+	private final Unit unit;
+	private final int first;
+	private final int step;
+	private final long size;
+
+	private RunnerDateSequence(Unit unit, int first, int step, long size) {
+		this.unit = unit;
+		this.first = first;
+		this.step = step;
+		this.size = size;
+	}
+
+	/**
+	 * Returns the days from the day of firstDate to the day of lastDate, both included.
+	 *
+	 * @param firstDate
+	 * @param lastDate
+	 * @return sequence of epoch days
+	 * @throws IncorrectInputParametersException
+	 */
+	public static RunnerDateSequence ofDays(Date firstDate, Date lastDate) throws IncorrectInputParametersException {
+		TimeZone zone = TimeZone.getDefault();
+		return ofDays(epochDayOf(firstDate, zone), epochDayOf(lastDate, zone), 1);
+	}
+
+	/**
+	 * Returns every step-th day from the day of firstDate up to the day of lastDate.
+	 *
+	 * @param firstDate
+	 * @param lastDate
+	 * @param step
+	 *            days between elements, negative to walk backwards
+	 * @return sequence of epoch days
+	 * @throws IncorrectInputParametersException
+	 */
+	public static RunnerDateSequence ofDays(Date firstDate, Date lastDate, int step)
+			throws IncorrectInputParametersException {
+		TimeZone zone = TimeZone.getDefault();
+		return ofDays(epochDayOf(firstDate, zone), epochDayOf(lastDate, zone), step);
+	}
+
+	/**
+	 * Returns every step-th day from firstEpochDay up to lastEpochDay.
+	 *
+	 * @param firstEpochDay
+	 * @param lastEpochDay
+	 * @param step
+	 *            days between elements, negative to walk backwards
+	 * @return sequence of epoch days
+	 * @throws IncorrectInputParametersException
+	 */
+	public static RunnerDateSequence ofDays(int firstEpochDay, int lastEpochDay, int step)
+			throws IncorrectInputParametersException {
+		return new RunnerDateSequence(Unit.DAYS, firstEpochDay, checkStep(step), arithmeticSize(firstEpochDay,
+				lastEpochDay, step));
+	}
+
+	/**
+	 * Returns the day of firstDate moved by whole months up to the day of lastDate.
+	 *
+	 * @param firstDate
+	 * @param lastDate
+	 * @return sequence of epoch days
+	 * @throws IncorrectInputParametersException
+	 */
+	public static RunnerDateSequence ofMonths(Date firstDate, Date lastDate) throws IncorrectInputParametersException {
+		TimeZone zone = TimeZone.getDefault();
+		return ofMonths(epochDayOf(firstDate, zone), epochDayOf(lastDate, zone), 1);
+	}
+
+	/**
+	 * Returns the day of firstDate moved by multiples of step months up to the day of lastDate.
+	 *
+	 * @param firstDate
+	 * @param lastDate
+	 * @param step
+	 *            months between elements, negative to walk backwards
+	 * @return sequence of epoch days
+	 * @throws IncorrectInputParametersException
+	 */
+	public static RunnerDateSequence ofMonths(Date firstDate, Date lastDate, int step)
+			throws IncorrectInputParametersException {
+		TimeZone zone = TimeZone.getDefault();
+		return ofMonths(epochDayOf(firstDate, zone), epochDayOf(lastDate, zone), step);
+	}
+
+	/**
+	 * Returns firstEpochDay moved by multiples of step months up to lastEpochDay.
+	 *
+	 * @param firstEpochDay
+	 * @param lastEpochDay
+	 * @param step
+	 *            months between elements, negative to walk backwards
+	 * @return sequence of epoch days
+	 * @throws IncorrectInputParametersException
+	 */
+	public static RunnerDateSequence ofMonths(int firstEpochDay, int lastEpochDay, int step)
+			throws IncorrectInputParametersException {
+		checkStep(step);
+		int firstFields = RunnerEpochDate.toFields(firstEpochDay);
+		int lastFields = RunnerEpochDate.toFields(lastEpochDay);
+		long months = (RunnerEpochDate.yearOf(lastFields) - (long) RunnerEpochDate.yearOf(firstFields)) * 12
+				+ RunnerEpochDate.monthOf(lastFields) - RunnerEpochDate.monthOf(firstFields);
+		return calendarSequence(Unit.MONTHS, firstEpochDay, lastEpochDay, step, months);
+	}
+
+	/**
+	 * Returns the day of firstDate moved by whole years up to the day of lastDate.
+	 *
+	 * @param firstDate
+	 * @param lastDate
+	 * @return sequence of epoch days
+	 * @throws IncorrectInputParametersException
+	 */
+	public static RunnerDateSequence ofYears(Date firstDate, Date lastDate) throws IncorrectInputParametersException {
+		TimeZone zone = TimeZone.getDefault();
+		return ofYears(epochDayOf(firstDate, zone), epochDayOf(lastDate, zone), 1);
+	}
+
+	/**
+	 * Returns the day of firstDate moved by multiples of step years up to the day of lastDate.
+	 *
+	 * @param firstDate
+	 * @param lastDate
+	 * @param step
+	 *            years between elements, negative to walk backwards
+	 * @return sequence of epoch days
+	 * @throws IncorrectInputParametersException
+	 */
+	public static RunnerDateSequence ofYears(Date firstDate, Date lastDate, int step)
+			throws IncorrectInputParametersException {
+		TimeZone zone = TimeZone.getDefault();
+		return ofYears(epochDayOf(firstDate, zone), epochDayOf(lastDate, zone), step);
+	}
+
+	/**
+	 * Returns firstEpochDay moved by multiples of step years up to lastEpochDay.
+	 *
+	 * @param firstEpochDay
+	 * @param lastEpochDay
+	 * @param step
+	 *            years between elements, negative to walk backwards
+	 * @return sequence of epoch days
+	 * @throws IncorrectInputParametersException
+	 */
+	public static RunnerDateSequence ofYears(int firstEpochDay, int lastEpochDay, int step)
+			throws IncorrectInputParametersException {
+		checkStep(step);
+		long years = (long) RunnerEpochDate.getYear(lastEpochDay) - RunnerEpochDate.getYear(firstEpochDay);
+		return calendarSequence(Unit.YEARS, firstEpochDay, lastEpochDay, step, years);
+	}
+
+	/**
+	 * Returns every step-th year number from firstYear up to lastYear. The epoch milliseconds of a year number are
+	 * those of its 1.1.
+	 *
+	 * @param firstYear
+	 * @param lastYear
+	 * @param step
+	 *            years between elements, negative to walk backwards
+	 * @return sequence of years
+	 * @throws IncorrectInputParametersException
+	 */
+	public static RunnerDateSequence ofYearNumbers(int firstYear, int lastYear, int step)
+			throws IncorrectInputParametersException {
+		return new RunnerDateSequence(Unit.YEAR_NUMBERS, firstYear, checkStep(step), arithmeticSize(firstYear,
+				lastYear, step));
+	}
+
+	/**
+	 * Returns the number of elements.
+	 *
+	 * @return size
+	 */
+	public long size() {
+		return size;
+	}
+
+	/**
+	 * Returns the element at the given index.
+	 *
+	 * @param index
+	 * @return epoch day or year
+	 * @throws IncorrectInputParametersException
+	 */
+	public int get(long index) throws IncorrectInputParametersException {
+		if (index < 0 || index >= size) {
+			throw new IncorrectInputParametersException("Incorrect input parameters. Index " + index
+					+ " is outside the sequence of " + size + " elements.");
+		}
+		return valueAt(index);
+	}
+
+	/**
+	 * Returns sequential stream of the elements.
+	 *
+	 * @return epoch days or years
+	 */
+	public IntStream stream() {
+		return StreamSupport.intStream(spliterator(), false);
+	}
+
+	/**
+	 * Returns parallel stream of the elements.
+	 *
+	 * @return epoch days or years
+	 */
+	public IntStream parallelStream() {
+		return StreamSupport.intStream(spliterator(), true);
+	}
+
+	/**
+	 * Returns sequential stream of the epoch milliseconds of the midnight of each element in the default time zone.
+	 *
+	 * @return epoch milliseconds
+	 */
+	public LongStream epochMillisStream() {
+		return StreamSupport.longStream(new EpochMillisSpliterator(0, size, TimeZone.getDefault()), false);
+	}
+
+	@Override
+	public Spliterator.OfInt spliterator() {
+		return new ValueSpliterator(0, size);
+	}
+
+	/**
+	 * Returns new cursor at the first element.
+	 *
+	 * @return cursor
+	 */
+	@Override
+	public Cursor iterator() {
+		return new Cursor();
+	}
+
+	private int valueAt(long index) {
+		long offset = index * step;
+		switch (unit) {
+		case MONTHS:
+			return RunnerEpochDate.plusMonths(first, (int) offset);
+		case YEARS:
+			return RunnerEpochDate.plusYears(first, (int) offset);
+		default:
+			return (int) (first + offset);
+		}
+	}
+
+	private long epochMillisAt(long index, TimeZone zone) {
+		int value = valueAt(index);
+		int epochDay = unit == Unit.YEAR_NUMBERS ? RunnerEpochDate.of(value, 1, 1) : value;
+		return RunnerEpochDate.toEpochMillis(epochDay, zone);
+	}
+
+	private int characteristics() {
+		int characteristics = Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.IMMUTABLE
+				| Spliterator.NONNULL | Spliterator.DISTINCT;
+		return step > 0 ? characteristics | Spliterator.SORTED : characteristics;
+	}
+
+	private static RunnerDateSequence calendarSequence(Unit unit, int firstEpochDay, int lastEpochDay, int step,
+			long units) {
+		// Steps reaching the month or year of the last day, one less if the kept day of month passes it
+		long count = units / step;
+		if (count >= 0) {
+			int lastElement = unit == Unit.MONTHS ? RunnerEpochDate.plusMonths(firstEpochDay, (int) (count * step))
+					: RunnerEpochDate.plusYears(firstEpochDay, (int) (count * step));
+			if (step > 0 ? lastElement > lastEpochDay : lastElement < lastEpochDay) {
+				count--;
+			}
+		}
+		return new RunnerDateSequence(unit, firstEpochDay, step, Math.max(count + 1, 0));
+	}
+
+	private static long arithmeticSize(int first, int last, int step) {
+		long distance = (long) last - first;
+		return distance != 0 && (distance > 0) != (step > 0) ? 0 : distance / step + 1;
+	}
+
+	private static int checkStep(int step) throws IncorrectInputParametersException {
+		if (step == 0) {
+			throw new IncorrectInputParametersException("Incorrect input parameters. Step must not be 0.");
+		}
+		return step;
+	}
+
+	private static int epochDayOf(Date date, TimeZone zone) throws IncorrectInputParametersException {
+		if (date == null) {
+			throw new IncorrectInputParametersException(
+					"Incorrect input parameters. Parameters firstDate and lastDate are mandatory.");
+		}
+		return RunnerEpochDate.toEpochDay(date.getTime(), zone);
+	}
+
+	/**
+	 * Iterator over the elements that can be rewound and used again, for example once per customer of a report.
+	 * Cursors are not thread safe.
+	 */
+	public final class Cursor implements PrimitiveIterator.OfInt {
+
+		private long index;
+
+		private Cursor() {
+		}
+
+		@Override
+		public boolean hasNext() {
+			return index < size;
+		}
+
+		@Override
+		public int nextInt() {
+			if (index >= size) {
+				throw new NoSuchElementException();
+			}
+			return valueAt(index++);
+		}
+
+		/**
+		 * Returns the epoch milliseconds of the midnight of the next element in the default time zone.
+		 *
+		 * @return epoch milliseconds
+		 */
+		public long nextEpochMillis() {
+			if (index >= size) {
+				throw new NoSuchElementException();
+			}
+			return epochMillisAt(index++, TimeZone.getDefault());
+		}
+
+		/**
+		 * Moves back to the first element.
+		 *
+		 * @return this cursor
+		 */
+		public Cursor reset() {
+			index = 0;
+			return this;
+		}
+	}
+
+	/**
+	 * Spliterator over the indexes from index (inclusive) to end (exclusive), split at the middle.
+	 */
+	private abstract class IndexSpliterator {
+
+		protected long index;
+		protected final long end;
+
+		private IndexSpliterator(long index, long end) {
+			this.index = index;
+			this.end = end;
+		}
+
+		protected long splitIndex() {
+			return end - index < 2 ? -1 : (index + end) >>> 1;
+		}
+
+		public long estimateSize() {
+			return end - index;
+		}
+
+		public int characteristics() {
+			return RunnerDateSequence.this.characteristics();
+		}
+	}
+
+	private final class ValueSpliterator extends IndexSpliterator implements Spliterator.OfInt {
+
+		private ValueSpliterator(long index, long end) {
+			super(index, end);
+		}
+
+		@Override
+		public boolean tryAdvance(IntConsumer action) {
+			if (index >= end) {
+				return false;
+			}
+			action.accept(valueAt(index++));
+			return true;
+		}
+
+		@Override
+		public void forEachRemaining(IntConsumer action) {
+			if (unit == Unit.DAYS || unit == Unit.YEAR_NUMBERS) {
+				// Consecutive elements differ by the step
+				long value = first + index * step;
+				for (; index < end; index++, value += step) {
+					action.accept((int) value);
+				}
+			} else {
+				for (; index < end; index++) {
+					action.accept(valueAt(index));
+				}
+			}
+		}
+
+		@Override
+		public Spliterator.OfInt trySplit() {
+			long middle = splitIndex();
+			if (middle < 0) {
+				return null;
+			}
+			Spliterator.OfInt prefix = new ValueSpliterator(index, middle);
+			index = middle;
+			return prefix;
+		}
+
+		@Override
+		public Comparator<? super Integer> getComparator() {
+			if (step < 0) {
+				throw new IllegalStateException();
+			}
+			return null;
+		}
+	}
+
+	private final class EpochMillisSpliterator extends IndexSpliterator implements Spliterator.OfLong {
+
+		private final TimeZone zone;
+
+		private EpochMillisSpliterator(long index, long end, TimeZone zone) {
+			super(index, end);
+			this.zone = zone;
+		}
+
+		@Override
+		public boolean tryAdvance(LongConsumer action) {
+			if (index >= end) {
+				return false;
+			}
+			action.accept(epochMillisAt(index++, zone));
+			return true;
+		}
+
+		@Override
+		public Spliterator.OfLong trySplit() {
+			long middle = splitIndex();
+			if (middle < 0) {
+				return null;
+			}
+			Spliterator.OfLong prefix = new EpochMillisSpliterator(index, middle, zone);
+			index = middle;
+			return prefix;
+		}
+
+		@Override
+		public Comparator<? super Long> getComparator() {
+			if (step < 0) {
+				throw new IllegalStateException();
+			}
+			return null;
+		}
+	}
+}
@@ -0,0 +1,397 @@
+package com.runner.architecture.util;
+
+import java.time.ZoneId;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.TimeZone;
+
+/**
+ * Primitive date operations on epoch days (days since 1.1.1970, proleptic Gregorian calendar) and epoch
+ * milliseconds. Field extraction, day arithmetic and comparison are plain integer math and allocate nothing.
+ *
+ * Conversions between epoch milliseconds and epoch days use the default time zone, read on every call in the same way
+ * as Calendar.getInstance() does in RunnerDate, unless a TimeZone or ZoneId is given. TimeZone.getDefault() returns a
+ * copy of the zone, so callers that convert many values or must not allocate read the zone once and use the TimeZone
+ * overloads.
+ *
+ * @author keshavprasad.akasam
+ *
+ */
+public final class RunnerEpochDate {
+
+	public static final long MILLISECONDS_PER_DAY = 24L * 60 * 60 * 1000;
+
+	/* Days from 1.3.0000 to 1.1.1970 */
+	private static final int DAYS_0000_TO_1970 = 719468;
+	private static final int DAYS_PER_400_YEARS = 146097;
+
+	/* First day of 1583. Earlier dates are Julian in the default GregorianCalendar. */
+	static final int FIRST_GREGORIAN_ONLY_EPOCH_DAY = -141349;
+
+	private static final int[] DAYS_IN_MONTH = { 31, 28, 31, 30, 31, 30, 31, 31, 30, 31, 30, 31 };
+
+	/* True if the default calendar is a plain GregorianCalendar */
+	static final boolean DEFAULT_CALENDAR_GREGORIAN = Calendar.getInstance().getClass() == GregorianCalendar.class;
+
+	private RunnerEpochDate() {
+	}
+
+	/**
+	 * Returns the epoch day of the given date. Month values are 1-12.
+	 *
+	 * @param year
+	 * @param month
+	 * @param day
+	 * @return epoch day
+	 */
+	public static int of(int year, int month, int day) {
+		int y = month <= 2 ? year - 1 : year;
+		int era = (y >= 0 ? y : y - 399) / 400;
+		int yearOfEra = y - era * 400;
+		int dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+		int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+		return era * DAYS_PER_400_YEARS + dayOfEra - DAYS_0000_TO_1970;
+	}
+
+	/**
+	 * Returns the year of the given epoch day.
+	 *
+	 * @param epochDay
+	 * @return year
+	 */
+	public static int getYear(int epochDay) {
+		return yearOf(toFields(epochDay));
+	}
+
+	/**
+	 * Returns the month of the given epoch day.
+	 *
+	 * @param epochDay
+	 * @return month. Values from 1-12
+	 */
+	public static int getMonth(int epochDay) {
+		return monthOf(toFields(epochDay));
+	}
+
+	/**
+	 * Returns the day of month of the given epoch day.
+	 *
+	 * @param epochDay
+	 * @return day of month
+	 */
+	public static int getDayOfMonth(int epochDay) {
+		return dayOf(toFields(epochDay));
+	}
+
+	/**
+	 * Adds given number of days to the given epoch day.
+	 *
+	 * @param epochDay
+	 * @param days
+	 * @return epoch day
+	 */
+	public static int plusDays(int epochDay, int days) {
+		return epochDay + days;
+	}
+
+	/**
+	 * Adds given number of months to the given epoch day. If the day of month does not exist in the resulting month
+	 * the last day of that month is used, like Calendar.add does.
+	 *
+	 * @param epochDay
+	 * @param months
+	 * @return epoch day
+	 */
+	public static int plusMonths(int epochDay, int months) {
+		int fields = toFields(epochDay);
+		long monthCount = yearOf(fields) * 12L + monthOf(fields) - 1 + months;
+		int year = (int) Math.floorDiv(monthCount, 12L);
+		int month = (int) Math.floorMod(monthCount, 12L) + 1;
+		int day = Math.min(dayOf(fields), lengthOfMonth(year, month));
+		return of(year, month, day);
+	}
+
+	/**
+	 * Adds given number of years to the given epoch day. 29.2 becomes 28.2 in non leap years, like Calendar.add does.
+	 *
+	 * @param epochDay
+	 * @param years
+	 * @return epoch day
+	 */
+	public static int plusYears(int epochDay, int years) {
+		int fields = toFields(epochDay);
+		int year = yearOf(fields) + years;
+		int month = monthOf(fields);
+		int day = Math.min(dayOf(fields), lengthOfMonth(year, month));
+		return of(year, month, day);
+	}
+
+	/**
+	 * Calculates the difference in days between the given epoch days.
+	 *
+	 * @param epochDay1
+	 * @param epochDay2
+	 * @return epochDay2 - epochDay1
+	 */
+	public static int getDiffInDays(int epochDay1, int epochDay2) {
+		return epochDay2 - epochDay1;
+	}
+
+	/**
+	 * Calculates the difference in whole days between the given instants. The result is truncated towards zero like
+	 * RunnerDate.getDiffinDays.
+	 *
+	 * @param epochMillis1
+	 * @param epochMillis2
+	 * @return whole days from epochMillis1 to epochMillis2
+	 */
+	public static int getDiffInDays(long epochMillis1, long epochMillis2) {
+		return (int) ((epochMillis2 - epochMillis1) / MILLISECONDS_PER_DAY);
+	}
+
+	/**
+	 * Calculates the difference in months between the given epoch days from their years and months only, like
+	 * RunnerDate.getDiffBetweenTwoDatesInMonths. The days of month are ignored.
+	 *
+	 * @param epochDay1
+	 * @param epochDay2
+	 * @return months between the days, never negative
+	 */
+	public static int getDiffInMonths(int epochDay1, int epochDay2) {
+		int fields1 = toFields(epochDay1);
+		int fields2 = toFields(epochDay2);
+		int months = (yearOf(fields2) - yearOf(fields1)) * 12 + monthOf(fields2) - monthOf(fields1);
+		return months < 0 ? -months : months;
+	}
+
+	/**
+	 * Calculates the number of whole years between the given epoch days. A year is whole when adding it with
+	 * plusYears to the earlier day does not pass the later day, so from 29.2 the year is full on 28.2 of a non leap
+	 * year.
+	 *
+	 * @param epochDay1
+	 * @param epochDay2
+	 * @return whole years between the days, never negative
+	 */
+	public static int getDiffInYears(int epochDay1, int epochDay2) {
+		return RunnerDatePeriod.getYears(RunnerDatePeriod.between(Math.min(epochDay1, epochDay2),
+				Math.max(epochDay1, epochDay2)));
+	}
+
+	/**
+	 * Compares two epoch days.
+	 *
+	 * @param epochDay1
+	 * @param epochDay2
+	 * @return -1, 0 or 1
+	 */
+	public static int compare(int epochDay1, int epochDay2) {
+		return epochDay1 < epochDay2 ? -1 : (epochDay1 == epochDay2 ? 0 : 1);
+	}
+
+	/**
+	 * Checks whether the given year is a leap year.
+	 *
+	 * @param year
+	 * @return true if leap year
+	 */
+	public static boolean isLeapYear(int year) {
+		return (year & 3) == 0 && (year % 100 != 0 || year % 400 == 0);
+	}
+
+	/**
+	 * Returns the number of days in the given month (1-12).
+	 *
+	 * @param year
+	 * @param month
+	 * @return number of days
+	 */
+	public static int lengthOfMonth(int year, int month) {
+		if (month == 2 && isLeapYear(year)) {
+			return 29;
+		}
+		return DAYS_IN_MONTH[month - 1];
+	}
+
+	/**
+	 * Returns the epoch day of the given instant in the default time zone.
+	 *
+	 * @param epochMillis
+	 * @return epoch day
+	 */
+	public static int toEpochDay(long epochMillis) {
+		return toEpochDay(epochMillis, TimeZone.getDefault());
+	}
+
+	/**
+	 * Returns the epoch day of the given instant in the given time zone. Allocates nothing.
+	 *
+	 * If zone is null an IncorrectInputParametersException is thrown.
+	 *
+	 * @param epochMillis
+	 * @param zone
+	 * @return epoch day
+	 * @throws IncorrectInputParametersException
+	 */
+	public static int toEpochDay(long epochMillis, TimeZone zone) throws IncorrectInputParametersException {
+		checkZone(zone);
+		return (int) Math.floorDiv(epochMillis + zone.getOffset(epochMillis), MILLISECONDS_PER_DAY);
+	}
+
+	/**
+	 * Returns the instant of midnight of the given epoch day in the default time zone. Gives the same result as
+	 * RunnerDate.createDate.
+	 *
+	 * @param epochDay
+	 * @return epoch milliseconds
+	 */
+	public static long toEpochMillis(int epochDay) {
+		return toEpochMillis(epochDay, TimeZone.getDefault());
+	}
+
+	/**
+	 * Returns the instant of midnight of the given epoch day in the given time zone. Allocates nothing unless the
+	 * zone offset changes near midnight.
+	 *
+	 * If zone is null an IncorrectInputParametersException is thrown.
+	 *
+	 * @param epochDay
+	 * @param zone
+	 * @return epoch milliseconds
+	 * @throws IncorrectInputParametersException
+	 */
+	public static long toEpochMillis(int epochDay, TimeZone zone) throws IncorrectInputParametersException {
+		checkZone(zone);
+		return toEpochMillis(epochDay, 0, zone);
+	}
+
+	/**
+	 * Returns the instant of the given time of the given epoch day in the given time zone. Times skipped or repeated
+	 * by an offset change are resolved by the calendar.
+	 *
+	 * @param epochDay
+	 * @param millisOfDay
+	 * @param zone
+	 * @return epoch milliseconds
+	 */
+	static long toEpochMillis(int epochDay, int millisOfDay, TimeZone zone) {
+		long localMillis = epochDay * MILLISECONDS_PER_DAY + millisOfDay;
+		int offset = zone.getOffset(localMillis - zone.getRawOffset());
+		long epochMillis = localMillis - offset;
+
+		if (zone.getOffset(epochMillis - MILLISECONDS_PER_DAY) == offset
+				&& zone.getOffset(epochMillis + MILLISECONDS_PER_DAY) == offset) {
+			return epochMillis;
+		}
+
+		// Offset changes near the given time, let the calendar resolve the wall time
+		int fields = toFields(epochDay);
+		GregorianCalendar calendar = new GregorianCalendar(zone);
+		calendar.setGregorianChange(new Date(Long.MIN_VALUE));
+		calendar.clear();
+		calendar.set(yearOf(fields), monthOf(fields) - 1, dayOf(fields));
+		calendar.set(Calendar.MILLISECOND, millisOfDay);
+		return calendar.getTimeInMillis();
+	}
+
+	/**
+	 * Returns the epoch day of the given instant in the given time zone. Offsets of the zone are cached, so the day
+	 * is found without Calendar even across daylight saving changes.
+	 *
+	 * If zone is null an IncorrectInputParametersException is thrown.
+	 *
+	 * @param epochMillis
+	 * @param zone
+	 * @return epoch day
+	 * @throws IncorrectInputParametersException
+	 */
+	public static int toEpochDay(long epochMillis, ZoneId zone) throws IncorrectInputParametersException {
+		return RunnerZoneOffsets.of(zone).toEpochDay(epochMillis);
+	}
+
+	/**
+	 * Returns the first instant of the given epoch day in the given time zone. If midnight is skipped by a daylight
+	 * saving change the day starts at the end of the gap.
+	 *
+	 * If zone is null an IncorrectInputParametersException is thrown.
+	 *
+	 * @param epochDay
+	 * @param zone
+	 * @return epoch milliseconds
+	 * @throws IncorrectInputParametersException
+	 */
+	public static long toEpochMillis(int epochDay, ZoneId zone) throws IncorrectInputParametersException {
+		return RunnerZoneOffsets.of(zone).toEpochMillis(epochDay);
+	}
+
+	/**
+	 * Moves the given instant to another day keeping its time of day in the given time zone. Gives the same result
+	 * as setting the day fields of a Calendar as long as the zone offset does not change around the target day.
+	 *
+	 * @param epochMillis
+	 * @param days
+	 *            number of days to move
+	 * @param zone
+	 * @return epoch milliseconds or Long.MIN_VALUE if the offset changes and Calendar must be used
+	 */
+	static long plusDaysKeepingTime(long epochMillis, int days, TimeZone zone) {
+		int offset = zone.getOffset(epochMillis);
+		long shiftedMillis = epochMillis + days * MILLISECONDS_PER_DAY;
+
+		if (zone.getOffset(shiftedMillis) == offset && zone.getOffset(shiftedMillis - MILLISECONDS_PER_DAY) == offset
+				&& zone.getOffset(shiftedMillis + MILLISECONDS_PER_DAY) == offset) {
+			return shiftedMillis;
+		}
+		return Long.MIN_VALUE;
+	}
+
+	/**
+	 * Checks whether java.util.Date fields of the given epoch day can be computed here. This holds when the default
+	 * calendar is Gregorian and the day is after the Julian-Gregorian cutover.
+	 *
+	 * @param epochDay
+	 * @return true if the primitive calculation gives the same fields as Calendar
+	 */
+	static boolean isCalendarCompatible(int epochDay) {
+		return DEFAULT_CALENDAR_GREGORIAN && epochDay >= FIRST_GREGORIAN_ONLY_EPOCH_DAY;
+	}
+
+	/**
+	 * Returns year, month and day of the given epoch day packed into one int. Use yearOf, monthOf and dayOf to read
+	 * them.
+	 *
+	 * @param epochDay
+	 * @return packed fields
+	 */
+	static int toFields(int epochDay) {
+		int shiftedDay = epochDay + DAYS_0000_TO_1970;
+		int era = (shiftedDay >= 0 ? shiftedDay : shiftedDay - DAYS_PER_400_YEARS + 1) / DAYS_PER_400_YEARS;
+		int dayOfEra = shiftedDay - era * DAYS_PER_400_YEARS;
+		int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+		int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+		int shiftedMonth = (5 * dayOfYear + 2) / 153;
+		int day = dayOfYear - (153 * shiftedMonth + 2) / 5 + 1;
+		int month = shiftedMonth < 10 ? shiftedMonth + 3 : shiftedMonth - 9;
+		int year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+		return year << 9 | month << 5 | day;
+	}
+
+	static int yearOf(int fields) {
+		return fields >> 9;
+	}
+
+	static int monthOf(int fields) {
+		return fields >> 5 & 15;
+	}
+
+	static int dayOf(int fields) {
+		return fields & 31;
+	}
+
+	private static void checkZone(TimeZone zone) throws IncorrectInputParametersException {
+		if (zone == null) {
+			throw new IncorrectInputParametersException("Incorrect input parameters. Parameter zone is mandatory.");
+		}
+	}
+}
@@ -0,0 +1,65 @@
+package com.runner.architecture.util;
+
+import java.util.Date;
+
+/**
+ * Date that cannot be changed after creation. Every setter throws UnsupportedOperationException so instances can be
+ * shared between callers and threads. clone() returns a mutable java.util.Date.
+ *
+ * @author keshavprasad.akasam
+ *
+ */
+final class RunnerImmutableDate extends Date {
+
+	private static final long serialVersionUID = 1L;
+
+	RunnerImmutableDate(long epochMillis) {
+		super(epochMillis);
+	}
+
+	@Override
+	public void setTime(long time) {
+		throw new UnsupportedOperationException("Date is immutable.");
+	}
+
+	@Override
+	@Deprecated
+	public void setYear(int year) {
+		throw new UnsupportedOperationException("Date is immutable.");
+	}
+
+	@Override
+	@Deprecated
+	public void setMonth(int month) {
+		throw new UnsupportedOperationException("Date is immutable.");
+	}
+
+	@Override
+	@Deprecated
+	public void setDate(int date) {
+		throw new UnsupportedOperationException("Date is immutable.");
+	}
+
+	@Override
+	@Deprecated
+	public void setHours(int hours) {
+		throw new UnsupportedOperationException("Date is immutable.");
+	}
+
+	@Override
+	@Deprecated
+	public void setMinutes(int minutes) {
+		throw new UnsupportedOperationException("Date is immutable.");
+	}
+
+	@Override
+	@Deprecated
+	public void setSeconds(int seconds) {
+		throw new UnsupportedOperationException("Date is immutable.");
+	}
+
+	@Override
+	public Object clone() {
+		return new Date(getTime());
+	}
+}
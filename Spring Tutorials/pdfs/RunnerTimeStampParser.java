@@ -0,0 +1,322 @@
+package com.runner.architecture.util;
+
+import java.util.Calendar;
+import java.util.TimeZone;
+
+/**
+ * Single pass parser for the time stamps of RunnerDate.convertTimeStampStringToDate. The text is read once from start
+ * to end and converted straight to epoch milliseconds, without regular expressions, SimpleDateFormat or intermediate
+ * strings.
+ *
+ * Recognised shapes:
+ * <ul>
+ * <li>date as in RunnerDate.convertStringToDate(String): dd-MM-yyyy, dd.MM.yyyy, d.M.yyyy (and the mixed one and two
+ * digit variants) or ddMMyyyy</li>
+ * <li>or ISO-8601 date yyyy-MM-dd</li>
+ * <li>optionally followed by a space or T and the time HH:mm, HH:mm:ss or HH:mm:ss.S with one to nine fraction digits,
+ * of which milliseconds are kept</li>
+ * <li>optionally followed by the offset Z, +HH, +HHmm or +HH:mm (or with -) after a time</li>
+ * </ul>
+ * A date without time is midnight. Times without offset are local times of the default time zone and must exist in
+ * it, like with the non-lenient formats used before: times skipped by a daylight saving change are invalid.
+ *
+ * Years before 1583, non-Gregorian default calendars and times next to a time zone offset change are computed with a
+ * non-lenient Calendar, everything else with integer arithmetic.
+ *
+ * @author keshavprasad.akasam
+ *
+ */
+final class RunnerTimeStampParser {
+
+	/* Returned when the text does not have a supported shape */
+	static final long UNSUPPORTED = Long.MIN_VALUE;
+
+	/* Returned when the text has a supported shape but the date, time or offset does not exist */
+	static final long INVALID = Long.MIN_VALUE + 1;
+
+	/* Dates after the Julian-Gregorian cutover year are computed arithmetically */
+	private static final int FIRST_GREGORIAN_ONLY_YEAR = 1583;
+
+	private static final int MILLISECONDS_PER_MINUTE = 60 * 1000;
+	private static final int MILLISECONDS_PER_HOUR = 60 * MILLISECONDS_PER_MINUTE;
+
+	/* Largest offset accepted by java.time */
+	private static final int MAX_OFFSET_HOURS = 18;
+
+	/* Marks a time stamp without offset or an offset of unsupported shape */
+	private static final int NO_OFFSET = Integer.MIN_VALUE;
+
+	/* Offset of a supported shape with hours or minutes out of range */
+	private static final int INVALID_OFFSET = Integer.MIN_VALUE + 1;
+
+	private RunnerTimeStampParser() {
+	}
+
+	/**
+	 * Parses characters start (inclusive) to end (exclusive) of the given text.
+	 *
+	 * @param text
+	 * @param start
+	 * @param end
+	 * @return epoch milliseconds, UNSUPPORTED or INVALID
+	 */
+	static long parse(CharSequence text, int start, int end) {
+		return parse(text, start, end, TimeZone.getDefault());
+	}
+
+	/**
+	 * Parses characters start (inclusive) to end (exclusive) of the given text. Time stamps without offset are in the
+	 * given time zone.
+	 *
+	 * @param text
+	 * @param start
+	 * @param end
+	 * @param zone
+	 * @return epoch milliseconds, UNSUPPORTED or INVALID
+	 */
+	static long parse(CharSequence text, int start, int end, TimeZone zone) {
+		return parse(text, start, end, zone, RunnerDateScanner.ALL_SHAPES);
+	}
+
+	/**
+	 * Parses characters start (inclusive) to end (exclusive) of the given text if the date part has one of the given
+	 * shapes of RunnerDateScanner. Time stamps of other shapes return UNSUPPORTED before the date is scanned.
+	 *
+	 * @param text
+	 * @param start
+	 * @param end
+	 * @param zone
+	 * @param shapes
+	 *            bit set of the accepted date shapes
+	 * @return epoch milliseconds, UNSUPPORTED or INVALID
+	 */
+	static long parse(CharSequence text, int start, int end, TimeZone zone, int shapes) {
+		int position;
+		int year;
+		int month;
+		int day;
+
+		// Date part
+		int dateEnd = dateEnd(text, start, end);
+		if (shapes != RunnerDateScanner.ALL_SHAPES && !RunnerDateScanner.hasShape(text, start, dateEnd, shapes)) {
+			return UNSUPPORTED;
+		}
+		if (dateEnd - start == 10 && isDigits(text, start, 4) && text.charAt(start + 4) == '-') {
+			// yyyy-MM-dd
+			year = number(text, start, 4);
+			month = isDigits(text, start + 5, 2) ? number(text, start + 5, 2) : -1;
+			day = isDigits(text, start + 8, 2) ? number(text, start + 8, 2) : -1;
+			if (month < 0 || day < 0 || text.charAt(start + 7) != '-') {
+				return UNSUPPORTED;
+			}
+		} else {
+			int scannedDate = RunnerDateScanner.scanDate(text, start, dateEnd);
+			if (scannedDate == RunnerDateScanner.INVALID) {
+				return hasDateShape(text, start, dateEnd) ? INVALID : UNSUPPORTED;
+			}
+			year = RunnerDateScanner.year(scannedDate);
+			month = RunnerDateScanner.month(scannedDate);
+			day = RunnerDateScanner.day(scannedDate);
+		}
+		position = dateEnd;
+
+		// Time part
+		int millisOfDay = 0;
+		int offset = NO_OFFSET;
+		boolean invalid = false;
+		if (position < end) {
+			position++;
+			if (end - position < 5 || !isDigits(text, position, 2) || text.charAt(position + 2) != ':'
+					|| !isDigits(text, position + 3, 2)) {
+				return UNSUPPORTED;
+			}
+			int hour = number(text, position, 2);
+			int minute = number(text, position + 3, 2);
+			int second = 0;
+			int millisecond = 0;
+			position += 5;
+
+			if (position < end && text.charAt(position) == ':') {
+				if (end - position < 3 || !isDigits(text, position + 1, 2)) {
+					return UNSUPPORTED;
+				}
+				second = number(text, position + 1, 2);
+				position += 3;
+
+				if (position < end && text.charAt(position) == '.') {
+					int digitsStart = ++position;
+					while (position < end && position - digitsStart < 9 && isDigit(text.charAt(position))) {
+						if (position - digitsStart < 3) {
+							millisecond = millisecond * 10 + text.charAt(position) - '0';
+						}
+						position++;
+					}
+					if (position == digitsStart) {
+						return UNSUPPORTED;
+					}
+					// Fraction digits are tenths, hundredths and thousandths
+					for (int digits = position - digitsStart; digits < 3; digits++) {
+						millisecond *= 10;
+					}
+				}
+			}
+			invalid = hour > 23 || minute > 59 || second > 59;
+			millisOfDay = hour * MILLISECONDS_PER_HOUR + minute * MILLISECONDS_PER_MINUTE + second * 1000
+					+ millisecond;
+
+			// Offset
+			if (position < end) {
+				offset = parseOffset(text, position, end);
+				if (offset == NO_OFFSET) {
+					return UNSUPPORTED;
+				}
+				invalid |= offset == INVALID_OFFSET;
+			}
+		}
+
+		if (invalid) {
+			return INVALID;
+		}
+		return toEpochMillis(year, month, day, millisOfDay, offset, zone);
+	}
+
+	/**
+	 * Returns the RunnerDateScanner shape of the date part of characters start (inclusive) to end (exclusive).
+	 *
+	 * @param text
+	 * @param start
+	 * @param end
+	 * @return shape or RunnerDateScanner.NO_SHAPE
+	 */
+	static int shapeOf(CharSequence text, int start, int end) {
+		return RunnerDateScanner.shapeOf(text, start, dateEnd(text, start, end));
+	}
+
+	/*
+	 * Returns the offset in milliseconds, NO_OFFSET if the shape is not supported or INVALID_OFFSET.
+	 */
+	private static int parseOffset(CharSequence text, int position, int end) {
+		char sign = text.charAt(position);
+		if (sign == 'Z') {
+			return end - position == 1 ? 0 : NO_OFFSET;
+		}
+		if ((sign != '+' && sign != '-') || end - position < 3 || !isDigits(text, position + 1, 2)) {
+			return NO_OFFSET;
+		}
+
+		int hours = number(text, position + 1, 2);
+		int minutes;
+		if (end - position == 3) {
+			minutes = 0;
+		} else if (end - position == 5 && isDigits(text, position + 3, 2)) {
+			minutes = number(text, position + 3, 2);
+		} else if (end - position == 6 && text.charAt(position + 3) == ':' && isDigits(text, position + 4, 2)) {
+			minutes = number(text, position + 4, 2);
+		} else {
+			return NO_OFFSET;
+		}
+
+		if (hours > MAX_OFFSET_HOURS || minutes > 59 || (hours == MAX_OFFSET_HOURS && minutes > 0)) {
+			return INVALID_OFFSET;
+		}
+		int offset = hours * MILLISECONDS_PER_HOUR + minutes * MILLISECONDS_PER_MINUTE;
+		return sign == '-' ? -offset : offset;
+	}
+
+	private static long toEpochMillis(int year, int month, int day, int millisOfDay, int offset, TimeZone zone) {
+		if (RunnerEpochDate.DEFAULT_CALENDAR_GREGORIAN && year >= FIRST_GREGORIAN_ONLY_YEAR) {
+			if (month < 1 || month > 12 || day < 1 || day > RunnerEpochDate.lengthOfMonth(year, month)) {
+				return INVALID;
+			}
+			long localMillis = RunnerEpochDate.of(year, month, day) * RunnerEpochDate.MILLISECONDS_PER_DAY
+					+ millisOfDay;
+			if (offset != NO_OFFSET) {
+				return localMillis - offset;
+			}
+
+			int zoneOffset = zone.getOffset(localMillis - zone.getRawOffset());
+			long epochMillis = localMillis - zoneOffset;
+			if (zone.getOffset(epochMillis - RunnerEpochDate.MILLISECONDS_PER_DAY) == zoneOffset
+					&& zone.getOffset(epochMillis + RunnerEpochDate.MILLISECONDS_PER_DAY) == zoneOffset) {
+				return epochMillis;
+			}
+		}
+
+		// Offset changes near the given time, old dates or other calendars
+		Calendar calendar = Calendar.getInstance(offset == NO_OFFSET ? zone : TimeZone.getTimeZone("UTC"));
+		calendar.setLenient(false);
+		calendar.clear();
+		calendar.set(year, month - 1, day);
+		calendar.set(Calendar.HOUR_OF_DAY, millisOfDay / MILLISECONDS_PER_HOUR);
+		calendar.set(Calendar.MINUTE, millisOfDay / MILLISECONDS_PER_MINUTE % 60);
+		calendar.set(Calendar.SECOND, millisOfDay / 1000 % 60);
+		calendar.set(Calendar.MILLISECOND, millisOfDay % 1000);
+		try {
+			long epochMillis = calendar.getTimeInMillis();
+			return offset == NO_OFFSET ? epochMillis : epochMillis - offset;
+		} catch (IllegalArgumentException iae) {
+			// Date does not exist or time falls into a gap
+			return INVALID;
+		}
+	}
+
+	/**
+	 * Checks whether the given characters have one of the date shapes of RunnerDateScanner.scanDate, so that a failed
+	 * scan means a date that does not exist.
+	 *
+	 * @param text
+	 * @param start
+	 * @param end
+	 * @return true if the shape is supported
+	 */
+	static boolean hasDateShape(CharSequence text, int start, int end) {
+		int length = end - start;
+		if (length == 8 && isDigits(text, start, 8)) {
+			return true;
+		}
+		if (length < 8 || length > 10 || !isDigits(text, end - 4, 4)) {
+			return false;
+		}
+		char separator = text.charAt(end - 5);
+		if (separator != '-' && separator != '.') {
+			return false;
+		}
+		int firstSeparator = isDigit(text.charAt(start + 1)) ? start + 2 : start + 1;
+		int monthDigits = end - 5 - firstSeparator - 1;
+		return isDigit(text.charAt(start)) && text.charAt(firstSeparator) == separator && monthDigits >= 1
+				&& monthDigits <= 2 && isDigits(text, firstSeparator + 1, monthDigits);
+	}
+
+	private static int dateEnd(CharSequence text, int start, int end) {
+		int dateEnd = start;
+		while (dateEnd < end && !isTimeSeparator(text.charAt(dateEnd))) {
+			dateEnd++;
+		}
+		return dateEnd;
+	}
+
+	private static boolean isTimeSeparator(char c) {
+		return c == ' ' || c == 'T';
+	}
+
+	private static boolean isDigits(CharSequence text, int position, int count) {
+		for (int i = position; i < position + count; i++) {
+			if (!isDigit(text.charAt(i))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static int number(CharSequence text, int position, int count) {
+		int value = 0;
+		for (int i = position; i < position + count; i++) {
+			value = value * 10 + text.charAt(i) - '0';
+		}
+		return value;
+	}
+
+	private static boolean isDigit(char c) {
+		return c >= '0' && c <= '9';
+	}
+}
@@ -0,0 +1,169 @@
+package com.runner.architecture.util;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Offsets of one time zone as primitive arrays, for converting epoch milliseconds to local epoch days of an explicit
+ * zone without Calendar or java.time objects. The transitions of years {@link #FIRST_CACHED_YEAR}-
+ * {@link #LAST_CACHED_YEAR} are read once from the ZoneRules and searched by binary search; instants outside these
+ * years are looked up from the ZoneRules directly.
+ *
+ * Instances are immutable and cached per zone.
+ *
+ * @author keshavprasad.akasam
+ *
+ */
+final class RunnerZoneOffsets {
+
+	static final int FIRST_CACHED_YEAR = 1900;
+	static final int LAST_CACHED_YEAR = 2100;
+
+	private static final ConcurrentMap<ZoneId, RunnerZoneOffsets> ZONES = new ConcurrentHashMap<ZoneId, RunnerZoneOffsets>();
+
+	private final ZoneId zone;
+	private final ZoneRules rules;
+	private final long firstCachedMillis;
+	private final long lastCachedMillis;
+
+	/* Instant of each transition and the offset in milliseconds valid from it, offsets[0] is valid before the first */
+	private final long[] transitionMillis;
+	private final int[] offsets;
+
+	private RunnerZoneOffsets(ZoneId zone) {
+		this.zone = zone;
+		this.rules = zone.getRules();
+		this.firstCachedMillis = LocalDate.of(FIRST_CACHED_YEAR, 1, 1).toEpochDay() * RunnerEpochDate.MILLISECONDS_PER_DAY;
+		this.lastCachedMillis = LocalDate.of(LAST_CACHED_YEAR + 1, 1, 1).toEpochDay()
+				* RunnerEpochDate.MILLISECONDS_PER_DAY;
+
+		long[] instants = new long[16];
+		int[] offsetsFrom = new int[17];
+		int count = 0;
+		offsetsFrom[0] = rules.getOffset(Instant.ofEpochMilli(firstCachedMillis)).getTotalSeconds() * 1000;
+
+		ZoneOffsetTransition transition = rules.nextTransition(Instant.ofEpochMilli(firstCachedMillis));
+		while (transition != null && transition.toEpochSecond() * 1000 < lastCachedMillis) {
+			if (count == instants.length) {
+				instants = Arrays.copyOf(instants, count * 2);
+				offsetsFrom = Arrays.copyOf(offsetsFrom, count * 2 + 1);
+			}
+			instants[count] = transition.toEpochSecond() * 1000;
+			offsetsFrom[++count] = transition.getOffsetAfter().getTotalSeconds() * 1000;
+			transition = rules.nextTransition(transition.getInstant());
+		}
+
+		this.transitionMillis = Arrays.copyOf(instants, count);
+		this.offsets = Arrays.copyOf(offsetsFrom, count + 1);
+	}
+
+	/**
+	 * Returns the offsets of the given zone.
+	 *
+	 * If zone is null an IncorrectInputParametersException is thrown.
+	 *
+	 * @param zone
+	 * @return offsets
+	 * @throws IncorrectInputParametersException
+	 */
+	static RunnerZoneOffsets of(ZoneId zone) throws IncorrectInputParametersException {
+		if (zone == null) {
+			throw new IncorrectInputParametersException("Incorrect input parameters. Parameter zone is mandatory.");
+		}
+
+		RunnerZoneOffsets offsets = ZONES.get(zone);
+		if (offsets == null) {
+			offsets = new RunnerZoneOffsets(zone);
+			RunnerZoneOffsets existing = ZONES.putIfAbsent(zone, offsets);
+			if (existing != null) {
+				offsets = existing;
+			}
+		}
+		return offsets;
+	}
+
+	/**
+	 * Returns the offset from UTC at the given instant.
+	 *
+	 * @param epochMillis
+	 * @return offset in milliseconds
+	 */
+	int getOffset(long epochMillis) {
+		if (epochMillis < firstCachedMillis || epochMillis >= lastCachedMillis) {
+			return rules.getOffset(Instant.ofEpochMilli(epochMillis)).getTotalSeconds() * 1000;
+		}
+
+		int low = 0;
+		int high = transitionMillis.length;
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (transitionMillis[middle] <= epochMillis) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+		// low transitions are at or before the instant
+		return offsets[low];
+	}
+
+	/**
+	 * Returns the local epoch day of the given instant.
+	 *
+	 * @param epochMillis
+	 * @return epoch day
+	 */
+	int toEpochDay(long epochMillis) {
+		return (int) Math.floorDiv(epochMillis + getOffset(epochMillis), RunnerEpochDate.MILLISECONDS_PER_DAY);
+	}
+
+	/**
+	 * Returns the first instant of the given local day. If midnight falls into a gap the day starts at the end of
+	 * the gap, like LocalDate.atStartOfDay(ZoneId).
+	 *
+	 * @param epochDay
+	 * @return epoch milliseconds
+	 */
+	long toEpochMillis(int epochDay) {
+		long epochMillis = toEpochMillisIfUnambiguous(epochDay * RunnerEpochDate.MILLISECONDS_PER_DAY);
+		if (epochMillis != Long.MIN_VALUE) {
+			return epochMillis;
+		}
+
+		// Offset changes near midnight, let java.time resolve the start of the day
+		return LocalDate.ofEpochDay(epochDay).atStartOfDay(zone).toInstant().toEpochMilli();
+	}
+
+	/**
+	 * Returns the instant of the given local time, given as milliseconds from 1.1.1970 00:00 local time, when the
+	 * offset of the zone does not change within a day of it.
+	 *
+	 * @param localMillis
+	 * @return epoch milliseconds or Long.MIN_VALUE if the offset changes and java.time must be used
+	 */
+	long toEpochMillisIfUnambiguous(long localMillis) {
+		int offset = getOffset(localMillis - offsets[0]);
+		long epochMillis = localMillis - offset;
+
+		if (getOffset(epochMillis - RunnerEpochDate.MILLISECONDS_PER_DAY) == offset
+				&& getOffset(epochMillis + RunnerEpochDate.MILLISECONDS_PER_DAY) == offset) {
+			return epochMillis;
+		}
+		return Long.MIN_VALUE;
+	}
+
+	/**
+	 * Returns the zone of the offsets.
+	 *
+	 * @return zone
+	 */
+	ZoneId getZone() {
+		return zone;
+	}
+}
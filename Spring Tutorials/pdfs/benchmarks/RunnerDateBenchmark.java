@@ -0,0 +1,272 @@
+package com.runner.architecture.util.benchmarks;
+
+import java.util.Date;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.runner.architecture.util.RunnerDate;
+
+/**
+ * JMH benchmarks of the RunnerDate hot paths: parsing, validation, formatting, comparison, differences and month and
+ * year boundaries. Every invocation takes the next value of a fixed, pseudo random input set so that the JIT cannot
+ * fold the inputs to constants. Invalid inputs are benchmarked separately because they take different code paths.
+ *
+ * Runs in a single thread. {@link RunnerDateMultiThreadedBenchmark} runs the same benchmarks in all available
+ * threads.
+ *
+ * @author keshavprasad.akasam
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RunnerDateBenchmark {
+
+	/* Number of prepared inputs, power of two */
+	private static final int INPUT_COUNT = 1024;
+
+	private final String[] validDates = new String[INPUT_COUNT];
+	private final String[] invalidDates = new String[INPUT_COUNT];
+	private final String[] validTimeStamps = new String[INPUT_COUNT];
+	private final String[] invalidTimeStamps = new String[INPUT_COUNT];
+	private final String[] isoTimeStamps = new String[INPUT_COUNT];
+	private final String[] vrkDates = new String[INPUT_COUNT];
+	private final Date[] dates = new Date[INPUT_COUNT];
+	private final Date[] otherDates = new Date[INPUT_COUNT];
+	private final StringBuilder builder = new StringBuilder();
+
+	private int index;
+
+	@Setup
+	public void setUp() {
+		Random random = new Random(INPUT_COUNT);
+		String[] separators = { "-", ".", "" };
+
+		for (int i = 0; i < INPUT_COUNT; i++) {
+			int year = 1900 + random.nextInt(200);
+			int month = 1 + random.nextInt(12);
+			int day = 1 + random.nextInt(28);
+			String separator = separators[i % separators.length];
+
+			validDates[i] = String.format("%02d%s%02d%s%04d", day, separator, month, separator, year);
+			invalidDates[i] = String.format("%02d%s%02d%s%04d", 30 + random.nextInt(3), separator, 2, separator, year);
+			validTimeStamps[i] = String.format("%s %02d:%02d", validDates[i], random.nextInt(24), random.nextInt(60));
+			invalidTimeStamps[i] = String.format("%s %02d:%02d", validDates[i], 24 + random.nextInt(10),
+					random.nextInt(60));
+			isoTimeStamps[i] = String.format("%04d-%02d-%02dT%02d:%02d:%02d.%03d+02:00", year, month, day,
+					random.nextInt(24), random.nextInt(60), random.nextInt(60), random.nextInt(1000));
+			vrkDates[i] = String.format("%04d%02d%02d", year, month, day);
+			dates[i] = RunnerDate.createDate(year, month, day);
+			otherDates[i] = new Date(dates[i].getTime() + random.nextInt(1000) * 86400000L + random.nextInt(86400000));
+		}
+	}
+
+	private int next() {
+		index = (index + 1) & (INPUT_COUNT - 1);
+		return index;
+	}
+
+	/* Parsing */
+
+	@Benchmark
+	public Date convertStringToDateValid() {
+		return RunnerDate.convertStringToDate(validDates[next()]);
+	}
+
+	@Benchmark
+	public Date convertStringToDateInvalid() {
+		return RunnerDate.convertStringToDate(invalidDates[next()]);
+	}
+
+	@Benchmark
+	public Date convertStringToDateInFormat() throws Exception {
+		return RunnerDate.convertStringToDate(vrkDates[next()], RunnerDate.DATE_FORMAT_YYYYMMDD);
+	}
+
+	@Benchmark
+	public Date convertTimeStampStringToDateValid() {
+		return RunnerDate.convertTimeStampStringToDate(validTimeStamps[next()]);
+	}
+
+	@Benchmark
+	public Date convertTimeStampStringToDateInvalid() {
+		return RunnerDate.convertTimeStampStringToDate(invalidTimeStamps[next()]);
+	}
+
+	@Benchmark
+	public Date convertTimeStampStringToDateIso() {
+		return RunnerDate.convertTimeStampStringToDate(isoTimeStamps[next()]);
+	}
+
+	@Benchmark
+	public Date convertTimeStampStringToDateDateOnly() {
+		return RunnerDate.convertTimeStampStringToDate(validDates[next()]);
+	}
+
+	@Benchmark
+	public Date getDateFromVRKDateString() {
+		return RunnerDate.getDateFromVRKDateString(vrkDates[next()]);
+	}
+
+	/* Validation */
+
+	@Benchmark
+	public boolean isDateValidValid() {
+		return RunnerDate.isDateValid(validDates[next()]);
+	}
+
+	@Benchmark
+	public boolean isDateValidInvalid() {
+		return RunnerDate.isDateValid(invalidDates[next()]);
+	}
+
+	@Benchmark
+	public boolean isDateValidInSpecificFormatValid() {
+		return RunnerDate.isDateValidInSpecificFormat(vrkDates[next()], RunnerDate.DATE_FORMAT_YYYYMMDD);
+	}
+
+	@Benchmark
+	public boolean isDateValidInSpecificFormatInvalid() {
+		return RunnerDate.isDateValidInSpecificFormat(invalidDates[next()], RunnerDate.DATE_FORMAT_YYYYMMDD);
+	}
+
+	/* Formatting */
+
+	@Benchmark
+	public String convertDateToString() {
+		return RunnerDate.convertDateToString(dates[next()], RunnerDate.DATE_FORMAT_DDMMYYYY_DOT_SEPARATED);
+	}
+
+	@Benchmark
+	public String convertDateToStringDefaultFormat() {
+		return RunnerDate.convertDateToString(dates[next()], null);
+	}
+
+	@Benchmark
+	public String convertTwoDatesToString() {
+		int i = next();
+		return RunnerDate.convertDateToString(dates[i], otherDates[i], "-",
+				RunnerDate.DATE_FORMAT_DDMMYYYY_DOT_SEPARATED);
+	}
+
+	@Benchmark
+	public StringBuilder convertDateToStringBuilder() {
+		builder.setLength(0);
+		return RunnerDate.convertDateToString(dates[next()], RunnerDate.DATE_FORMAT_DDMMYYYY_DOT_SEPARATED, builder);
+	}
+
+	@Benchmark
+	public StringBuilder convertTimeStampToStringBuilder() {
+		builder.setLength(0);
+		return RunnerDate.convertDateToString(otherDates[next()], RunnerDate.TIME_STAMP_FORMAT_DDMMYYYY_LINE_SEPARATED,
+				builder);
+	}
+
+	/* Comparison */
+
+	@Benchmark
+	public int compareDates() {
+		int i = next();
+		return RunnerDate.compareDates(dates[i], otherDates[i]);
+	}
+
+	@Benchmark
+	public boolean areDatesSame() {
+		int i = next();
+		return RunnerDate.areDatesSame(dates[i], otherDates[i]);
+	}
+
+	@Benchmark
+	public boolean isDateBetweenOrEqualToTwoDates() {
+		int i = next();
+		return RunnerDate.isDateBetweenOrEqualToTwoDates(dates[i], otherDates[i], dates[(i + 1) & (INPUT_COUNT - 1)]);
+	}
+
+	/* Differences */
+
+	@Benchmark
+	public int getDiffinDays() {
+		int i = next();
+		return RunnerDate.getDiffinDays(dates[i], otherDates[i]);
+	}
+
+	@Benchmark
+	public int getDiffBetweenTwoDatesInMonths() {
+		int i = next();
+		return RunnerDate.getDiffBetweenTwoDatesInMonths(dates[i], otherDates[i]);
+	}
+
+	@Benchmark
+	public int getDiffBetweenTwoDatesInYears() {
+		int i = next();
+		return RunnerDate.getDiffBetweenTwoDatesInYears(dates[i], otherDates[i]);
+	}
+
+	/* Fields and arithmetic */
+
+	@Benchmark
+	public int getYearFromDate() {
+		return RunnerDate.getYearFromDate(otherDates[next()]);
+	}
+
+	@Benchmark
+	public Date increaseDateByGivenNumberOfDates() {
+		return RunnerDate.increaseDateByGivenNumberOfDates(dates[next()], 45);
+	}
+
+	@Benchmark
+	public Date increaseDateByGivenNumberOfMonths() {
+		return RunnerDate.increaseDateByGivenNumberOfMonths(dates[next()], 7);
+	}
+
+	/* Month and year boundaries */
+
+	@Benchmark
+	public Date getLastDayOfTheMonth() {
+		return RunnerDate.getLastDayOfTheMonth(otherDates[next()]);
+	}
+
+	@Benchmark
+	public Date getFirstDayOfNextMonthFollowingTheDate() {
+		return RunnerDate.getFirstDayOfNextMonthFollowingTheDate(otherDates[next()]);
+	}
+
+	@Benchmark
+	public Date getFirstDayOfNextYearFollowingTheDate() {
+		return RunnerDate.getFirstDayOfNextYearFollowingTheDate(otherDates[next()]);
+	}
+
+	@Benchmark
+	public Date getFirstDayOfTheYearFromDate() {
+		return RunnerDate.getFirstDayOfTheYearFromDate(otherDates[next()]);
+	}
+
+	@Benchmark
+	public Date getLastDayOfTheYear() {
+		return RunnerDate.getLastDayOfTheYear(otherDates[next()]);
+	}
+
+	@Benchmark
+	public boolean checkIfDateIsFirstDayOfMonth() {
+		return RunnerDate.checkIfDateIsFirstDayOfMonth(dates[next()]);
+	}
+
+	@Benchmark
+	public boolean checkIfDateIsLastDayOfYear() {
+		return RunnerDate.checkIfDateIsLastDayOfYear(dates[next()]);
+	}
+}
@@ -0,0 +1,42 @@
+package com.runner.architecture.util.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs all RunnerDate benchmarks with the GC profiler, so that allocation per operation (gc.alloc.rate.norm) is
+ * reported next to the time, and writes the results as JSON for comparing releases.
+ *
+ * The benchmarks module packages the benchmarks with this runner as main class into target/benchmarks.jar, run it with
+ * java -jar target/benchmarks.jar. Optional arguments: result file name (default runner-date-benchmarks.json) and a
+ * regular expression selecting the benchmarks (default all RunnerDate benchmarks).
+ *
+ * @author keshavprasad.akasam
+ *
+ */
+public final class RunnerDateBenchmarkRunner {
+
+	private static final String DEFAULT_RESULT_FILE = "runner-date-benchmarks.json";
+	private static final String DEFAULT_INCLUDE = RunnerDateBenchmarkRunner.class.getPackage().getName() + ".*";
+
+	private RunnerDateBenchmarkRunner() {
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		String resultFile = args.length > 0 ? args[0] : DEFAULT_RESULT_FILE;
+		String include = args.length > 1 ? args[1] : DEFAULT_INCLUDE;
+
+		Options options = new OptionsBuilder()
+				.include(include)
+				.addProfiler(GCProfiler.class)
+				.resultFormat(ResultFormatType.JSON)
+				.result(resultFile)
+				.build();
+
+		new Runner(options).run();
+	}
+}
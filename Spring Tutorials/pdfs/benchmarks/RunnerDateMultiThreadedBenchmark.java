@@ -0,0 +1,14 @@
+package com.runner.architecture.util.benchmarks;
+
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * Runs the {@link RunnerDateBenchmark} benchmarks in as many threads as there are processors, to show contention on
+ * shared state such as the format registry and the default time zone.
+ *
+ * @author keshavprasad.akasam
+ *
+ */
+@Threads(Threads.MAX)
+public class RunnerDateMultiThreadedBenchmark extends RunnerDateBenchmark {
+}
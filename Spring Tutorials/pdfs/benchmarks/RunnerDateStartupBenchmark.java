@@ -0,0 +1,43 @@
+package com.runner.architecture.util.benchmarks;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.runner.architecture.util.RunnerDate;
+
+/**
+ * Cold start benchmarks: each fork measures one first call in a fresh JVM, so the time includes loading and
+ * initialising the classes behind the call. parseDate only loads the core date utilities, convertToCastorDate loads
+ * RunnerCastorDates and Castor on top, which shows what services that never convert Castor dates save.
+ *
+ * Run with enough forks for stable results, for example -f 50. The class loading counts are easiest to compare with
+ * -jvmArgsAppend -verbose:class.
+ *
+ * @author keshavprasad.akasam
+ *
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(20)
+public class RunnerDateStartupBenchmark {
+
+	@Benchmark
+	public Date parseDate() {
+		return RunnerDate.convertStringToDate("24.12.2015");
+	}
+
+	@Benchmark
+	public Object convertToCastorDate() {
+		return RunnerDate.convertUtilDateToCastorDate(RunnerDate.convertStringToDate("24.12.2015"));
+	}
+}
@@ -0,0 +1,154 @@
+package com.runner.architecture.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+/**
+ * Compares the rank and select based methods of RunnerBusinessCalendar with counting business days one by one, and
+ * checks the calendar file format of RunnerBusinessCalendar.read.
+ *
+ * @author keshavprasad.akasam
+ *
+ */
+public class RunnerBusinessCalendarTest {
+
+	private static final int FIRST_YEAR = 2019;
+	private static final int LAST_YEAR = 2021;
+
+	/* Saturday-Sunday, Friday-Saturday, none, Sunday only and all days but Wednesday */
+	private static final int[] WEEKEND_MASKS = { RunnerBusinessCalendar.SATURDAY_SUNDAY,
+			RunnerBusinessCalendar.FRIDAY_SATURDAY, RunnerBusinessCalendar.NO_WEEKEND,
+			RunnerBusinessCalendar.weekendMask(DayOfWeek.SUNDAY), 0x7F & ~(1 << DayOfWeek.WEDNESDAY.ordinal()) };
+
+	/* Days checked, from three years before the holidays to three years after them */
+	private static final int FIRST_DAY = RunnerEpochDate.of(FIRST_YEAR - 3, 1, 1);
+	private static final int LAST_DAY = RunnerEpochDate.of(LAST_YEAR + 3, 12, 31);
+
+	@Test
+	public void matchesCountingDayByDay() {
+		Random random = new Random(24);
+		for (int weekendMask : WEEKEND_MASKS) {
+			Set<Integer> holidays = new HashSet<Integer>();
+			// First and last days of the years, including 31.12 of the leap year 2020
+			for (int year = FIRST_YEAR; year <= LAST_YEAR; year++) {
+				holidays.add(RunnerEpochDate.of(year, 1, 1));
+				holidays.add(RunnerEpochDate.of(year, 12, 31));
+			}
+			for (int i = 0; i < 60; i++) {
+				holidays.add(RunnerEpochDate.of(FIRST_YEAR, 1, 1) + random.nextInt(3 * 365));
+			}
+
+			RunnerBusinessCalendar.Builder builder = RunnerBusinessCalendar.builder(FIRST_YEAR, LAST_YEAR)
+					.setWeekendMask(weekendMask);
+			for (int holiday : holidays) {
+				builder.addHoliday(holiday);
+			}
+			check(builder.build(), weekendMask, holidays);
+		}
+	}
+
+	@Test
+	public void readsCalendarFile() throws IOException {
+		String text = "# Holidays of a test market\n" + "years=2019-2021\n" + "weekend=friday, SATURDAY\n" + "\n"
+				+ "2019-01-01 # New year\n" + "  2020-12-31  \n" + "2021-06-25\n";
+		RunnerBusinessCalendar calendar = RunnerBusinessCalendar.read(new StringReader(text));
+
+		assertEquals(2019, calendar.getFirstYear());
+		assertEquals(2021, calendar.getLastYear());
+		assertEquals(RunnerBusinessCalendar.FRIDAY_SATURDAY, calendar.getWeekendMask());
+
+		Set<Integer> holidays = new HashSet<Integer>();
+		holidays.add(RunnerEpochDate.of(2019, 1, 1));
+		holidays.add(RunnerEpochDate.of(2020, 12, 31));
+		holidays.add(RunnerEpochDate.of(2021, 6, 25));
+		check(calendar, RunnerBusinessCalendar.FRIDAY_SATURDAY, holidays);
+
+		// Years default to those of the first and last holiday, weekend to Saturday and Sunday
+		calendar = RunnerBusinessCalendar.read(new StringReader("2021-06-25\n2019-01-01\n"));
+		assertEquals(2019, calendar.getFirstYear());
+		assertEquals(2021, calendar.getLastYear());
+		assertEquals(RunnerBusinessCalendar.SATURDAY_SUNDAY, calendar.getWeekendMask());
+
+		assertEquals(RunnerBusinessCalendar.NO_WEEKEND, RunnerBusinessCalendar.read(new StringReader(
+				"years=2020-2020\nweekend=\n")).getWeekendMask());
+	}
+
+	@Test
+	public void rejectsMalformedLines() {
+		assertNotValid("years=2020-2020\n2020-13-01\n", "Line 2");
+		assertNotValid("2020-02-30\n", "Line 1");
+		assertNotValid("2020/01/01\n", "Line 1");
+		assertNotValid("2020-1-1\n", "Line 1");
+		assertNotValid("years=2020\n", "Line 1");
+		assertNotValid("years=2020-x\n", "Line 1");
+		assertNotValid("weekend=FUNDAY\n", "Line 1");
+		assertNotValid("# no entries\n", "neither years nor holidays");
+		assertNotValid("years=2020-2020\n2021-01-01\n", "not valid");
+		assertNotValid("years=1500-1600\n", "not valid");
+		assertNotValid("years=2020-2020\nweekend=MONDAY,TUESDAY,WEDNESDAY,THURSDAY,FRIDAY,SATURDAY,SUNDAY\n",
+				"not valid");
+	}
+
+	private static void check(RunnerBusinessCalendar calendar, int weekendMask, Set<Integer> holidays) {
+		for (int day = FIRST_DAY; day <= LAST_DAY; day++) {
+			String message = weekendMask + " " + day;
+			assertEquals(message, isBusinessDay(day, weekendMask, holidays), calendar.isBusinessDay(day));
+			assertEquals(message, holidays.contains(day), calendar.isHoliday(day));
+
+			for (int days = -10; days <= 10; days++) {
+				int expected = plusBusinessDays(day, days, weekendMask, holidays);
+				assertEquals(message + " " + days, expected, calendar.plusBusinessDays(day, days));
+				if (isBusinessDay(day, weekendMask, holidays)) {
+					assertEquals(message + " " + days, days, calendar.getDiffInBusinessDays(day, expected));
+				}
+			}
+		}
+
+		// Counts over the whole range, across the edges of the holiday years
+		int count = 0;
+		for (int day = FIRST_DAY + 1; day <= LAST_DAY; day++) {
+			if (isBusinessDay(day, weekendMask, holidays)) {
+				count++;
+			}
+		}
+		assertEquals(count, calendar.getDiffInBusinessDays(FIRST_DAY, LAST_DAY));
+		assertEquals(-count, calendar.getDiffInBusinessDays(LAST_DAY, FIRST_DAY));
+	}
+
+	private static boolean isBusinessDay(int epochDay, int weekendMask, Set<Integer> holidays) {
+		int dayOfWeek = LocalDate.ofEpochDay(epochDay).getDayOfWeek().ordinal();
+		return (weekendMask & 1 << dayOfWeek) == 0 && !holidays.contains(epochDay);
+	}
+
+	private static int plusBusinessDays(int epochDay, int days, int weekendMask, Set<Integer> holidays) {
+		int step = days < 0 ? -1 : 1;
+		int day = epochDay;
+		for (int counted = 0; counted != days; counted += step) {
+			day += step;
+			while (!isBusinessDay(day, weekendMask, holidays)) {
+				day += step;
+			}
+		}
+		return day;
+	}
+
+	private static void assertNotValid(String text, String expectedMessage) {
+		try {
+			RunnerBusinessCalendar.read(new StringReader(text));
+			fail(text);
+		} catch (IOException ioe) {
+			assertTrue(ioe.getMessage(), ioe.getMessage().contains(expectedMessage));
+		}
+	}
+}
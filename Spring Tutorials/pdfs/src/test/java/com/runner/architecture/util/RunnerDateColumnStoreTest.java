@@ -0,0 +1,288 @@
+package com.runner.architecture.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.TimeZone;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Compares the filters of RunnerDateColumnStore with RunnerDate.isDateBetweenOrEqualToTwoDates and
+ * RunnerDate.compareDates, and checks reopening and validating column files.
+ *
+ * @author keshavprasad.akasam
+ *
+ */
+public class RunnerDateColumnStoreTest {
+
+	/* 1.1.2015 00:00 in Europe/Helsinki */
+	private static final long FIRST_MILLIS = 1420063200000L;
+
+	private static final long MILLISECONDS_PER_DAY = 24L * 60 * 60 * 1000;
+
+	/* Offset of the first date in a column file */
+	private static final int HEADER_SIZE = 16;
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private TimeZone defaultZone;
+
+	@Before
+	public void setUp() {
+		defaultZone = TimeZone.getDefault();
+		TimeZone.setDefault(TimeZone.getTimeZone("Europe/Helsinki"));
+	}
+
+	@After
+	public void tearDown() {
+		TimeZone.setDefault(defaultZone);
+	}
+
+	@Test
+	public void filtersMatchRunnerDate() {
+		Random random = new Random(23);
+		List<Date> dates = new ArrayList<Date>();
+		RunnerDateColumnStore column = RunnerDateColumnStore.allocate(16);
+		// Sorted dates first so that blocks are wholly inside or outside ranges, then random dates and nulls
+		for (int i = 0; i < 3 * RunnerDateColumnStore.BLOCK_SIZE; i++) {
+			dates.add(new Date(FIRST_MILLIS + i / 20 * MILLISECONDS_PER_DAY + random.nextInt(86400000)));
+		}
+		for (int i = 0; i < 2 * RunnerDateColumnStore.BLOCK_SIZE + 100; i++) {
+			dates.add(randomDate(random));
+		}
+		for (Date date : dates) {
+			column.add(date);
+		}
+		assertEquals(dates.size(), column.size());
+
+		List<Date> bounds = new ArrayList<Date>();
+		bounds.add(null);
+		for (int i = 0; i < 30; i++) {
+			bounds.add(randomDate(random));
+		}
+		bounds.add(new Date(FIRST_MILLIS));
+		bounds.add(new Date(FIRST_MILLIS + 400 * MILLISECONDS_PER_DAY));
+
+		for (Date earlierDate : bounds) {
+			for (Date laterDate : bounds) {
+				BitSet matches = new BitSet();
+				int count = column.filterBetweenOrEqual(earlierDate, laterDate, matches);
+				String message = earlierDate + " " + laterDate;
+				assertEquals(message, matches.cardinality(), count);
+				assertEquals(message, count, column.filterBetweenOrEqual(earlierDate, laterDate, null));
+				for (int i = 0; i < dates.size(); i++) {
+					assertEquals(message + " " + i, RunnerDate.isDateBetweenOrEqualToTwoDates(earlierDate,
+							laterDate, dates.get(i)), matches.get(i));
+				}
+
+				column.filterBetween(earlierDate, laterDate, matches);
+				for (int i = 0; i < dates.size(); i++) {
+					assertEquals(message + " " + i, RunnerDate.compareDates(dates.get(i), earlierDate) == 1
+							&& RunnerDate.compareDates(dates.get(i), laterDate) == -1, matches.get(i));
+				}
+			}
+
+			for (int comparison = -1; comparison <= 1; comparison++) {
+				BitSet matches = new BitSet();
+				column.filterCompared(earlierDate, comparison, matches);
+				for (int i = 0; i < dates.size(); i++) {
+					assertEquals(earlierDate + " " + comparison + " " + i,
+							RunnerDate.compareDates(dates.get(i), earlierDate) == comparison, matches.get(i));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void setRecomputesBlock() {
+		RunnerDateColumnStore column = RunnerDateColumnStore.allocate(0);
+		for (int i = 0; i < 2 * RunnerDateColumnStore.BLOCK_SIZE; i++) {
+			column.add(1000 + i / RunnerDateColumnStore.BLOCK_SIZE);
+		}
+		assertEquals(0, column.filterBetweenOrEqual(5000, 5000, null));
+
+		column.set(RunnerDateColumnStore.BLOCK_SIZE - 1, 5000);
+		column.set(RunnerDateColumnStore.BLOCK_SIZE, RunnerDateColumnStore.NULL_EPOCH_DAY);
+		assertEquals(1, column.filterBetweenOrEqual(5000, 5000, null));
+		assertEquals(RunnerDateColumnStore.BLOCK_SIZE - 1, column.filterBetweenOrEqual(1000, 1000, null));
+		assertEquals(1, column.filterBetweenOrEqual(RunnerDateColumnStore.NULL_EPOCH_DAY,
+				RunnerDateColumnStore.NULL_EPOCH_DAY, null));
+	}
+
+	@Test
+	public void skipsAndTakesBlocksByMinimumAndMaximum() throws IOException {
+		File file = folder.newFile("skip.dates");
+		RunnerDateColumnStore column = RunnerDateColumnStore.open(file, 0);
+		try {
+			// Block 0 on day 100, block 1 on day 200 and block 2 on days 300 and 301
+			for (int i = 0; i < 3 * RunnerDateColumnStore.BLOCK_SIZE; i++) {
+				int block = i / RunnerDateColumnStore.BLOCK_SIZE;
+				column.add(block == 2 ? 300 + i % 2 : 100 * (block + 1));
+			}
+			column.flush();
+
+			// Change the days behind the back of the column: only blocks the filters read see the change
+			RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+			try {
+				MappedByteBuffer buffer = randomAccessFile.getChannel().map(FileChannel.MapMode.READ_WRITE, 0,
+						randomAccessFile.length());
+				buffer.order(ByteOrder.nativeOrder());
+				for (int i = 0; i < 3 * RunnerDateColumnStore.BLOCK_SIZE; i++) {
+					buffer.putInt(HEADER_SIZE + i * 4, 250);
+				}
+				buffer.force();
+			} finally {
+				randomAccessFile.close();
+			}
+
+			// Blocks whose days are all outside or all inside the range are not read
+			assertEquals(0, column.filterBetweenOrEqual(240, 260, null));
+			assertEquals(RunnerDateColumnStore.BLOCK_SIZE, column.filterBetweenOrEqual(200, 250, null));
+
+			// Block 2 is partly inside and read with the changed days
+			assertEquals(0, column.filterBetweenOrEqual(301, 301, null));
+			assertEquals(RunnerDateColumnStore.BLOCK_SIZE, column.filterBetweenOrEqual(201, 300, null));
+		} finally {
+			column.close();
+		}
+	}
+
+	@Test
+	public void reopensGrownFile() throws IOException {
+		File file = folder.newFile("column.dates");
+		Random random = new Random(32);
+		List<Date> dates = new ArrayList<Date>();
+
+		RunnerDateColumnStore column = RunnerDateColumnStore.open(file, 16);
+		try {
+			assertTrue(column.isFileBacked());
+			for (int i = 0; i < 5000; i++) {
+				Date date = randomDate(random);
+				dates.add(date);
+				column.add(date);
+			}
+			column.set(7, null);
+			dates.set(7, null);
+		} finally {
+			column.close();
+		}
+
+		Date earlierDate = new Date(FIRST_MILLIS + 100 * MILLISECONDS_PER_DAY);
+		Date laterDate = new Date(FIRST_MILLIS + 200 * MILLISECONDS_PER_DAY);
+		column = RunnerDateColumnStore.open(file);
+		try {
+			assertEquals(dates.size(), column.size());
+			for (int i = 0; i < dates.size(); i++) {
+				Date date = dates.get(i);
+				assertEquals(date == null ? RunnerDateColumnStore.NULL_EPOCH_DAY : RunnerEpochDate.toEpochDay(date
+						.getTime()), column.getEpochDay(i));
+				assertEquals(0, RunnerDate.compareDates(date, column.get(i)));
+			}
+			assertFilter(dates, column, earlierDate, laterDate);
+
+			// The reopened column grows further
+			for (int i = 0; i < 3000; i++) {
+				Date date = randomDate(random);
+				dates.add(date);
+				column.add(date);
+			}
+		} finally {
+			column.close();
+		}
+
+		column = RunnerDateColumnStore.open(file);
+		try {
+			assertEquals(dates.size(), column.size());
+			assertFilter(dates, column, earlierDate, laterDate);
+			assertFilter(dates, column, earlierDate, null);
+		} finally {
+			column.close();
+		}
+	}
+
+	@Test
+	public void rejectsFilesOfOtherKinds() throws IOException {
+		assertNotColumn(new byte[8]);
+		assertNotColumn("this is not a column of dates".getBytes("US-ASCII"));
+
+		// Valid header claiming more dates than the file holds
+		File file = folder.newFile("short.dates");
+		RunnerDateColumnStore column = RunnerDateColumnStore.open(file, 4);
+		column.add(1);
+		column.close();
+		RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+		try {
+			MappedByteBuffer buffer = randomAccessFile.getChannel().map(FileChannel.MapMode.READ_WRITE, 0,
+					HEADER_SIZE);
+			buffer.order(ByteOrder.nativeOrder()).putInt(8, 5);
+			buffer.force();
+		} finally {
+			randomAccessFile.close();
+		}
+		assertNotColumn(file);
+
+		// An empty file becomes an empty column
+		column = RunnerDateColumnStore.open(folder.newFile("empty.dates"));
+		assertEquals(0, column.size());
+		column.close();
+	}
+
+	private void assertNotColumn(byte[] content) throws IOException {
+		File file = folder.newFile();
+		RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+		try {
+			randomAccessFile.write(content);
+		} finally {
+			randomAccessFile.close();
+		}
+		assertNotColumn(file);
+		assertEquals(content.length, file.length());
+	}
+
+	private static void assertNotColumn(File file) {
+		try {
+			RunnerDateColumnStore.open(file).close();
+			fail(file.toString());
+		} catch (IOException ioe) {
+			// expected
+		}
+	}
+
+	private static void assertFilter(List<Date> dates, RunnerDateColumnStore column, Date earlierDate,
+			Date laterDate) {
+		BitSet matches = new BitSet();
+		column.filterBetweenOrEqual(earlierDate, laterDate, matches);
+		for (int i = 0; i < dates.size(); i++) {
+			assertEquals(String.valueOf(i), RunnerDate.isDateBetweenOrEqualToTwoDates(earlierDate, laterDate, dates
+					.get(i)), matches.get(i));
+		}
+	}
+
+	/*
+	 * Date within 400 days from FIRST_MILLIS at a random time, and now and then null.
+	 */
+	private static Date randomDate(Random random) {
+		if (random.nextInt(15) == 0) {
+			return null;
+		}
+		return new Date(FIRST_MILLIS + random.nextInt(400) * MILLISECONDS_PER_DAY + random.nextInt(86400000));
+	}
+}
@@ -0,0 +1,155 @@
+package com.runner.architecture.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.util.Calendar;
+import java.util.Date;
+import java.util.Random;
+import java.util.TimeZone;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Checks the whole years of RunnerDate.getDiffBetweenTwoDatesInYears and RunnerDate.getAge and the periods of
+ * RunnerDatePeriod. The reference method below counts anniversaries with a Calendar, like the fallback used for dates
+ * before 1583.
+ *
+ * @author keshavprasad.akasam
+ *
+ */
+public class RunnerDatePeriodTest {
+
+	/* Zones with daylight saving gaps at midnight and zones that skipped a whole day */
+	private static final String[] ZONES = { "UTC", "Europe/Helsinki", "America/Sao_Paulo", "Pacific/Apia",
+			"Pacific/Kiritimati" };
+
+	private TimeZone defaultZone;
+
+	@Before
+	public void setUp() {
+		defaultZone = TimeZone.getDefault();
+	}
+
+	@After
+	public void tearDown() {
+		TimeZone.setDefault(defaultZone);
+	}
+
+	@Test
+	public void leapDayAnniversaryIsLastDayOfFebruary() {
+		Date leapDay = RunnerDate.createDate(2000, 2, 29);
+
+		assertEquals(0, RunnerDate.getDiffBetweenTwoDatesInYears(leapDay, RunnerDate.createDate(2001, 2, 27)));
+		assertEquals(1, RunnerDate.getDiffBetweenTwoDatesInYears(leapDay, RunnerDate.createDate(2001, 2, 28)));
+		assertEquals(3, RunnerDate.getDiffBetweenTwoDatesInYears(leapDay, RunnerDate.createDate(2004, 2, 28)));
+		assertEquals(4, RunnerDate.getDiffBetweenTwoDatesInYears(leapDay, RunnerDate.createDate(2004, 2, 29)));
+		assertEquals(0, RunnerDate.getAge(leapDay, RunnerDate.createDate(2001, 2, 27)));
+		assertEquals(1, RunnerDate.getAge(leapDay, RunnerDate.createDate(2001, 2, 28)));
+
+		long period = RunnerDatePeriod.between(RunnerEpochDate.of(2000, 2, 29), RunnerEpochDate.of(2001, 2, 28));
+		assertPeriod(1, 0, 0, period);
+		period = RunnerDatePeriod.between(RunnerEpochDate.of(2000, 2, 29), RunnerEpochDate.of(2001, 2, 27));
+		assertPeriod(0, 11, 29, period);
+	}
+
+	@Test
+	public void monthEndsAreClamped() {
+		assertPeriod(0, 1, 0, RunnerDatePeriod.between(RunnerEpochDate.of(2000, 1, 31), RunnerEpochDate.of(2000, 2,
+				29)));
+		assertPeriod(0, 1, 1, RunnerDatePeriod.between(RunnerEpochDate.of(2000, 1, 31), RunnerEpochDate.of(2000, 3,
+				1)));
+		assertPeriod(0, 1, 1, RunnerDatePeriod.between(RunnerEpochDate.of(2001, 1, 30), RunnerEpochDate.of(2001, 3,
+				1)));
+	}
+
+	@Test
+	public void argumentOrderOnlyChangesSign() {
+		Date earlier = RunnerDate.createDate(1990, 6, 15);
+		Date later = RunnerDate.createDate(2015, 6, 14);
+
+		assertEquals(24, RunnerDate.getDiffBetweenTwoDatesInYears(earlier, later));
+		assertEquals(24, RunnerDate.getDiffBetweenTwoDatesInYears(later, earlier));
+
+		int start = RunnerEpochDate.of(1990, 6, 15);
+		int end = RunnerEpochDate.of(2015, 6, 14);
+		assertPeriod(24, 11, 30, RunnerDatePeriod.between(start, end));
+		assertPeriod(-24, -11, -30, RunnerDatePeriod.between(end, start));
+		assertEquals(-299, RunnerDatePeriod.getTotalMonths(RunnerDatePeriod.between(end, start)));
+
+		try {
+			RunnerDate.getAge(later, earlier);
+			fail("date before birthDate");
+		} catch (IncorrectInputParametersException iipe) {
+			// expected
+		}
+	}
+
+	@Test
+	public void doesNotDependOnDefaultZone() {
+		for (String zone : ZONES) {
+			TimeZone.setDefault(TimeZone.getTimeZone(zone));
+
+			assertEquals(zone, 1, RunnerDate.getDiffBetweenTwoDatesInYears(RunnerDate.createDate(2010, 12, 31),
+					RunnerDate.createDate(2011, 12, 31)));
+			assertEquals(zone, 0, RunnerDate.getDiffBetweenTwoDatesInYears(RunnerDate.createDate(2010, 12, 31),
+					RunnerDate.createDate(2011, 12, 29)));
+			assertEquals(zone, 20, RunnerDate.getAge(RunnerDate.createDate(1995, 10, 15),
+					RunnerDate.createDate(2015, 10, 15)));
+		}
+	}
+
+	@Test
+	public void matchesCalendarAnniversaries() {
+		Random random = new Random(15);
+		for (String zone : ZONES) {
+			TimeZone.setDefault(TimeZone.getTimeZone(zone));
+			for (int i = 0; i < 4000; i++) {
+				// Half of the dates before the Julian-Gregorian cutover
+				int year = i % 2 == 0 ? 1450 + random.nextInt(200) : 1900 + random.nextInt(130);
+				Date date1 = RunnerDate.createDate(year, 1 + random.nextInt(12), 1 + random.nextInt(31));
+				Date date2 = RunnerDate.createDate(year + random.nextInt(80), 1 + random.nextInt(12),
+						1 + random.nextInt(31));
+
+				String message = zone + " " + date1 + " " + date2;
+				int expected = getDiffInYears(date1, date2);
+				assertEquals(message, expected, RunnerDate.getDiffBetweenTwoDatesInYears(date1, date2));
+				assertEquals(message, expected, RunnerDate.getDiffBetweenTwoDatesInYears(date2, date1));
+			}
+		}
+	}
+
+	private static void assertPeriod(int years, int months, int days, long period) {
+		assertEquals(years, RunnerDatePeriod.getYears(period));
+		assertEquals(months, RunnerDatePeriod.getMonths(period));
+		assertEquals(days, RunnerDatePeriod.getDays(period));
+	}
+
+	/*
+	 * Whole years between the days of the dates in the default time zone, counted with a Calendar in UTC so that
+	 * adding years never lands in an offset change.
+	 */
+	private static int getDiffInYears(Date date1, Date date2) {
+		Calendar earlier = toUtcDay(date1.before(date2) ? date1 : date2);
+		Calendar later = toUtcDay(date1.before(date2) ? date2 : date1);
+
+		int diffInYears = later.get(Calendar.YEAR) - earlier.get(Calendar.YEAR);
+		earlier.add(Calendar.YEAR, diffInYears);
+		if (earlier.after(later)) {
+			diffInYears--;
+		}
+		return diffInYears;
+	}
+
+	private static Calendar toUtcDay(Date date) {
+		Calendar local = Calendar.getInstance();
+		local.setTime(date);
+
+		Calendar utc = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+		utc.clear();
+		utc.set(local.get(Calendar.YEAR), local.get(Calendar.MONTH), local.get(Calendar.DATE));
+		return utc;
+	}
+}
@@ -0,0 +1,186 @@
+package com.runner.architecture.util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.TimeZone;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Compares the lookups of RunnerDateRangeIndex with a linear scan over the periods using
+ * RunnerDate.isDateBetweenOrEqualToTwoDates and RunnerDate.isDateBetweenTwoDates. Sizes around powers of two check
+ * the implicit tree when its last subtree is incomplete.
+ *
+ * @author keshavprasad.akasam
+ *
+ */
+public class RunnerDateRangeIndexTest {
+
+	private static final int[] SIZES = { 0, 1, 2, 3, 4, 5, 7, 8, 9, 15, 16, 17, 31, 32, 33, 63, 64, 65, 127, 128, 129,
+			255, 256, 257, 1000, 1023, 1024, 1025 };
+
+	/* 1.1.2015 00:00 in Europe/Helsinki */
+	private static final long FIRST_MILLIS = 1420063200000L;
+
+	private static final long MILLISECONDS_PER_DAY = 24L * 60 * 60 * 1000;
+
+	private TimeZone defaultZone;
+
+	@Before
+	public void setUp() {
+		defaultZone = TimeZone.getDefault();
+		TimeZone.setDefault(TimeZone.getTimeZone("Europe/Helsinki"));
+	}
+
+	@After
+	public void tearDown() {
+		TimeZone.setDefault(defaultZone);
+	}
+
+	@Test
+	public void betweenOrEqualMatchesLinearScan() {
+		Random random = new Random(12);
+		for (int size : SIZES) {
+			check(RunnerDateRangeIndex.betweenOrEqualBuilder(), size, random);
+		}
+	}
+
+	@Test
+	public void betweenMatchesLinearScan() {
+		Random random = new Random(21);
+		for (int size : SIZES) {
+			check(RunnerDateRangeIndex.betweenBuilder(), size, random);
+		}
+	}
+
+	@Test
+	public void nullBoundsAndEmptyPeriods() {
+		Date first = new Date(FIRST_MILLIS);
+		Date second = new Date(FIRST_MILLIS + MILLISECONDS_PER_DAY);
+
+		RunnerDateRangeIndex.Builder builder = RunnerDateRangeIndex.betweenOrEqualBuilder();
+		builder.add(second, first);
+		builder.add(first, null);
+		builder.add(null, second);
+		builder.add(null, null);
+		RunnerDateRangeIndex index = builder.build();
+
+		assertEquals(4, index.size());
+		assertArrayEquals(new int[] { 1 }, index.getContaining(first));
+		assertArrayEquals(new int[] { 1 }, index.getContaining(second));
+		// A null date is later than any date and only before or equal to a null end
+		assertArrayEquals(new int[] { 1, 3 }, index.getContaining((Date) null));
+
+		builder = RunnerDateRangeIndex.betweenBuilder();
+		builder.add(first, first);
+		builder.add(first, new Date(FIRST_MILLIS + 1));
+		builder.add(first, null);
+		builder.add(first, second);
+		index = builder.build();
+
+		assertEquals(4, index.size());
+		assertArrayEquals(new int[0], index.getContaining(first));
+		assertArrayEquals(new int[] { 3 }, index.getContaining(new Date(FIRST_MILLIS + 1)));
+		assertArrayEquals(new int[0], index.getContaining(second));
+		assertArrayEquals(new int[0], index.getContaining((Date) null));
+	}
+
+	private static void check(RunnerDateRangeIndex.Builder builder, int size, Random random) {
+		List<Date[]> periods = new ArrayList<Date[]>();
+		for (int i = 0; i < size; i++) {
+			Date start = randomDate(random, true);
+			Date end = random.nextInt(10) == 0 ? start : randomDate(random, true);
+			periods.add(new Date[] { start, end });
+			assertEquals(i, builder.add(start, end));
+		}
+		RunnerDateRangeIndex index = builder.build();
+		boolean betweenOrEqual = index.isBetweenOrEqual();
+
+		List<Date> dates = new ArrayList<Date>();
+		for (Date[] period : periods) {
+			// Bounds and their neighbours are the edge cases of both semantics
+			for (Date bound : period) {
+				if (bound != null) {
+					dates.add(bound);
+					dates.add(new Date(bound.getTime() - 1));
+					dates.add(new Date(bound.getTime() + 1));
+				}
+			}
+		}
+		for (int i = 0; i < 200; i++) {
+			dates.add(randomDate(random, betweenOrEqual));
+		}
+
+		for (Date date : dates) {
+			int[] expected = getContaining(periods, betweenOrEqual, date);
+			String message = size + " " + date;
+			assertArrayEquals(message, expected, index.getContaining(date));
+			assertEquals(message, expected.length, index.countContaining(date));
+			assertEquals(message, expected.length > 0, index.containsAny(date));
+			if (betweenOrEqual && date != null) {
+				int epochDay = RunnerEpochDate.toEpochDay(date.getTime());
+				assertArrayEquals(message, expected, index.getContaining(epochDay));
+				assertEquals(message, expected.length > 0, index.containsAny(epochDay));
+			}
+		}
+
+		// Sorted sweep over the same dates
+		Collections.sort(dates, betweenOrEqual ? new Comparator<Date>() {
+			@Override
+			public int compare(Date date1, Date date2) {
+				return RunnerDate.compareDates(date1, date2);
+			}
+		} : new Comparator<Date>() {
+			@Override
+			public int compare(Date date1, Date date2) {
+				return date1.compareTo(date2);
+			}
+		});
+		BitSet contained = new BitSet();
+		int count = index.containsAny(dates, contained);
+		assertEquals(size + " sweep", contained.cardinality(), count);
+		for (int i = 0; i < dates.size(); i++) {
+			assertEquals(size + " " + dates.get(i), getContaining(periods, betweenOrEqual, dates.get(i)).length > 0,
+					contained.get(i));
+		}
+	}
+
+	private static int[] getContaining(List<Date[]> periods, boolean betweenOrEqual, Date date) {
+		int[] found = new int[periods.size()];
+		int count = 0;
+		for (int i = 0; i < periods.size(); i++) {
+			Date[] period = periods.get(i);
+			if (betweenOrEqual ? RunnerDate.isDateBetweenOrEqualToTwoDates(period[0], period[1], date) : RunnerDate
+					.isDateBetweenTwoDates(period[0], period[1], date)) {
+				found[count++] = i;
+			}
+		}
+		int[] result = new int[count];
+		System.arraycopy(found, 0, result, 0, count);
+		return result;
+	}
+
+	/*
+	 * Date within 60 days from FIRST_MILLIS, at midnight or at a random time, and now and then null.
+	 */
+	private static Date randomDate(Random random, boolean nullable) {
+		if (nullable && random.nextInt(12) == 0) {
+			return null;
+		}
+		long millis = FIRST_MILLIS + random.nextInt(60) * MILLISECONDS_PER_DAY;
+		if (random.nextBoolean()) {
+			millis += random.nextInt((int) MILLISECONDS_PER_DAY);
+		}
+		return new Date(millis);
+	}
+}
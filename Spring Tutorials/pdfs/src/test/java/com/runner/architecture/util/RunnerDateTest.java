@@ -0,0 +1,244 @@
+package com.runner.architecture.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.time.ZoneId;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.TimeZone;
+import java.util.regex.Pattern;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Compares the date string conversions of RunnerDate with the SimpleDateFormat implementation they replaced. The
+ * reference methods below are the previous implementations of isDateValid, convertStringToDate and
+ * getDateFromVRKDateString.
+ *
+ * @author keshavprasad.akasam
+ *
+ */
+public class RunnerDateTest {
+
+	/* Zones with daylight saving gaps at 02:00 and at midnight, and zones that skipped a whole day */
+	private static final String[] ZONES = { "UTC", "Europe/Helsinki", "America/New_York", "America/Sao_Paulo",
+			"Pacific/Apia", "Pacific/Kiritimati" };
+
+	private static final Pattern[] DATE_SHAPES = { Pattern.compile("\\d\\d[-.]\\d\\d[-.]\\d\\d\\d\\d"),
+			Pattern.compile("\\d[-.]\\d\\d[-.]\\d\\d\\d\\d"), Pattern.compile("\\d\\d[-.]\\d[-.]\\d\\d\\d\\d"),
+			Pattern.compile("\\d[-.]\\d[-.]\\d\\d\\d\\d"), Pattern.compile("\\d\\d\\d\\d\\d\\d\\d\\d") };
+
+	private static final String[] DATE_FORMATS = { "dd-MM-yyyy", "dd.MM.yyyy", "ddMMyyyy" };
+
+	private TimeZone defaultZone;
+
+	@Before
+	public void setUp() {
+		defaultZone = TimeZone.getDefault();
+	}
+
+	@SuppressWarnings("deprecation")
+	@After
+	public void tearDown() {
+		TimeZone.setDefault(defaultZone);
+		RunnerDate.setClock(RunnerClock.system());
+		RunnerDate.setTestRunnerDate(null);
+	}
+
+	@Test
+	public void rejectsDaySkippedByDefaultZone() {
+		TimeZone.setDefault(TimeZone.getTimeZone("Pacific/Apia"));
+
+		assertFalse(RunnerDate.isDateValid("30.12.2011"));
+		assertNull(RunnerDate.convertStringToDate("30.12.2011"));
+		assertNull(RunnerDate.getDateFromVRKDateString("20111230"));
+	}
+
+	@Test
+	public void usesDefaultZoneOfEachCall() {
+		TimeZone.setDefault(TimeZone.getTimeZone("UTC"));
+		assertEquals(946684800000L, RunnerDate.convertStringToDate("01.01.2000").getTime());
+
+		TimeZone.setDefault(TimeZone.getTimeZone("Europe/Helsinki"));
+		assertEquals(946677600000L, RunnerDate.convertStringToDate("01.01.2000").getTime());
+		assertEquals(946677600000L, RunnerDate.getDateFromVRKDateString("20000101").getTime());
+	}
+
+	@Test
+	public void twoDigitYearsFollowTimeAndZoneOfCall() {
+		TimeZone.setDefault(TimeZone.getTimeZone("UTC"));
+		RunnerDateFormat format = RunnerDateFormatRegistry.getFormat("d.M.yy");
+		format.parseOrNull("1.1.15");
+
+		for (String zone : ZONES) {
+			TimeZone.setDefault(TimeZone.getTimeZone(zone));
+			// Days around the start of the two digit years, which is 80 years before today
+			Calendar calendar = Calendar.getInstance();
+			calendar.add(Calendar.YEAR, -80);
+			calendar.add(Calendar.DATE, -3);
+			for (int i = 0; i < 7; i++) {
+				String dateString = calendar.get(Calendar.DATE) + "." + (calendar.get(Calendar.MONTH) + 1) + "."
+						+ calendar.get(Calendar.YEAR) % 100;
+				SimpleDateFormat simpleDateFormat = new SimpleDateFormat("d.M.yy");
+				simpleDateFormat.setLenient(false);
+				Date expected;
+				try {
+					expected = simpleDateFormat.parse(dateString);
+				} catch (ParseException pe) {
+					expected = null;
+				}
+				assertEquals(zone + " " + dateString, expected, format.parseOrNull(dateString));
+				calendar.add(Calendar.DATE, 1);
+			}
+		}
+	}
+
+	@Test
+	public void cacheParsesInZoneOfCreation() {
+		TimeZone.setDefault(TimeZone.getTimeZone("Europe/Helsinki"));
+		RunnerDateCache cache = new RunnerDateCache(16);
+		RunnerDateCache formatCache = new RunnerDateCache("yyyy/MM/dd", 16);
+
+		TimeZone.setDefault(TimeZone.getTimeZone("UTC"));
+		assertEquals(946677600000L, cache.convertStringToDate("01.01.2000").getTime());
+		assertEquals(946677600000L, formatCache.convertStringToDate("2000/01/01").getTime());
+		assertEquals("Europe/Helsinki", cache.getTimeZone().getID());
+		assertNull(cache.convertStringToDate("31.02.2000"));
+	}
+
+	@SuppressWarnings("deprecation")
+	@Test
+	public void currentEpochDayIgnoresTestDateWithoutDate() {
+		TimeZone.setDefault(TimeZone.getTimeZone("Europe/Helsinki"));
+		RunnerDate.setClock(RunnerClock.fixed(946677600000L));
+		RunnerDate.setTestRunnerDate(new RunnerDate());
+
+		assertEquals(10957, RunnerDate.getCurrentEpochDay());
+		assertEquals(10957, RunnerDate.getCurrentEpochDay(ZoneId.of("Europe/Helsinki")));
+		assertEquals(946677600000L, RunnerDate.getCurrentDateWithOnlyDates(ZoneId.of("Europe/Helsinki")).getTime());
+	}
+
+	@Test
+	public void currentEpochDayFollowsDefaultZone() {
+		RunnerDate.setClock(RunnerClock.fixed(946677600000L));
+
+		TimeZone.setDefault(TimeZone.getTimeZone("Europe/Helsinki"));
+		assertEquals(10957, RunnerDate.getCurrentEpochDay());
+		TimeZone.setDefault(TimeZone.getTimeZone("UTC"));
+		assertEquals(10956, RunnerDate.getCurrentEpochDay());
+	}
+
+	@Test
+	public void timeStampFormatFollowsDigitWidths() {
+		assertEquals("dd.MM.yyyy HH:mm", RunnerDate.getTimeStampFormat("01.02.2015 10:00"));
+		assertEquals("d.M.yyyy HH:mm", RunnerDate.getTimeStampFormat("1.2.2015 10:00"));
+		assertEquals("d.M.yyyy HH:mm", RunnerDate.getTimeStampFormat("1.02.2015 10:00"));
+		assertEquals("dd-MM-yyyy HH:mm", RunnerDate.getTimeStampFormat("1-2-2015 10:00"));
+		assertEquals("ddMMyyyy HH:mm", RunnerDate.getTimeStampFormat("01022015 10:00"));
+		assertEquals("yyyy-MM-dd'T'HH:mm", RunnerDate.getTimeStampFormat("2015-02-01T10:00"));
+
+		RunnerDateFormatSniffer sniffer = RunnerDateFormatSniffer.forTimeStamps(2);
+		sniffer.parseToEpochMillis("1.2.2015 10:00");
+		sniffer.parseToEpochMillis("15.2.2015 10:00");
+		assertEquals("d.M.yyyy HH:mm", sniffer.getLockedFormat());
+		assertEquals(RunnerDate.convertTimeStampStringToDate("01.02.2015 10:00").getTime(),
+				sniffer.parseToEpochMillis("01.02.2015 10:00"));
+	}
+
+	@Test
+	public void matchesSimpleDateFormat() {
+		for (String zone : ZONES) {
+			TimeZone.setDefault(TimeZone.getTimeZone(zone));
+			int shape = 0;
+			for (int year = 1890; year <= 2040; year++) {
+				for (int month = 0; month <= 13; month++) {
+					for (int day = 0; day <= 32; day++) {
+						String dateString = toDateString(day, month, year, shape++);
+						String message = zone + " " + dateString;
+						assertEquals(message, isDateValid(dateString), RunnerDate.isDateValid(dateString));
+						assertEquals(message, convertStringToDate(dateString),
+								RunnerDate.convertStringToDate(dateString));
+
+						String vrkDateString = String.format("%04d%02d%02d", year, month, day);
+						assertEquals(zone + " " + vrkDateString, getDateFromVRKDateString(vrkDateString),
+								RunnerDate.getDateFromVRKDateString(vrkDateString));
+					}
+				}
+			}
+		}
+	}
+
+	private static String toDateString(int day, int month, int year, int shape) {
+		switch (shape % 4) {
+		case 0:
+			return String.format("%02d.%02d.%04d", day, month, year);
+		case 1:
+			return String.format("%02d-%02d-%04d", day, month, year);
+		case 2:
+			return String.format("%02d%02d%04d", day, month, year);
+		default:
+			return day + "." + month + "." + year;
+		}
+	}
+
+	private static boolean isDateValid(String dateString) {
+		return parse(dateString) != null;
+	}
+
+	private static Date convertStringToDate(String dateString) {
+		Date date = parse(dateString);
+		if (date == null) {
+			return null;
+		}
+		Calendar calendar = Calendar.getInstance();
+		calendar.setTime(date);
+
+		Calendar clearedCalendar = Calendar.getInstance();
+		clearedCalendar.clear();
+		clearedCalendar.set(Calendar.YEAR, calendar.get(Calendar.YEAR));
+		clearedCalendar.set(Calendar.MONTH, calendar.get(Calendar.MONTH));
+		clearedCalendar.set(Calendar.DATE, calendar.get(Calendar.DATE));
+		return clearedCalendar.getTime();
+	}
+
+	private static Date getDateFromVRKDateString(String vrkDateString) {
+		SimpleDateFormat simpleDateFormat = new SimpleDateFormat("yyyyMMdd");
+		simpleDateFormat.setLenient(false);
+		try {
+			return simpleDateFormat.parse(vrkDateString);
+		} catch (ParseException pe) {
+			return null;
+		}
+	}
+
+	private static Date parse(String dateString) {
+		if (!hasDateShape(dateString)) {
+			return null;
+		}
+		for (String format : DATE_FORMATS) {
+			SimpleDateFormat simpleDateFormat = new SimpleDateFormat(format);
+			simpleDateFormat.setLenient(false);
+			try {
+				return simpleDateFormat.parse(dateString);
+			} catch (ParseException pe) {
+				continue;
+			}
+		}
+		return null;
+	}
+
+	private static boolean hasDateShape(String dateString) {
+		for (Pattern shape : DATE_SHAPES) {
+			if (shape.matcher(dateString).matches()) {
+				return true;
+			}
+		}
+		return false;
+	}
+}